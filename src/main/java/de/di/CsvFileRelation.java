@@ -0,0 +1,146 @@
+package de.di;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import de.di.structures.ColumnCursor;
+import de.di.structures.RecordCursor;
+import de.di.structures.StreamingRelation;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+/**
+ * A CsvFileRelation is a relation that is backed by its CSV file on disk. Only the name and the attributes are kept in
+ * memory; every cursor re-reads the file, so that single-pass algorithms can process files that exceed the heap. The
+ * file is parsed exactly as by Relation.
+ */
+@Getter
+public class CsvFileRelation implements StreamingRelation {
+
+    private final String name;
+    private final String[] attributes;
+
+    // The path of the CSV file that backs this relation.
+    private final Path filePath;
+
+    // A flag indicating whether the first record of the file is a header that must be skipped by all cursors.
+    private final boolean hasHeader;
+
+    // The separator character of the file.
+    private final char separator;
+
+    // The charset of the file.
+    private final Charset charset;
+
+    public CsvFileRelation(Path filePath, boolean hasHeader, char separator, Charset charset) {
+        this.name = filePath.getFileName().toString().split("\\.")[0];
+        this.filePath = filePath;
+        this.hasHeader = hasHeader;
+        this.separator = separator;
+        this.charset = charset;
+
+        // Only the first record is read to determine the attributes
+        String[] firstRecord;
+        try (CSVReader reader = Relation.openCsvReader(filePath, separator, charset)) {
+            firstRecord = reader.readNext();
+        } catch (CsvValidationException | IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        if (firstRecord == null) {
+            this.attributes = new String[0];
+        } else if (hasHeader) {
+            this.attributes = firstRecord;
+        } else {
+            this.attributes = new String[firstRecord.length];
+            for (int i = 0; i < firstRecord.length; i++)
+                this.attributes[i] = String.valueOf(i);
+        }
+    }
+
+    /**
+     * Opens a cursor that reads the records of this relation from the file.
+     * @return A cursor that is positioned before the first record; it must be closed after use.
+     */
+    @Override
+    public RecordCursor openRecords() {
+        return new FileRecordCursor();
+    }
+
+    /**
+     * Opens a cursor that reads the values of the given attribute from the file.
+     * @param attribute The index of the attribute whose values should be iterated.
+     * @return A cursor that is positioned before the value of the first record; it must be closed after use.
+     */
+    @Override
+    public ColumnCursor openColumn(int attribute) {
+        final RecordCursor records = new FileRecordCursor();
+        return new ColumnCursor() {
+            @Override
+            public boolean hasNext() {
+                return records.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return records.next()[attribute];
+            }
+
+            @Override
+            public void close() {
+                records.close();
+            }
+        };
+    }
+
+    // A cursor that reads one record ahead, so that hasNext() can answer without consuming a record.
+    private class FileRecordCursor implements RecordCursor {
+
+        private final CSVReader reader;
+        private String[] nextRecord;
+
+        private FileRecordCursor() {
+            try {
+                this.reader = Relation.openCsvReader(filePath, separator, charset);
+                if (hasHeader)
+                    this.reader.readNext();
+                this.nextRecord = this.reader.readNext();
+            } catch (CsvValidationException | IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextRecord != null;
+        }
+
+        @Override
+        public String[] next() {
+            if (this.nextRecord == null)
+                throw new NoSuchElementException();
+            String[] record = this.nextRecord;
+            for (int i = 0; i < record.length; i++)
+                if (record[i] == null)
+                    record[i] = "";
+            try {
+                this.nextRecord = this.reader.readNext();
+            } catch (CsvValidationException | IOException e) {
+                throw new RuntimeException(e);
+            }
+            return record;
+        }
+
+        @Override
+        public void close() {
+            try {
+                this.reader.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
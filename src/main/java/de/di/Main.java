@@ -13,6 +13,7 @@ import de.di.duplicate_detection.RecordComparator;
 import de.di.duplicate_detection.SortedNeighborhood;
 import de.di.duplicate_detection.TransitiveClosure;
 import de.di.duplicate_detection.structures.Duplicate;
+import de.di.helper.LoadOptions;
 import de.di.schema_matching.FirstLineSchemaMatcher;
 import de.di.schema_matching.SecondLineSchemaMatcher;
 import de.di.schema_matching.helper.AUCPR;
@@ -85,24 +86,29 @@ public class Main {
                 case CommandUCCProfiler.COMMAND:
                     UCCProfiler uccProfiler = new UCCProfiler();
                     List<UCC> uccResult = new ArrayList<>();
-                    for (Relation relation : Relation.readAllRelationsIn(commandUCCProfiler.inputPath, commandUCCProfiler.hasHeader, commandUCCProfiler.separator.charAt(0), StandardCharsets.UTF_8))
+                    List<Relation> uccRelations = Relation.readAllRelationsIn(commandUCCProfiler.inputPath, commandUCCProfiler.hasHeader, commandUCCProfiler.separator.charAt(0), StandardCharsets.UTF_8, loadOptions(commandUCCProfiler.cacheDirectory).loadingThreads(commandUCCProfiler.loadingThreads).memoryBudget(commandUCCProfiler.memoryBudget << 20));
+                    if (commandUCCProfiler.printLoadTimes)
+                        printLoadTimes(uccRelations);
+                    for (Relation relation : uccRelations)
                         uccResult.addAll(uccProfiler.profile(relation));
                     uccResult.forEach(System.out::println);
                     break;
                 case CommandINDProfiler.COMMAND:
                     INDProfiler indProfiler = new INDProfiler();
-                    List<Relation> relations = Relation.readAllRelationsIn(commandINDProfiler.inputPath, commandINDProfiler.hasHeader, commandINDProfiler.separator.charAt(0), StandardCharsets.UTF_8);
+                    List<Relation> relations = Relation.readAllRelationsIn(commandINDProfiler.inputPath, commandINDProfiler.hasHeader, commandINDProfiler.separator.charAt(0), StandardCharsets.UTF_8, loadOptions(commandINDProfiler.cacheDirectory).loadingThreads(commandINDProfiler.loadingThreads).memoryBudget(commandINDProfiler.memoryBudget << 20));
+                    if (commandINDProfiler.printLoadTimes)
+                        printLoadTimes(relations);
                     List<IND> indResult = indProfiler.profile(relations, commandINDProfiler.discoverNary);
                     indResult.forEach(System.out::println);
                     break;
                 case CommandFirstLineSchemaMatcher.COMMAND:
-                    runMatchingFor(commandFirstLineSchemaMatcher.scenarioPath, false);
+                    runMatchingFor(commandFirstLineSchemaMatcher.scenarioPath, false, loadOptions(commandFirstLineSchemaMatcher.cacheDirectory));
                     break;
                 case CommandSecondLineSchemaMatcher.COMMAND:
-                    runMatchingFor(commandSecondLineSchemaMatcher.scenarioPath, true);
+                    runMatchingFor(commandSecondLineSchemaMatcher.scenarioPath, true, loadOptions(commandSecondLineSchemaMatcher.cacheDirectory));
                     break;
                 case CommandDuplicateDetection.COMMAND:
-                    Relation relation = new Relation(commandDuplicateDetection.scenarioPath, commandDuplicateDetection.hasHeader, commandDuplicateDetection.separator.charAt(0), StandardCharsets.ISO_8859_1);
+                    Relation relation = new Relation(Path.of(commandDuplicateDetection.scenarioPath), commandDuplicateDetection.hasHeader, commandDuplicateDetection.separator.charAt(0), StandardCharsets.ISO_8859_1, loadOptions(commandDuplicateDetection.cacheDirectory));
                     RecordComparator recordComparator = SortedNeighborhood.suggestRecordComparatorFor(relation);
                     SortedNeighborhood sortedNeighborhood = new SortedNeighborhood();
                     int[] sortingKeys = Arrays.stream(commandDuplicateDetection.sortingKeys.split(",")).mapToInt(Integer::parseInt).toArray();
@@ -197,6 +203,18 @@ public class Main {
 
         @Parameter(names = {"--separator"}, description = "File separator character", required = false, arity = 1)
         String separator = ";";
+
+        @Parameter(names = {"--cacheDir"}, description = "Directory of the binary relation cache; must not be inside the input folder; caching is disabled if not set", required = false, arity = 1)
+        String cacheDirectory = null;
+
+        @Parameter(names = {"--loadingThreads"}, description = "Number of threads that load the files of the input folder concurrently", required = false, arity = 1)
+        int loadingThreads = Runtime.getRuntime().availableProcessors();
+
+        @Parameter(names = {"--memoryBudget"}, description = "Maximum total size in MiB of all files that are loaded concurrently", required = false, arity = 1)
+        long memoryBudget = Long.MAX_VALUE >> 20;
+
+        @Parameter(names = {"--printLoadTimes"}, description = "Flag to print the load time of every file", required = false, arity = 1)
+        boolean printLoadTimes = false;
     }
 
     @Parameters(commandDescription = "Execute the INDProfiler data profiling algorithm.")
@@ -215,6 +233,18 @@ public class Main {
 
         @Parameter(names = {"--discoverNary"}, description = "Flag to indicate whether n-ary INDs should be discovered as well", required = false, arity = 1)
         boolean discoverNary = false;
+
+        @Parameter(names = {"--cacheDir"}, description = "Directory of the binary relation cache; must not be inside the input folder; caching is disabled if not set", required = false, arity = 1)
+        String cacheDirectory = null;
+
+        @Parameter(names = {"--loadingThreads"}, description = "Number of threads that load the files of the input folder concurrently", required = false, arity = 1)
+        int loadingThreads = Runtime.getRuntime().availableProcessors();
+
+        @Parameter(names = {"--memoryBudget"}, description = "Maximum total size in MiB of all files that are loaded concurrently", required = false, arity = 1)
+        long memoryBudget = Long.MAX_VALUE >> 20;
+
+        @Parameter(names = {"--printLoadTimes"}, description = "Flag to print the load time of every file", required = false, arity = 1)
+        boolean printLoadTimes = false;
     }
 
     @Parameters(commandDescription = "Execute the FirstLineSchemaMatcher algorithm.")
@@ -224,6 +254,9 @@ public class Main {
 
         @Parameter(names = {"--scenarioPath"}, description = "Path of the matching scenario", required = true, arity = 1)
         String scenarioPath;
+
+        @Parameter(names = {"--cacheDir"}, description = "Directory of the binary relation cache; must not be inside the input folder; caching is disabled if not set", required = false, arity = 1)
+        String cacheDirectory = null;
     }
 
     @Parameters(commandDescription = "Execute the SecondLineSchemaMatcher algorithm.")
@@ -233,6 +266,9 @@ public class Main {
 
         @Parameter(names = {"--scenarioPath"}, description = "Path of the matching scenario", required = true, arity = 1)
         String scenarioPath;
+
+        @Parameter(names = {"--cacheDir"}, description = "Directory of the binary relation cache; must not be inside the input folder; caching is disabled if not set", required = false, arity = 1)
+        String cacheDirectory = null;
     }
 
     @Parameters(commandDescription = "Execute the entire duplicate detection pipeline.")
@@ -254,9 +290,24 @@ public class Main {
 
         @Parameter(names = {"--windowSize"}, description = "Window size for the Sorted Neighborhood Method", required = false, arity = 1)
         int windowSize = 5;
+
+        @Parameter(names = {"--cacheDir"}, description = "Directory of the binary relation cache; must not be inside the input folder; caching is disabled if not set", required = false, arity = 1)
+        String cacheDirectory = null;
+    }
+
+    private static LoadOptions loadOptions(String cacheDirectory) {
+        LoadOptions options = LoadOptions.defaults();
+        if (cacheDirectory != null)
+            options.cacheDirectory(Path.of(cacheDirectory));
+        return options;
+    }
+
+    private static void printLoadTimes(List<Relation> relations) {
+        for (Relation relation : relations)
+            System.out.println("Loaded " + relation.getName() + " in " + relation.getLoadTime() / 1000000 + " ms");
     }
 
-    private static void runMatchingFor(String scenarioPath, boolean withSecondLineMatcher) {
+    private static void runMatchingFor(String scenarioPath, boolean withSecondLineMatcher, LoadOptions options) {
         List<Path> sources = scanFiles(scenarioPath + File.separator + "source");
         List<Path> targets = scanFiles(scenarioPath + File.separator + "target");
 
@@ -271,9 +322,9 @@ public class Main {
                     continue;
 
                 // Load the relations and ground truth data
-                Relation sourceRelation = new Relation(source.toString(), true, ',', StandardCharsets.UTF_8);
-                Relation targetRelation = new Relation(target.toString(), true, ',', StandardCharsets.UTF_8);
-                Relation groundRelation = new Relation(groundTruth.toString(), false, ',', StandardCharsets.UTF_8);
+                Relation sourceRelation = new Relation(source, true, ',', StandardCharsets.UTF_8, options);
+                Relation targetRelation = new Relation(target, true, ',', StandardCharsets.UTF_8, options);
+                Relation groundRelation = new Relation(groundTruth, false, ',', StandardCharsets.UTF_8, options);
 
                 // Calculate first-line matching
                 FirstLineSchemaMatcher firstMatcher = new FirstLineSchemaMatcher();
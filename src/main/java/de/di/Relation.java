@@ -6,11 +6,30 @@ import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
 import com.opencsv.enums.CSVReaderNullFieldIndicator;
 import com.opencsv.exceptions.CsvValidationException;
-import lombok.AllArgsConstructor;
+import de.di.helper.Compression;
+import de.di.helper.LoadOptions;
+import de.di.helper.MappedCsvParser;
+import de.di.helper.RelationCache;
+import de.di.helper.ReservoirSampler;
+import de.di.helper.ValueInterner;
+import de.di.structures.ChangeListener;
+import de.di.structures.ColumnCursor;
+import de.di.structures.ColumnSketch;
+import de.di.structures.ColumnStatistics;
+import de.di.structures.ColumnType;
+import de.di.structures.DictionaryColumn;
+import de.di.structures.RecordCursor;
+import de.di.structures.RecordRange;
+import de.di.structures.StreamingRelation;
+import de.di.structures.TypedColumn;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -18,26 +37,157 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Getter
-@AllArgsConstructor
-public class Relation {
+public class Relation implements StreamingRelation {
 
     private String name;
     private String[] attributes;
+
+    // The row-major records of this relation; in columnar mode, they are only materialized on request. Appends leave
+    // spare capacity at the end of the array, so only the first numRowRecords entries are records.
+    @Getter(AccessLevel.NONE)
     private String[][] records;
 
+    // The number of row-major records; only valid if records is not null.
+    @Getter(AccessLevel.NONE)
+    private int numRowRecords;
+
+    // The dictionary-encoded columns of this relation; built once and then shared by all consumers.
+    @Getter(AccessLevel.NONE)
+    private DictionaryColumn[] dictionaryColumns;
+
+    // The decoded columns of this relation; built once on first request.
+    @Getter(AccessLevel.NONE)
+    private String[][] columns;
+
+    // The typed columns of this relation; inferred at load time with LoadOptions.inferTypes or on first request.
+    @Getter(AccessLevel.NONE)
+    private TypedColumn[] typedColumns;
+
+    // The statistics of every column; read from the cache file or calculated on first request.
+    @Getter(AccessLevel.NONE)
+    private ColumnStatistics[] statistics;
+
+    // The sketches of every column; computed at load time with LoadOptions.sketches or on first request.
+    @Getter(AccessLevel.NONE)
+    private ColumnSketch[] sketches;
+
+    // The record indexes of this relation in the relation or file it was sampled from; null if it is no sample.
+    private int[] sourceIndexes;
+
+    // The time in nanoseconds that loading this relation from its file took; 0 if it was not loaded from a file.
+    private long loadTime;
+
+    // The version of this relation; it starts at 0 and every appended batch of records increments it.
+    @Getter(AccessLevel.NONE)
+    private long version = 0;
+
+    // The number of records of this relation in every version; recorded once the first batch is appended.
+    @Getter(AccessLevel.NONE)
+    private final IntArrayList versionSizes = new IntArrayList();
+
+    // The listeners that subscribed to the change feed of this relation.
+    @Getter(AccessLevel.NONE)
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public Relation(String name, String[] attributes, String[][] records) {
+        this.name = name;
+        this.attributes = attributes;
+        this.records = records;
+        this.numRowRecords = records.length;
+    }
+
     public static List<Relation> readAllRelationsIn(String folderPath, boolean hasHeader, char separator, Charset charset) {
+        return readAllRelationsIn(folderPath, hasHeader, separator, charset, LoadOptions.defaults());
+    }
+
+    /**
+     * Reads all files in the given folder and its sub-folders as relations. With more than one loading thread, the
+     * files are loaded concurrently, largest first, while the total size of all files that are loaded at the same time
+     * stays within the memory budget of the options. The returned relations are always in folder walk order.
+     * @param folderPath The path of the folder whose files should be read.
+     * @param hasHeader A flag indicating whether the first record of every file is a header.
+     * @param separator The separator character of the files.
+     * @param charset The charset of the files.
+     * @param options The options that control how the relations are loaded.
+     * @return The relations of all files in the folder.
+     */
+    public static List<Relation> readAllRelationsIn(String folderPath, boolean hasHeader, char separator, Charset charset, LoadOptions options) {
+        List<Path> filePaths;
         try (Stream<Path> paths = Files.walk(Paths.get(folderPath))) {
-            return paths.filter(Files::isRegularFile)
-                    .map(filePath -> new Relation(filePath, hasHeader, separator, charset))
+            RelationCache cache = (options.getCacheDirectory() == null) ? null : new RelationCache(options.getCacheDirectory());
+            filePaths = paths.filter(Files::isRegularFile)
+                    .filter(filePath -> cache == null || !cache.contains(filePath))
                     .collect(Collectors.toList());
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+
+        int numThreads = Math.min(options.getLoadingThreads(), filePaths.size());
+        if (numThreads <= 1)
+            return filePaths.stream()
+                    .map(filePath -> new Relation(filePath, hasHeader, separator, charset, options))
+                    .collect(Collectors.toList());
+
+        // The budget is managed in KiB permits, so that budgets of more than 2 GiB fit into an int semaphore
+        long[] fileSizes = new long[filePaths.size()];
+        for (int i = 0; i < fileSizes.length; i++) {
+            try {
+                fileSizes[i] = Files.size(filePaths.get(i));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        int budgetPermits = (int) Math.min(Integer.MAX_VALUE, Math.max(1, options.getMemoryBudget() >> 10));
+        Semaphore budget = new Semaphore(budgetPermits, true);
+
+        Integer[] largestFirst = new Integer[filePaths.size()];
+        for (int i = 0; i < largestFirst.length; i++)
+            largestFirst[i] = i;
+        Arrays.sort(largestFirst, Comparator.comparingLong((Integer i) -> fileSizes[i]).reversed());
+
+        Relation[] relations = new Relation[filePaths.size()];
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(relations.length);
+            for (int index : largestFirst) {
+                // A file that is larger than the whole budget takes the entire budget and is loaded alone
+                int permits = (int) Math.min(budgetPermits, Math.max(1, (fileSizes[index] + 1023) >> 10));
+                futures.add(executor.submit(() -> {
+                    budget.acquireUninterruptibly(permits);
+                    try {
+                        relations[index] = new Relation(filePaths.get(index), hasHeader, separator, charset, options);
+                    } finally {
+                        budget.release(permits);
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return Arrays.asList(relations);
     }
 
     public Relation(String filePath) {
@@ -49,8 +199,97 @@ public class Relation {
     }
 
     public Relation(Path filePath, boolean hasHeader, char separator, Charset charset) {
+        this(filePath, hasHeader, separator, charset, LoadOptions.defaults());
+    }
+
+    public Relation(Path filePath, boolean hasHeader, char separator, Charset charset, LoadOptions options) {
+        long startTime = System.nanoTime();
         this.name = filePath.getFileName().toString().split("\\.")[0];
+        this.load(filePath, hasHeader, separator, charset, options);
+        if (options.isSketches())
+            this.getSketches();
+        if (options.isInferTypes())
+            this.inferTypes();
+        this.loadTime = System.nanoTime() - startTime;
+    }
+
+    private void load(Path filePath, boolean hasHeader, char separator, Charset charset, LoadOptions options) {
+        // An up-to-date cache file replaces parsing; cached relations are always stored column-wise
+        RelationCache cache = (options.getCacheDirectory() == null) ? null : new RelationCache(options.getCacheDirectory());
+        RelationCache.CachedRelation cached = (cache == null) ? null : cache.read(filePath, hasHeader, separator, charset);
+        if (cached != null) {
+            this.attributes = cached.getAttributes();
+            this.dictionaryColumns = cached.getColumns();
+            this.statistics = cached.getStatistics();
+            if (options.getSampleSize() > 0)
+                this.keep(ReservoirSampler.sample(cached.getNumRecords(), options.getSampleSize(), options.getSampleSeed()));
+            return;
+        }
 
+        if (options.isMemoryMapped() && MappedCsvParser.supports(charset, separator) && isUncompressed(filePath)) {
+            this.readMapped(filePath, hasHeader, separator, charset, options.getParsingThreads());
+            if (options.getSampleSize() > 0)
+                this.keep(ReservoirSampler.sample(this.records.length, options.getSampleSize(), options.getSampleSeed()));
+            if (options.getInternLimit() > 0) {
+                // The chunks are parsed in parallel, so their values are interned afterwards in a single pass
+                ValueInterner interner = new ValueInterner(options.getInternLimit());
+                for (String[] record : this.records)
+                    interner.internAll(record);
+            }
+        } else {
+            this.readSequential(filePath, hasHeader, separator, charset, options);
+        }
+
+        if (!hasHeader && this.records.length != 0) {
+            this.attributes = new String[this.records[0].length];
+            for (int i = 0; i < this.records[0].length; i++)
+                this.attributes[i] = String.valueOf(i);
+        }
+        if (this.attributes == null)
+            this.attributes = new String[0];
+
+        // Only complete relations whose records all match the attributes can be encoded column-wise and be cached
+        if (cache != null && this.sourceIndexes == null && this.isRectangular()) {
+            cache.write(filePath, hasHeader, separator, charset, new RelationCache.CachedRelation(
+                    this.attributes, this.getNumRecords(), this.encodeColumns(), this.getStatistics()));
+        }
+
+        if (options.isColumnar()) {
+            this.encodeColumns();
+            this.records = null;
+        }
+    }
+
+    // Infers the types of all columns; in columnar mode, the dictionary of a typed column is dropped if its primitive
+    // values need less memory, and it is re-encoded from the primitive values if it is requested again.
+    private synchronized void inferTypes() {
+        boolean columnar = this.records == null;
+        for (int attribute = 0; attribute < this.attributes.length; attribute++) {
+            TypedColumn typedColumn = this.getTypedColumn(attribute);
+            if (columnar && typedColumn.getType() != ColumnType.STRING &&
+                    typedColumn.estimateBytes() < this.dictionaryColumns[attribute].estimateBytes())
+                this.dictionaryColumns[attribute] = null;
+        }
+    }
+
+    private static boolean isUncompressed(Path filePath) {
+        try {
+            return Compression.of(filePath) == Compression.NONE;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Opens a CSV reader with the parser configuration that is used for all relation files. Compressed files are
+     * decompressed on the fly.
+     * @param filePath The path of the CSV file.
+     * @param separator The separator character of the file.
+     * @param charset The charset of the file.
+     * @return A reader that is positioned before the first record of the file.
+     * @throws IOException If the file cannot be opened.
+     */
+    static CSVReader openCsvReader(Path filePath, char separator, Charset charset) throws IOException {
         CSVParser parser = new CSVParserBuilder()
                 .withSeparator(separator)
                 .withQuoteChar('"')
@@ -60,10 +299,20 @@ public class Relation {
                 .withFieldAsNull(CSVReaderNullFieldIndicator.EMPTY_SEPARATORS)
                 .build();
 
+        BufferedReader buffer = (Compression.of(filePath) == Compression.NONE) ?
+                Files.newBufferedReader(filePath, charset) :
+                new BufferedReader(new InputStreamReader(Compression.open(filePath), charset.newDecoder()));
+        return new CSVReaderBuilder(buffer).withCSVParser(parser).build();
+    }
+
+    private void readSequential(Path filePath, boolean hasHeader, char separator, Charset charset, LoadOptions options) {
         ArrayList<String[]> records;
+        int sampleSize = options.getSampleSize();
+        ReservoirSampler sampler = (sampleSize > 0) ? new ReservoirSampler(sampleSize, options.getSampleSeed()) : null;
+        String[][] reservoir = (sampleSize > 0) ? new String[sampleSize][] : null;
+        ValueInterner interner = (options.getInternLimit() > 0) ? new ValueInterner(options.getInternLimit()) : null;
         try {
-            BufferedReader buffer = Files.newBufferedReader(filePath, charset);
-            CSVReader reader = new CSVReaderBuilder(buffer).withCSVParser(parser).build();
+            CSVReader reader = openCsvReader(filePath, separator, charset);
 
             if (hasHeader)
                 this.attributes = reader.readNext();
@@ -74,39 +323,467 @@ public class Relation {
                 for (int i = 0; i < line.length; i++)
                     if (line[i] == null)
                         line[i] = "";
-                records.add(line);
+                if (sampler == null) {
+                    if (interner != null)
+                        interner.internAll(line);
+                    records.add(line);
+                } else {
+                    // Only the reservoir is kept in memory while the file is read
+                    int slot = sampler.offer();
+                    if (slot >= 0) {
+                        if (interner != null)
+                            interner.internAll(line);
+                        reservoir[slot] = line;
+                    }
+                }
             }
             reader.close();
         } catch (CsvValidationException | IOException e) {
             throw new RuntimeException(e);
         }
 
+        if (sampler != null) {
+            for (int slot : sampler.slotsInStreamOrder())
+                records.add(reservoir[slot]);
+            this.sourceIndexes = sampler.sampledItems();
+        }
+
         this.records = new String[records.size()][];
         for (int i = 0; i < records.size(); i++)
             this.records[i] = records.get(i);
+        this.numRowRecords = this.records.length;
+    }
 
-        if (!hasHeader && this.records.length != 0) {
-            this.attributes = new String[this.records[0].length];
-            for (int i = 0; i < this.records[0].length; i++)
-                this.attributes[i] = String.valueOf(i);
+    private void readMapped(Path filePath, boolean hasHeader, char separator, Charset charset, int parsingThreads) {
+        try {
+            MappedCsvParser.ParsedCsv parsed = new MappedCsvParser(separator, charset, parsingThreads).parse(filePath, hasHeader);
+            if (hasHeader)
+                this.attributes = parsed.getHeader();
+            this.records = parsed.getRecords();
+            this.numRowRecords = this.records.length;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Draws a uniform random sample of the records of this relation. The sample is a lightweight view that shares the
+     * record arrays or, in columnar mode, the column values of this relation; its records keep their relative order.
+     * @param size The number of records to sample; all records are returned if the relation has fewer records.
+     * @param seed The seed of the random generator; equal seeds draw equal samples.
+     * @return The sampled relation; its source indexes refer to the records of this relation's source.
+     */
+    public Relation sample(int size, long seed) {
+        int numRecords = this.getNumRecords();
+        size = Math.min(size, numRecords);
+
+        // Floyd's algorithm draws the sample with size random numbers, independent of the number of records
+        SplittableRandom random = new SplittableRandom(seed);
+        IntOpenHashSet sampled = new IntOpenHashSet(size);
+        for (int bound = numRecords - size; bound < numRecords; bound++) {
+            int record = random.nextInt(bound + 1);
+            sampled.add(sampled.contains(record) ? bound : record);
+        }
+        int[] indexes = sampled.toIntArray();
+        Arrays.sort(indexes);
+        return new Relation(this, indexes);
+    }
+
+    /**
+     * Draws a stratified random sample of the records of this relation, i.e., the given fraction of the records of
+     * every distinct value of the given attribute, but at least one record per value. The sample is a lightweight
+     * view that shares the record arrays or column values of this relation; its records keep their relative order.
+     * @param attribute The attribute whose distinct values define the strata.
+     * @param fraction The fraction of the records of every stratum that should be sampled.
+     * @param seed The seed of the random generator; equal seeds draw equal samples.
+     * @return The sampled relation; its source indexes refer to the records of this relation's source.
+     */
+    public Relation sampleStratified(int attribute, double fraction, long seed) {
+        DictionaryColumn column = this.getColumn(attribute);
+
+        // Group the records by their value ids with a counting sort
+        int[] offsets = new int[column.cardinality() + 1];
+        for (int valueId : column.getValueIds())
+            offsets[valueId + 1]++;
+        for (int valueId = 0; valueId < column.cardinality(); valueId++)
+            offsets[valueId + 1] += offsets[valueId];
+        int[] grouped = new int[column.size()];
+        int[] positions = Arrays.copyOf(offsets, column.cardinality());
+        for (int record = 0; record < column.size(); record++)
+            grouped[positions[column.getValueId(record)]++] = record;
+
+        // Draw the records of every stratum with a partial Fisher-Yates shuffle of its group
+        SplittableRandom random = new SplittableRandom(seed);
+        IntArrayList sampled = new IntArrayList();
+        for (int valueId = 0; valueId < column.cardinality(); valueId++) {
+            int from = offsets[valueId];
+            int count = offsets[valueId + 1] - from;
+            int size = Math.min(count, Math.max(1, (int) Math.round(fraction * count)));
+            for (int i = 0; i < size; i++) {
+                int j = from + i + random.nextInt(count - i);
+                int record = grouped[j];
+                grouped[j] = grouped[from + i];
+                grouped[from + i] = record;
+                sampled.add(record);
+            }
+        }
+        int[] indexes = sampled.toIntArray();
+        Arrays.sort(indexes);
+        return new Relation(this, indexes);
+    }
+
+    // Creates a view of the given records of the source relation.
+    private Relation(Relation source, int[] indexes) {
+        this.name = source.name;
+        this.attributes = source.attributes;
+        this.records = source.records;
+        this.sourceIndexes = source.sourceIndexes;
+        if (this.records == null) {
+            // Columns whose dictionary was dropped for a typed column are re-encoded before they are selected
+            this.dictionaryColumns = new DictionaryColumn[this.attributes.length];
+            for (int attribute = 0; attribute < this.attributes.length; attribute++)
+                this.dictionaryColumns[attribute] = source.getColumn(attribute);
+        }
+        this.keep(indexes);
+    }
+
+    // Reduces this relation to the given records; the kept records share their arrays and values with the original.
+    private void keep(int[] indexes) {
+        if (this.records != null) {
+            String[][] records = new String[indexes.length][];
+            for (int i = 0; i < indexes.length; i++)
+                records[i] = this.records[indexes[i]];
+            this.records = records;
+            this.numRowRecords = records.length;
+            this.dictionaryColumns = null;
+        } else {
+            DictionaryColumn[] columns = new DictionaryColumn[this.attributes.length];
+            for (int attribute = 0; attribute < columns.length; attribute++)
+                columns[attribute] = this.dictionaryColumns[attribute].select(indexes);
+            this.dictionaryColumns = columns;
+        }
+        this.typedColumns = null;
+        this.columns = null;
+        this.statistics = null;
+        this.sketches = null;
+
+        int[] sourceIndexes = new int[indexes.length];
+        for (int i = 0; i < indexes.length; i++)
+            sourceIndexes[i] = (this.sourceIndexes == null) ? indexes[i] : this.sourceIndexes[indexes[i]];
+        this.sourceIndexes = sourceIndexes;
+    }
+
+    /**
+     * Appends a batch of records to this relation and increments its version. Row-major records are appended by
+     * reference and dictionary-encoded columns are extended, so that the existing records keep their value ids; all
+     * other derived data, such as typed columns, statistics, and sketches, is recalculated on the next request. After
+     * the batch is visible, all subscribed listeners are notified with the range of the new records.
+     * @param batch The records that should be appended; every record must have a value for every attribute.
+     * @return The range of the appended records and the new version; an empty range if the batch is empty.
+     */
+    public RecordRange append(String[][] batch) {
+        RecordRange range;
+        synchronized (this) {
+            if (this.sourceIndexes != null)
+                throw new IllegalStateException("Records cannot be appended to a sample of relation " + this.name + ".");
+            for (String[] record : batch)
+                if (record.length != this.attributes.length)
+                    throw new IllegalArgumentException("Relation " + this.name + " has " + this.attributes.length +
+                            " attributes, but an appended record has " + record.length + " values.");
+
+            int from = this.getNumRecords();
+            if (batch.length == 0)
+                return new RecordRange(from, from, this.version);
+            if (this.versionSizes.isEmpty())
+                this.versionSizes.add(from);
+
+            if (this.dictionaryColumns != null) {
+                DictionaryColumn[] columns = new DictionaryColumn[this.attributes.length];
+                String[] values = new String[batch.length];
+                for (int attribute = 0; attribute < columns.length; attribute++) {
+                    for (int record = 0; record < batch.length; record++)
+                        values[record] = batch[record][attribute];
+                    columns[attribute] = this.getColumn(attribute).append(values);
+                }
+                this.dictionaryColumns = columns;
+            }
+            if (this.records != null) {
+                // The array grows by doubling, so that a stream of small batches costs amortized time in the batch size
+                if (this.records.length < from + batch.length)
+                    this.records = Arrays.copyOf(this.records, Math.max(from + batch.length, 2 * from));
+                System.arraycopy(batch, 0, this.records, from, batch.length);
+                this.numRowRecords = from + batch.length;
+            }
+            this.typedColumns = null;
+            this.columns = null;
+            this.statistics = null;
+            this.sketches = null;
+
+            this.version++;
+            this.versionSizes.add(from + batch.length);
+            range = new RecordRange(from, from + batch.length, this.version);
+        }
+        for (ChangeListener listener : this.listeners)
+            listener.recordsAppended(this, range);
+        return range;
+    }
+
+    /**
+     * Returns the version of this relation, i.e., the number of non-empty batches that were appended to it.
+     * @return The current version of this relation.
+     */
+    public synchronized long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Returns the range of all records that were appended after the given version, so that consumers that poll the
+     * relation instead of subscribing to it can catch up with the current version.
+     * @param version The version that the consumer has already processed.
+     * @return The range of the records that were appended since the given version.
+     */
+    public synchronized RecordRange changesSince(long version) {
+        if (version < 0 || version > this.version)
+            throw new IllegalArgumentException("Relation " + this.name + " has no version " + version + "; its current version is " + this.version + ".");
+        int numRecords = this.getNumRecords();
+        int from = (version == this.version) ? numRecords : this.versionSizes.getInt((int) version);
+        return new RecordRange(from, numRecords, this.version);
+    }
+
+    /**
+     * Subscribes the given listener to the change feed of this relation.
+     * @param listener The listener that should be notified about appended records.
+     */
+    public void addChangeListener(ChangeListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Unsubscribes the given listener from the change feed of this relation.
+     * @param listener The listener that should no longer be notified.
+     */
+    public void removeChangeListener(ChangeListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Returns the number of records in this relation.
+     * @return The number of records in this relation.
+     */
+    public int getNumRecords() {
+        if (this.records != null)
+            return this.numRowRecords;
+        if (this.attributes.length == 0)
+            return 0;
+        return (this.dictionaryColumns[0] != null) ? this.dictionaryColumns[0].size() : this.typedColumns[0].size();
+    }
+
+    /**
+     * Returns the row-major records of this relation. In columnar mode, the records are materialized from the
+     * dictionary-encoded columns once and then cached; the materialized records share their values with the column
+     * dictionaries. The returned array must not be modified.
+     * @return The records of this relation.
+     */
+    public synchronized String[][] getRecords() {
+        if (this.records == null && this.dictionaryColumns != null) {
+            String[][] records = new String[this.getNumRecords()][];
+            for (int record = 0; record < records.length; record++) {
+                records[record] = new String[this.dictionaryColumns.length];
+                for (int attribute = 0; attribute < this.dictionaryColumns.length; attribute++)
+                    records[record][attribute] = this.valueOf(attribute, record);
+            }
+            this.records = records;
+            this.numRowRecords = records.length;
         }
+        return this.trimRecords();
+    }
+
+    // Trims the spare capacity of appended records, so that the records array can be handed out; the next append
+    // grows the array again.
+    private synchronized String[][] trimRecords() {
+        if (this.records != null && this.records.length != this.numRowRecords)
+            this.records = Arrays.copyOf(this.records, this.numRowRecords);
+        return this.records;
+    }
+
+    /**
+     * Returns the dictionary-encoded column of the given attribute. The columns are encoded once, either at load time
+     * in columnar mode or on the first request, and are then shared by all callers.
+     * @param attribute The index of the attribute whose column is requested.
+     * @return The dictionary-encoded column of the given attribute.
+     */
+    public synchronized DictionaryColumn getColumn(int attribute) {
+        DictionaryColumn[] columns = this.encodeColumns();
+        if (columns[attribute] == null)
+            columns[attribute] = DictionaryColumn.encode(this.typedColumns[attribute].toArray());
+        return columns[attribute];
+    }
+
+    /**
+     * Returns the typed column of the given attribute. Its type is inferred once, either at load time with
+     * LoadOptions.inferTypes or on the first request.
+     * @param attribute The index of the attribute whose typed column is requested.
+     * @return The typed column of the given attribute.
+     */
+    public synchronized TypedColumn getTypedColumn(int attribute) {
+        if (this.typedColumns == null)
+            this.typedColumns = new TypedColumn[this.attributes.length];
+        if (this.typedColumns[attribute] == null)
+            this.typedColumns[attribute] = TypedColumn.infer(this.getColumn(attribute));
+        return this.typedColumns[attribute];
     }
 
-    public String[][] getColumns() {
-        String[][] columns = new String[this.attributes.length][];
-        for (int i = 0; i < columns.length; i++)
-            columns[i] = new String[this.records.length];
-        for (int j = 0; j < this.records.length; j++)
-            for (int i = 0; i < columns.length; i++)
-                columns[i][j] = this.records[j][i];
-        return columns;
+    // Returns the value of a record in a column-wise stored relation without re-encoding dropped dictionaries.
+    private String valueOf(int attribute, int record) {
+        DictionaryColumn column = this.dictionaryColumns[attribute];
+        return (column != null) ? column.get(record) : this.typedColumns[attribute].get(record);
+    }
+
+    private synchronized DictionaryColumn[] encodeColumns() {
+        if (this.dictionaryColumns == null)
+            this.dictionaryColumns = DictionaryColumn.encode(this.trimRecords(), this.attributes.length);
+        return this.dictionaryColumns;
+    }
+
+    /**
+     * Returns the statistics of the given attribute's column. Relations that were read from a cache file reuse the
+     * cached statistics; all other relations calculate them once on the first request.
+     * @param attribute The index of the attribute whose statistics are requested.
+     * @return The statistics of the given attribute's column.
+     */
+    public ColumnStatistics getStatistics(int attribute) {
+        return this.getStatistics()[attribute];
+    }
+
+    private synchronized ColumnStatistics[] getStatistics() {
+        if (this.statistics == null) {
+            ColumnStatistics[] statistics = new ColumnStatistics[this.attributes.length];
+            for (int attribute = 0; attribute < statistics.length; attribute++)
+                statistics[attribute] = ColumnStatistics.of(this.getColumn(attribute));
+            this.statistics = statistics;
+        }
+        return this.statistics;
+    }
+
+    /**
+     * Returns the sketch of the given attribute's column, which allows comparing columns without scanning their
+     * values again. The sketches of all columns are computed once, at load time with LoadOptions.sketches or on the
+     * first request.
+     * @param attribute The index of the attribute whose sketch is requested.
+     * @return The sketch of the given attribute's column.
+     */
+    public ColumnSketch getSketch(int attribute) {
+        return this.getSketches()[attribute];
+    }
+
+    // Sketches columns whose dictionary was dropped from their primitive values, so that they are not re-encoded.
+    private synchronized ColumnSketch[] getSketches() {
+        if (this.sketches == null) {
+            ColumnSketch[] sketches = new ColumnSketch[this.attributes.length];
+            DictionaryColumn[] columns = this.encodeColumns();
+            for (int attribute = 0; attribute < sketches.length; attribute++)
+                sketches[attribute] = (columns[attribute] != null) ? ColumnSketch.of(columns[attribute]) : ColumnSketch.of(this.typedColumns[attribute]);
+            this.sketches = sketches;
+        }
+        return this.sketches;
+    }
+
+    private boolean isRectangular() {
+        for (String[] record : this.records)
+            if (record.length != this.attributes.length)
+                return false;
+        return true;
+    }
+
+    /**
+     * Returns the columns of this relation as plain value arrays. The columns are decoded once on the first request
+     * and then cached, i.e., repeated calls do not transpose the relation again. The returned arrays must not be
+     * modified.
+     * @return The columns of this relation in attribute order.
+     */
+    public synchronized String[][] getColumns() {
+        if (this.columns == null) {
+            String[][] columns = new String[this.attributes.length][];
+            for (int attribute = 0; attribute < columns.length; attribute++)
+                columns[attribute] = this.getColumn(attribute).toArray();
+            this.columns = columns;
+        }
+        return this.columns;
+    }
+
+    /**
+     * Opens a cursor over the records of this relation. In columnar mode, the records are assembled from the
+     * dictionary-encoded columns one at a time, i.e., the cursor does not materialize the row-major records.
+     * @return A cursor that is positioned before the first record.
+     */
+    @Override
+    public synchronized RecordCursor openRecords() {
+        final String[][] records = this.records;
+        final int numAttributes = this.attributes.length;
+        final int numRecords = this.getNumRecords();
+        return new RecordCursor() {
+            private int record = 0;
+            private final String[] values = (records == null) ? new String[numAttributes] : null;
+
+            @Override
+            public boolean hasNext() {
+                return this.record < numRecords;
+            }
+
+            @Override
+            public String[] next() {
+                if (!this.hasNext())
+                    throw new NoSuchElementException();
+                if (records != null)
+                    return records[this.record++];
+                for (int attribute = 0; attribute < numAttributes; attribute++)
+                    this.values[attribute] = Relation.this.valueOf(attribute, this.record);
+                this.record++;
+                return this.values;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Opens a cursor over the values of the given attribute, which are read from its dictionary-encoded column or, if
+     * that column was dropped for a typed column, formatted from its primitive values.
+     * @param attribute The index of the attribute whose values should be iterated.
+     * @return A cursor that is positioned before the value of the first record.
+     */
+    @Override
+    public synchronized ColumnCursor openColumn(int attribute) {
+        this.encodeColumns();
+        final int numRecords = this.getNumRecords();
+        return new ColumnCursor() {
+            private int record = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.record < numRecords;
+            }
+
+            @Override
+            public String next() {
+                if (!this.hasNext())
+                    throw new NoSuchElementException();
+                return Relation.this.valueOf(attribute, this.record++);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
     }
 
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
         builder.append(this.name).append(Arrays.toString(this.attributes));
-        for (String[] record : this.records)
+        for (String[] record : this.getRecords())
             builder.append("\r\n").append(Arrays.toString(record));
         return builder.toString();
     }
@@ -2,6 +2,13 @@ package de.di.data_profiling;
 
 import de.di.Relation;
 import de.di.data_profiling.structures.IND;
+import de.di.structures.ColumnSketch;
+import de.di.structures.ColumnType;
+import de.di.structures.RecordCursor;
+import de.di.structures.StreamingRelation;
+import de.di.structures.TypedColumn;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -9,11 +16,13 @@ import java.util.stream.Collectors;
 public class INDProfiler {
 
     /**
-     * Discovers all non-trivial unary (and n-ary) inclusion dependencies in the provided relations.
+     * Discovers all non-trivial unary (and n-ary) inclusion dependencies in the provided relations. The relations can
+     * be in-memory Relations or file-backed StreamingRelations; the latter are read in a single pass each, so that only
+     * their distinct values need to fit into memory.
      * @param relations The relations that should be profiled for inclusion dependencies.
      * @return The list of all non-trivial unary (and n-ary) inclusion dependencies in the provided relations.
      */
-    public List<IND> profile(List<Relation> relations, boolean discoverNary) {
+    public List<IND> profile(List<? extends StreamingRelation> relations, boolean discoverNary) {
         List<IND> inclusionDependencies = new ArrayList<>();
 
         ////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -22,19 +31,19 @@ public class INDProfiler {
         // discoverNary indicates, whether only unary or both unary and n-ary INDs should be discovered. To solve     //
         // this assignment, only unary INDs need to be discovered. Discovering also n-ary INDs is optional.           //
 
+        // Each column's distinct values are extracted only once per relation
+        List<List<ColumnValues>> valueSets = relations.stream().map(this::toColumnValues).collect(Collectors.toList());
+
         for (int i = 0; i < relations.size(); i++) {
-            Relation currentRelation = relations.get(i);
-            String[][] currentColumns = currentRelation.getColumns();
+            StreamingRelation currentRelation = relations.get(i);
+            List<ColumnValues> currentColumns = valueSets.get(i);
 
             // Check within the same relation for INDs
-            for (int col1 = 0; col1 < currentColumns.length; col1++) {
-                for (int col2 = 0; col2 < currentColumns.length; col2++) {
+            for (int col1 = 0; col1 < currentColumns.size(); col1++) {
+                for (int col2 = 0; col2 < currentColumns.size(); col2++) {
                     if (col1 != col2) { // Avoid self-references
-                        List<String> col1Values = Arrays.asList(currentColumns[col1]);
-                        List<String> col2Values = Arrays.asList(currentColumns[col2]);
-
                         // Check if col2Values contain all elements of col1Values
-                        if (col2Values.containsAll(col1Values)) {
+                        if (this.isIncluded(currentColumns.get(col1), currentColumns.get(col2))) {
                             IND ind = new IND(currentRelation, col1, currentRelation, col2);
                             if (!inclusionDependencies.contains(ind)) {
                                 inclusionDependencies.add(ind);
@@ -47,17 +56,14 @@ public class INDProfiler {
             // Check across different relations for INDs
             for (int j = 0; j < relations.size(); j++) {
                 if (i != j) { // Avoid self-references
-                    Relation otherRelation = relations.get(j);
-                    String[][] otherColumns = otherRelation.getColumns();
+                    StreamingRelation otherRelation = relations.get(j);
+                    List<ColumnValues> otherColumns = valueSets.get(j);
 
                     // Compare columns between currentRelation and otherRelation
-                    for (int col1 = 0; col1 < currentColumns.length; col1++) {
-                        for (int col2 = 0; col2 < otherColumns.length; col2++) {
-                            List<String> col1Values = Arrays.asList(currentColumns[col1]);
-                            List<String> col2Values = Arrays.asList(otherColumns[col2]);
-
+                    for (int col1 = 0; col1 < currentColumns.size(); col1++) {
+                        for (int col2 = 0; col2 < otherColumns.size(); col2++) {
                             // Check if col2Values contain all elements of col1Values
-                            if (col2Values.containsAll(col1Values)) {
+                            if (this.isIncluded(currentColumns.get(col1), otherColumns.get(col2))) {
                                 IND ind = new IND(currentRelation, col1, otherRelation, col2);
                                 if (!inclusionDependencies.contains(ind)) {
                                     inclusionDependencies.add(ind);
@@ -79,9 +85,118 @@ public class INDProfiler {
         return inclusionDependencies;
     }
 
-    private List<Set<String>> toColumnSets(String[][] columns) {
-        return Arrays.stream(columns)
-                .map(column -> new HashSet<>(new ArrayList<>(List.of(column))))
-                .collect(Collectors.toList());
+    private boolean isIncluded(ColumnValues dependentValues, ColumnValues referencedValues) {
+        if (dependentValues.numDistinct > referencedValues.numDistinct)
+            return false;
+
+        // The sketches reject most impossible candidates without looking at any value
+        if (!dependentValues.sketch.mightBeIncludedIn(referencedValues.sketch))
+            return false;
+
+        // Columns of the same primitive type are compared by their raw primitive values, which is equivalent to
+        // comparing their strings, because typed values format back to exactly their original strings
+        if (dependentValues.type != ColumnType.STRING && dependentValues.type == referencedValues.type) {
+            if (dependentValues.containsEmpty && !referencedValues.containsEmpty)
+                return false;
+            LongIterator iterator = dependentValues.primitives.iterator();
+            while (iterator.hasNext())
+                if (!referencedValues.primitives.contains(iterator.nextLong()))
+                    return false;
+            return true;
+        }
+
+        // The string formats of different primitive types are disjoint and a typed column has at least one non-empty
+        // value, so a column can never be included in a column of another primitive type
+        if (dependentValues.type != ColumnType.STRING && referencedValues.type != ColumnType.STRING)
+            return false;
+
+        Set<String> referencedStrings = referencedValues.strings();
+        for (String value : dependentValues.strings())
+            if (!referencedStrings.contains(value))
+                return false;
+        return true;
+    }
+
+    private List<ColumnValues> toColumnValues(StreamingRelation relation) {
+        int numAttributes = relation.getAttributes().length;
+        List<ColumnValues> columnValues = new ArrayList<>(numAttributes);
+
+        // In-memory relations already know their distinct values from their dictionary-encoded or typed columns
+        if (relation instanceof Relation) {
+            for (int attribute = 0; attribute < numAttributes; attribute++)
+                columnValues.add(new ColumnValues((Relation) relation, attribute));
+            return columnValues;
+        }
+
+        // All other relations are streamed once and all of their columns are collected in that single pass
+        List<Set<String>> columnSets = new ArrayList<>(numAttributes);
+        for (int attribute = 0; attribute < numAttributes; attribute++)
+            columnSets.add(new HashSet<>());
+        try (RecordCursor cursor = relation.openRecords()) {
+            while (cursor.hasNext()) {
+                String[] record = cursor.next();
+                for (int attribute = 0; attribute < numAttributes; attribute++)
+                    columnSets.get(attribute).add(record[attribute]);
+            }
+        }
+        for (Set<String> columnSet : columnSets)
+            columnValues.add(new ColumnValues(columnSet));
+        return columnValues;
+    }
+
+    // The distinct values of one column: columns with a primitive type hold the raw bits of their non-empty values and
+    // only build their string set if they are compared to a string column; all other columns hold their strings.
+    private static class ColumnValues {
+
+        private final ColumnType type;
+        private final int numDistinct;
+        private final ColumnSketch sketch;
+        private final LongOpenHashSet primitives;
+        private final boolean containsEmpty;
+        private final Relation relation;
+        private final int attribute;
+        private Set<String> strings;
+
+        private ColumnValues(Set<String> strings) {
+            this.type = ColumnType.STRING;
+            this.numDistinct = strings.size();
+            this.primitives = null;
+            this.containsEmpty = strings.contains("");
+            this.relation = null;
+            this.attribute = -1;
+            this.strings = strings;
+            this.sketch = ColumnSketch.of(strings);
+        }
+
+        private ColumnValues(Relation relation, int attribute) {
+            TypedColumn column = relation.getTypedColumn(attribute);
+            this.type = column.getType();
+            this.relation = relation;
+            this.attribute = attribute;
+            this.sketch = relation.getSketch(attribute);
+            if (this.type == ColumnType.STRING) {
+                this.primitives = null;
+                this.strings = this.strings();
+                this.numDistinct = this.strings.size();
+                this.containsEmpty = this.strings.contains("");
+            } else {
+                this.primitives = new LongOpenHashSet();
+                boolean containsEmpty = false;
+                for (int record = 0; record < column.size(); record++) {
+                    if (column.isNull(record))
+                        containsEmpty = true;
+                    else
+                        this.primitives.add(column.getBits(record));
+                }
+                this.containsEmpty = containsEmpty;
+                this.numDistinct = this.primitives.size() + (containsEmpty ? 1 : 0);
+            }
+        }
+
+        private Set<String> strings() {
+            if (this.strings == null)
+                this.strings = new HashSet<>(Arrays.asList(this.relation.getColumn(this.attribute).getDictionary()));
+            return this.strings;
+        }
     }
 }
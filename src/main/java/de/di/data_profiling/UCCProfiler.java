@@ -4,7 +4,9 @@ import de.di.Relation;
 import de.di.data_profiling.structures.AttributeList;
 import de.di.data_profiling.structures.PositionListIndex;
 import de.di.data_profiling.structures.UCC;
+import de.di.structures.DictionaryColumn;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -27,7 +29,8 @@ public class UCCProfiler {
         // Calculate all unary UCCs and unary non-UCCs
         for (int attribute = 0; attribute < numAttributes; attribute++) {
             AttributeList attributes = new AttributeList(attribute);
-            PositionListIndex pli = new PositionListIndex(attributes, relation.getColumns()[attribute]);
+            DictionaryColumn column = relation.getColumn(attribute);
+            PositionListIndex pli = new PositionListIndex(attributes, column.getValueIds(), column.cardinality());
             if (pli.isUnique())
                 uniques.add(new UCC(relation, attributes));
             else
@@ -79,7 +82,7 @@ public class UCCProfiler {
                     if (!uniqueSubsets) continue;
 
                     // Create a new PLI for the combined attributes
-                    PositionListIndex combinedPLI = new PositionListIndex(combinedAttributes, combinedAttributeColumns(relation, combinedAttributes));
+                    PositionListIndex combinedPLI = this.combinedAttributesPLI(relation, combinedAttributes);
 
                     // Intersect with existing PLIs to refine uniqueness
                     for (PositionListIndex pli : currentNonUniques) {
@@ -138,20 +141,29 @@ public class UCCProfiler {
         generateSubsets(attributes, index + 1, current, subsets);
     }
 
-    private String[] combinedAttributeColumns(Relation relation, AttributeList combinedAttributes) {
+    private PositionListIndex combinedAttributesPLI(Relation relation, AttributeList combinedAttributes) {
         int[] attributes = combinedAttributes.getAttributes();
-        int numRows = relation.getColumns()[0].length;
-        String[] combinedColumns = new String[numRows];
-
-        // Combine columns based on combinedAttributes
-        for (int rowIndex = 0; rowIndex < numRows; rowIndex++) {
-            StringBuilder combinedValue = new StringBuilder();
-            for (int attribute : attributes) {
-                combinedValue.append(relation.getColumns()[attribute][rowIndex]).append(",");
+        DictionaryColumn firstColumn = relation.getColumn(attributes[0]);
+        int[] combinedValueIds = firstColumn.getValueIds().clone();
+        int numCombinedValues = firstColumn.cardinality();
+
+        // Combine the value ids of all attributes pair-wise into new dense value ids for the attribute combination
+        for (int i = 1; i < attributes.length; i++) {
+            int[] valueIds = relation.getColumn(attributes[i]).getValueIds();
+            Long2IntOpenHashMap pairToId = new Long2IntOpenHashMap(numCombinedValues);
+            pairToId.defaultReturnValue(-1);
+            for (int rowIndex = 0; rowIndex < combinedValueIds.length; rowIndex++) {
+                long pair = ((long) combinedValueIds[rowIndex] << 32) | valueIds[rowIndex];
+                int combinedValueId = pairToId.get(pair);
+                if (combinedValueId < 0) {
+                    combinedValueId = pairToId.size();
+                    pairToId.put(pair, combinedValueId);
+                }
+                combinedValueIds[rowIndex] = combinedValueId;
             }
-            combinedColumns[rowIndex] = combinedValue.substring(0, combinedValue.length() - 1);
+            numCombinedValues = pairToId.size();
         }
 
-        return combinedColumns;
+        return new PositionListIndex(combinedAttributes, combinedValueIds, numCombinedValues);
     }
 }
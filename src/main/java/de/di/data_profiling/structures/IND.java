@@ -1,6 +1,6 @@
 package de.di.data_profiling.structures;
 
-import de.di.Relation;
+import de.di.structures.StreamingRelation;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -15,17 +15,17 @@ import java.util.Objects;
 @Getter
 public class IND {
 
-    private final Relation lhsRelation;
+    private final StreamingRelation lhsRelation;
     private final AttributeList lhsAttributes;
 
-    private final Relation rhsRelation;
+    private final StreamingRelation rhsRelation;
     private final AttributeList rhsAttributes;
 
-    public IND(Relation lhsRelation, int lhsAttribute, Relation rhsRelation, int rhsAttribute) {
+    public IND(StreamingRelation lhsRelation, int lhsAttribute, StreamingRelation rhsRelation, int rhsAttribute) {
         this(lhsRelation, new AttributeList(lhsAttribute), rhsRelation, new AttributeList(rhsAttribute));
     }
 
-    public IND(Relation lhsRelation, AttributeList lhsAttributes, Relation rhsRelation, AttributeList rhsAttributes) {
+    public IND(StreamingRelation lhsRelation, AttributeList lhsAttributes, StreamingRelation rhsRelation, AttributeList rhsAttributes) {
         assert (lhsAttributes.getAttributes().length == rhsAttributes.getAttributes().length);
         this.lhsRelation = lhsRelation;
         this.lhsAttributes = lhsAttributes;
@@ -19,6 +19,12 @@ public class PositionListIndex {
         this.invertedClusters = this.calculateInverted(this.clusters, values.length);
     }
 
+    public PositionListIndex(final AttributeList attributes, final int[] valueIds, final int numValues) {
+        this.attributes = attributes;
+        this.clusters = this.calculateClusters(valueIds, numValues);
+        this.invertedClusters = this.calculateInverted(this.clusters, valueIds.length);
+    }
+
     public PositionListIndex(final AttributeList attributes, final List<IntArrayList> clusters, int relationLength) {
         this.attributes = attributes;
         this.clusters = clusters;
@@ -27,13 +33,39 @@ public class PositionListIndex {
 
     private List<IntArrayList> calculateClusters(final String[] values) {
         Map<String, IntArrayList> invertedIndex = new HashMap<>(values.length);
+        String previousValue = null;
+        IntArrayList previousCluster = null;
         for (int recordIndex = 0; recordIndex < values.length; recordIndex++) {
-            invertedIndex.putIfAbsent(values[recordIndex], new IntArrayList());
-            invertedIndex.get(values[recordIndex]).add(recordIndex);
+            // Interned values that repeat the previous record's instance skip the hash lookup
+            if (values[recordIndex] != previousValue || previousCluster == null) {
+                previousValue = values[recordIndex];
+                previousCluster = invertedIndex.computeIfAbsent(previousValue, value -> new IntArrayList());
+            }
+            previousCluster.add(recordIndex);
         }
         return invertedIndex.values().stream().filter(cluster -> cluster.size() > 1).collect(Collectors.toList());
     }
 
+    private List<IntArrayList> calculateClusters(final int[] valueIds, final int numValues) {
+        int[] valueCounts = new int[numValues];
+        for (int valueId : valueIds)
+            valueCounts[valueId]++;
+
+        IntArrayList[] valueClusters = new IntArrayList[numValues];
+        List<IntArrayList> clusters = new ArrayList<>();
+        for (int recordIndex = 0; recordIndex < valueIds.length; recordIndex++) {
+            int valueId = valueIds[recordIndex];
+            if (valueCounts[valueId] < 2)
+                continue;
+            if (valueClusters[valueId] == null) {
+                valueClusters[valueId] = new IntArrayList(valueCounts[valueId]);
+                clusters.add(valueClusters[valueId]);
+            }
+            valueClusters[valueId].add(recordIndex);
+        }
+        return clusters;
+    }
+
     private int[] calculateInverted(List<IntArrayList> clusters, int relationLength) {
         int[] invertedClusters = new int[relationLength];
         Arrays.fill(invertedClusters, -1);
@@ -2,6 +2,7 @@ package de.di.duplicate_detection;
 
 import de.di.duplicate_detection.structures.AttrSimWeight;
 import de.di.similarity_measures.SimilarityMeasure;
+import de.di.similarity_measures.structures.PreparedValues;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -64,6 +65,83 @@ public class RecordComparator {
         return recordSimilarity;
     }
 
+    /**
+     * Compares the two provided tuples like compare(), but stops as soon as the remaining attributes cannot lift the
+     * similarity over the internal similarity threshold anymore; every attribute is compared with the lower bound
+     * that its similarity must reach for the threshold to remain reachable, so that its similarity measure can stop
+     * early, e.g., Levenshtein attributes are only aligned up to the corresponding maximum distance. Bounds are
+     * relaxed by a small margin, so that rounding errors never stop the comparison of a duplicate.
+     * @param tuple1 The first tuple for the comparison.
+     * @param tuple2 The second tuple for the comparison.
+     * @return The same similarity as compare() if the tuples are duplicates; otherwise, either that similarity or
+     * negative infinity if the comparison was stopped early.
+     */
+    public double compareBounded(String[] tuple1, String[] tuple2) {
+        return this.compareBounded(tuple1, tuple2, null, -1, -1);
+    }
+
+    /**
+     * Prepares the compared attribute values of all records once with the internal similarity measures, so that
+     * records that are compared with many other records are not preprocessed for every comparison again.
+     * @param records The records that should be prepared.
+     * @return The prepared values of every AttrSimWeight object in the order of the internal AttrSimWeight objects.
+     */
+    public PreparedValues[] prepare(String[][] records) {
+        PreparedValues[] prepared = new PreparedValues[this.attrSimWeights.size()];
+        for (int i = 0; i < prepared.length; i++) {
+            AttrSimWeight attrSimWeight = this.attrSimWeights.get(i);
+            String[] values = new String[records.length];
+            for (int record = 0; record < records.length; record++)
+                values[record] = records[record][attrSimWeight.getAttribute()];
+            prepared[i] = attrSimWeight.getSimilarityMeasure().prepare(values);
+        }
+        return prepared;
+    }
+
+    /**
+     * Compares two of the prepared records like compareBounded(tuple1, tuple2), but with their prepared values.
+     * @param records The records that have been prepared.
+     * @param prepared The prepared values of the records, as created by prepare(records).
+     * @param record1 The index of the first record for the comparison.
+     * @param record2 The index of the second record for the comparison.
+     * @return The same similarity as compare() if the records are duplicates; otherwise, either that similarity or
+     * negative infinity if the comparison was stopped early.
+     */
+    public double compareBounded(String[][] records, PreparedValues[] prepared, int record1, int record2) {
+        return this.compareBounded(records[record1], records[record2], prepared, record1, record2);
+    }
+
+    private double compareBounded(String[] tuple1, String[] tuple2, PreparedValues[] prepared, int record1, int record2) {
+        double recordSimilarity = 0;
+        double remainingWeight = 0;
+        for (AttrSimWeight attrSimWeight : this.attrSimWeights)
+            remainingWeight += attrSimWeight.getWeight();
+
+        for (int i = 0; i < this.attrSimWeights.size(); i++) {
+            AttrSimWeight attrSimWeight = this.attrSimWeights.get(i);
+            String value1 = tuple1[attrSimWeight.getAttribute()];
+            String value2 = tuple2[attrSimWeight.getAttribute()];
+            SimilarityMeasure similarityMeasure = attrSimWeight.getSimilarityMeasure();
+            double weight = attrSimWeight.getWeight();
+            remainingWeight -= weight;
+
+            // A similarity below requiredSimilarity rules the tuples out
+            double requiredSimilarity = (weight > 0) ? (this.threshold - recordSimilarity - remainingWeight) / weight - SimilarityMeasure.ROUNDING_MARGIN : 0;
+            double attributeSimilarity;
+            if (prepared != null)
+                attributeSimilarity = prepared[i].calculate(record1, prepared[i], record2, requiredSimilarity);
+            else
+                attributeSimilarity = similarityMeasure.calculate(value1, value2, requiredSimilarity);
+            if (attributeSimilarity == SimilarityMeasure.BELOW_BOUND)
+                return Double.NEGATIVE_INFINITY;
+
+            recordSimilarity += attributeSimilarity * weight;
+            if (recordSimilarity + remainingWeight < this.threshold - SimilarityMeasure.ROUNDING_MARGIN)
+                return Double.NEGATIVE_INFINITY;
+        }
+        return recordSimilarity;
+    }
+
     /**
      * Decides if the provided similarity is higher than the internal similarity threshold and, therefore,
      * characterizes a duplicate.
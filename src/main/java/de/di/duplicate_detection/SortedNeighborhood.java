@@ -6,22 +6,15 @@ import de.di.duplicate_detection.structures.Duplicate;
 import de.di.similarity_measures.Jaccard;
 import de.di.similarity_measures.Levenshtein;
 import de.di.similarity_measures.helper.Tokenizer;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import de.di.similarity_measures.structures.PreparedValues;
+import de.di.structures.ColumnCursor;
+import de.di.structures.DictionaryColumn;
+import de.di.structures.StreamingRelation;
 
 import java.util.*;
 
 public class SortedNeighborhood {
 
-    // A Record class that stores the values of a record with its original index. This class helps to remember the
-    // original index of a record when this record is being sorted.
-    @Data
-    @AllArgsConstructor
-    private static class Record {
-        private int index;
-        private String[] values;
-    }
-
     /**
      * Discovers all duplicates in the relation by running the Sorted Neighborhood Method once with every sortingKey.
      * Each run uses one of the specified sortingKeys for the sorting, the windowsSize for the windowing, and
@@ -40,9 +33,11 @@ public class SortedNeighborhood {
     public Set<Duplicate> detectDuplicates(Relation relation, int[] sortingKeys, int windowSize, RecordComparator recordComparator) {
         Set<Duplicate> duplicates = new HashSet<>();
 
-        Record[] records = new Record[relation.getRecords().length];
-        for (int i = 0; i < relation.getRecords().length; i++)
-            records[i] = new Record(i, relation.getRecords()[i]);
+        // The records are sorted as an order of their original indexes, so that only one int per record is moved
+        String[][] records = relation.getRecords();
+        int[] order = new int[records.length];
+        for (int i = 0; i < records.length; i++)
+            order[i] = i;
 
         ////////////////////////////////////////////////////////////////////////////////////////////////////////////////
         //                                      DATA INTEGRATION ASSIGNMENT                                           //
@@ -50,16 +45,19 @@ public class SortedNeighborhood {
         // matching records. Use the provided sortingKeys, windowSize, and recordComparator to implement the Sorted   //
         // Neighborhood Method correctly.                                                                             //
 
+        // The compared values of all records are preprocessed once for all runs and windows
+        PreparedValues[] prepared = recordComparator.prepare(records);
+
         for (int sortingKey : sortingKeys) {
             // Sort the records based on the current sorting key
-            Arrays.sort(records, Comparator.comparing(r -> r.values[sortingKey]));
+            order = sort(relation.getColumn(sortingKey), order);
 
             // Apply windowing and compare records within the window
-            for (int i = 0; i < records.length - windowSize + 1; i++) {
-                for (int j = i + 1; j < i + windowSize && j < records.length; j++) {
-                    double similarity = recordComparator.compare(records[i].values, records[j].values);
+            for (int i = 0; i < order.length - windowSize + 1; i++) {
+                for (int j = i + 1; j < i + windowSize && j < order.length; j++) {
+                    double similarity = recordComparator.compareBounded(records, prepared, order[i], order[j]);
                     if (recordComparator.isDuplicate(similarity)) {
-                        duplicates.add(new Duplicate(records[i].index, records[j].index));
+                        duplicates.add(new Duplicate(order[i], order[j]));
                     }
                 }
             }
@@ -71,6 +69,37 @@ public class SortedNeighborhood {
     //                                                                                                            //
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+    /**
+     * Generates the sort order of a relation for the given sorting key in a single pass over the key column. Only the
+     * distinct key values and one int per record are kept in memory, so the order can also be generated for
+     * file-backed relations that do not fit into memory.
+     * @param relation The relation whose records should be ordered.
+     * @param sortingKey The attribute index whose lexicographical order should determine the sortation.
+     * @param order The current order of the record indexes; records with equal keys keep this relative order.
+     * @return The record indexes in sorted order.
+     */
+    public static int[] sortingOrder(StreamingRelation relation, int sortingKey, int[] order) {
+        try (ColumnCursor cursor = relation.openColumn(sortingKey)) {
+            return sort(DictionaryColumn.encode(cursor), order);
+        }
+    }
+
+    // Stably sorts the record indexes by the lexicographic ranks of their values with a counting sort; the ranks of the
+    // dictionary-encoded column order the records exactly as their lexicographically compared values would.
+    private static int[] sort(DictionaryColumn column, int[] order) {
+        int[] ranks = column.ranks();
+        int[] offsets = new int[ranks.length + 1];
+        for (int record : order)
+            offsets[ranks[column.getValueId(record)] + 1]++;
+        for (int rank = 0; rank < ranks.length; rank++)
+            offsets[rank + 1] += offsets[rank];
+
+        int[] sorted = new int[order.length];
+        for (int record : order)
+            sorted[offsets[ranks[column.getValueId(record)]]++] = record;
+        return sorted;
+    }
+
 
     /**
      * Suggests a RecordComparator instance based on the provided relation for duplicate detection purposes.
@@ -0,0 +1,101 @@
+package de.di.helper;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * The Compression of an input file is detected from its leading magic bytes (gzip, zip, Zstandard) or, for zlib
+ * streams that have no unambiguous magic bytes, from the file extension. Compressed files are decompressed on a
+ * separate thread while they are parsed, so that no decompressed copy needs to be written to disk.
+ */
+public enum Compression {
+
+    // A plain, uncompressed file.
+    NONE,
+
+    // A gzip file, usually with the extension .gz.
+    GZIP,
+
+    // A zip archive; the first file entry of the archive is read.
+    ZIP,
+
+    // A zlib (deflate) stream with the extension .zz or .deflate.
+    ZLIB,
+
+    // A Zstandard file; detected to fail with a clear message, because java.util.zip cannot decompress it.
+    ZSTD;
+
+    private static final int DECOMPRESSED_CHUNK_SIZE = 1 << 16;
+    private static final int DECOMPRESSED_QUEUE_CAPACITY = 16;
+
+    /**
+     * Detects the compression of the given file.
+     * @param filePath The path of the file.
+     * @return The compression of the file; NONE if it is not compressed.
+     * @throws IOException If the file cannot be read.
+     */
+    public static Compression of(final Path filePath) throws IOException {
+        byte[] magic = new byte[4];
+        int length;
+        try (InputStream in = Files.newInputStream(filePath)) {
+            length = in.readNBytes(magic, 0, magic.length);
+        }
+        if (length >= 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B)
+            return GZIP;
+        if (length == 4 && magic[0] == 'P' && magic[1] == 'K' && magic[2] == 3 && magic[3] == 4)
+            return ZIP;
+        if (length == 4 && (magic[0] & 0xFF) == 0x28 && (magic[1] & 0xFF) == 0xB5 && (magic[2] & 0xFF) == 0x2F && (magic[3] & 0xFF) == 0xFD)
+            return ZSTD;
+        String fileName = filePath.getFileName().toString().toLowerCase();
+        if (fileName.endsWith(".zz") || fileName.endsWith(".deflate"))
+            return ZLIB;
+        return NONE;
+    }
+
+    /**
+     * Opens the given file and decompresses it on the fly according to its detected compression. Compressed files are
+     * decompressed on a separate thread that runs ahead of the consumer by a bounded number of chunks.
+     * @param filePath The path of the file.
+     * @return A stream of the decompressed content of the file.
+     * @throws IOException If the file cannot be opened or its compression is not supported.
+     */
+    public static InputStream open(final Path filePath) throws IOException {
+        Compression compression = of(filePath);
+        if (compression == ZSTD)
+            throw new IOException("Cannot read " + filePath + ": Zstandard compression is not supported; decompress the file or recompress it with gzip.");
+
+        InputStream in = new BufferedInputStream(Files.newInputStream(filePath), DECOMPRESSED_CHUNK_SIZE);
+        try {
+            switch (compression) {
+                case GZIP:
+                    in = new GZIPInputStream(in, DECOMPRESSED_CHUNK_SIZE);
+                    break;
+                case ZIP:
+                    ZipInputStream zip = new ZipInputStream(in);
+                    ZipEntry entry = zip.getNextEntry();
+                    while (entry != null && entry.isDirectory())
+                        entry = zip.getNextEntry();
+                    if (entry == null)
+                        throw new IOException("Cannot read " + filePath + ": the zip archive contains no file.");
+                    in = zip;
+                    break;
+                case ZLIB:
+                    in = new InflaterInputStream(in);
+                    break;
+                default:
+                    return in;
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new PipelinedInputStream(in, DECOMPRESSED_CHUNK_SIZE, DECOMPRESSED_QUEUE_CAPACITY);
+    }
+}
@@ -0,0 +1,115 @@
+package de.di.helper;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * LoadOptions bundle the optional settings that control how a Relation is loaded from a file and how it is stored in
+ * memory. The default options reproduce the plain row-major loading behavior.
+ */
+@Getter
+public class LoadOptions {
+
+    // A flag indicating whether the relation should be stored column-wise as dictionary-encoded columns instead of
+    // row-major records; the columns are built once at load time and the records are only materialized on request.
+    private boolean columnar = false;
+
+    // A flag indicating whether the file should be memory-mapped and parsed in parallel chunks; files whose charset
+    // or separator are not supported by the MappedCsvParser and compressed files are still read sequentially.
+    private boolean memoryMapped = false;
+
+    // The number of threads that parse a memory-mapped file.
+    private int parsingThreads = Runtime.getRuntime().availableProcessors();
+
+    // The directory of the binary columnar cache; null disables caching. A relation is read from its cache file if the
+    // source file is unchanged and written to it after parsing otherwise.
+    private Path cacheDirectory = null;
+
+    // A flag indicating whether the type of every column should be inferred at load time; in columnar mode, columns
+    // with a primitive type drop their dictionary-encoded strings if the primitive values need less memory.
+    private boolean inferTypes = false;
+
+    // A flag indicating whether a sketch of every column should be computed at load time, before dictionaries of
+    // typed columns are dropped, so that profiling and matching can compare columns without scanning their values.
+    private boolean sketches = false;
+
+    // The maximum number of distinct values per column that are interned while the file is read, so that equal values
+    // share one String instance; columns with more distinct values keep their raw strings. 0 disables interning.
+    private int internLimit = 0;
+
+    // The number of records that are drawn by uniform reservoir sampling while the file is read; 0 reads all records.
+    private int sampleSize = 0;
+
+    // The seed of the random generator for load-time sampling; equal seeds draw equal samples from equal files.
+    private long sampleSeed = 0;
+
+    // The number of threads that load the files of a folder concurrently; 1 loads them one after the other.
+    private int loadingThreads = 1;
+
+    // The maximum total size in bytes of all files that are loaded concurrently when a folder is loaded in parallel.
+    private long memoryBudget = Long.MAX_VALUE;
+
+    /**
+     * Creates a new LoadOptions object with default settings.
+     * @return The default LoadOptions.
+     */
+    public static LoadOptions defaults() {
+        return new LoadOptions();
+    }
+
+    public LoadOptions columnar(final boolean columnar) {
+        this.columnar = columnar;
+        return this;
+    }
+
+    public LoadOptions memoryMapped(final boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+        return this;
+    }
+
+    public LoadOptions parsingThreads(final int parsingThreads) {
+        this.parsingThreads = parsingThreads;
+        return this;
+    }
+
+    public LoadOptions cacheDirectory(final Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+        return this;
+    }
+
+    public LoadOptions loadingThreads(final int loadingThreads) {
+        this.loadingThreads = loadingThreads;
+        return this;
+    }
+
+    public LoadOptions memoryBudget(final long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        return this;
+    }
+
+    public LoadOptions inferTypes(final boolean inferTypes) {
+        this.inferTypes = inferTypes;
+        return this;
+    }
+
+    public LoadOptions sketches(final boolean sketches) {
+        this.sketches = sketches;
+        return this;
+    }
+
+    public LoadOptions internLimit(final int internLimit) {
+        this.internLimit = internLimit;
+        return this;
+    }
+
+    public LoadOptions sampleSize(final int sampleSize) {
+        this.sampleSize = sampleSize;
+        return this;
+    }
+
+    public LoadOptions sampleSeed(final long sampleSeed) {
+        this.sampleSeed = sampleSeed;
+        return this;
+    }
+}
@@ -0,0 +1,363 @@
+package de.di.helper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The MappedCsvParser reads a CSV file via a memory mapping and parses it in parallel. The file is cut into chunks
+ * that are first scanned in parallel for record boundaries under every possible quoting state at the chunk start;
+ * resolving the actual states chunk by chunk then yields the exact record boundaries and record counts, so that the
+ * record array can be allocated once and every segment of records can be parsed in parallel directly into its slice.
+ * The parser reproduces the records of the OpenCSV configuration used by Relation, i.e., '"' as quote character, '\'
+ * as escape character, non-strict quotes, and empty unquoted fields as null.
+ */
+public class MappedCsvParser {
+
+    private static final char QUOTE = '"';
+    private static final char ESCAPE = '\\';
+
+    // The quoting states a chunk can start in; a state combines the inQuotes flag (bit 0) and the inField flag (bit 1).
+    private static final int NUM_STATES = 4;
+    private static final int IN_QUOTES = 1;
+    private static final int IN_FIELD = 2;
+
+    private static final int MIN_CHUNK_SIZE = 1 << 22;
+    private static final int MAX_CHUNK_SIZE = 1 << 28;
+
+    // The separator character of the CSV file.
+    private final char separator;
+
+    // The charset of the CSV file; must be byte-compatible with ASCII for all structural characters.
+    private final Charset charset;
+
+    // The number of threads that scan and parse the chunks.
+    private final int numThreads;
+
+    // The minimum number of bytes per chunk.
+    private final int minChunkSize;
+
+    @Getter
+    @AllArgsConstructor
+    public static class ParsedCsv {
+        private final String[] header;
+        private final String[][] records;
+    }
+
+    @AllArgsConstructor
+    private static class ScanResult {
+        private final int endState;
+        private final long numTerminators;
+        private final long firstRecordStart;
+        private final long lastRecordStart;
+    }
+
+    public MappedCsvParser(final char separator, final Charset charset, final int numThreads) {
+        this(separator, charset, numThreads, MIN_CHUNK_SIZE);
+    }
+
+    MappedCsvParser(final char separator, final Charset charset, final int numThreads, final int minChunkSize) {
+        this.separator = separator;
+        this.charset = charset;
+        this.numThreads = Math.max(1, numThreads);
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Checks whether files with the given charset and separator can be parsed by this parser. This is the case if all
+     * structural characters are single ASCII bytes that never occur within the encoding of other characters.
+     * @param charset The charset of the file.
+     * @param separator The separator character of the file.
+     * @return true if the file can be parsed with memory mapping.
+     */
+    public static boolean supports(final Charset charset, final char separator) {
+        if (separator >= 0x80 || separator == QUOTE || separator == ESCAPE || separator == '\n' || separator == '\r')
+            return false;
+        String name = charset.name();
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII) ||
+                name.startsWith("ISO-8859-") || name.startsWith("windows-125");
+    }
+
+    /**
+     * Parses the given CSV file.
+     * @param filePath The path of the CSV file.
+     * @param hasHeader A flag indicating whether the first record is a header.
+     * @return The header (null if there is none) and the records of the file; empty fields of records are "".
+     * @throws IOException If the file cannot be read or contains an unterminated quoted field.
+     */
+    public ParsedCsv parse(final Path filePath, final boolean hasHeader) throws IOException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] boundaries = this.chunkBoundaries(channel, size);
+            int numChunks = boundaries.length - 1;
+
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.numThreads, numChunks));
+            try {
+                // Scan all chunks in parallel under every possible start state
+                List<Callable<ScanResult[]>> scanTasks = new ArrayList<>(numChunks);
+                for (int chunk = 0; chunk < numChunks; chunk++) {
+                    final long from = boundaries[chunk];
+                    final long to = boundaries[chunk + 1];
+                    final boolean first = chunk == 0;
+                    scanTasks.add(() -> this.scanChunk(channel, from, to, first));
+                }
+                List<ScanResult[]> scans = this.invokeAll(executor, scanTasks);
+
+                // Resolve the actual start state of every chunk and collect the segments that start with a record
+                List<long[]> segments = new ArrayList<>();
+                long numRecords = 0;
+                long lastRecordStart = -1;
+                int state = 0;
+                for (int chunk = 0; chunk < numChunks; chunk++) {
+                    ScanResult scan = scans.get(chunk)[state];
+                    long segmentStart = (chunk == 0) ? 0 : scan.firstRecordStart;
+                    if (segmentStart >= 0 && segmentStart < size)
+                        segments.add(new long[]{segmentStart, (chunk == 0) ? 0 : numRecords + 1});
+                    numRecords += scan.numTerminators;
+                    if (scan.lastRecordStart >= 0)
+                        lastRecordStart = scan.lastRecordStart;
+                    state = scan.endState;
+                }
+                if (size > 0 && lastRecordStart < size)
+                    numRecords++;
+                else if (size == 0)
+                    segments.clear();
+
+                int headerRows = (hasHeader && numRecords > 0) ? 1 : 0;
+                final String[][] header = new String[1][];
+                final String[][] records = new String[Math.toIntExact(numRecords - headerRows)][];
+
+                // Parse all segments in parallel directly into their slices of the record array
+                List<Callable<Void>> parseTasks = new ArrayList<>(segments.size());
+                for (int segment = 0; segment < segments.size(); segment++) {
+                    final long from = segments.get(segment)[0];
+                    final long to = (segment + 1 < segments.size()) ? segments.get(segment + 1)[0] : size;
+                    final int firstRecord = Math.toIntExact(segments.get(segment)[1]);
+                    parseTasks.add(() -> {
+                        this.parseSegment(channel, from, to, firstRecord, headerRows, header, records);
+                        return null;
+                    });
+                }
+                this.invokeAll(executor, parseTasks);
+
+                return new ParsedCsv(header[0], records);
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private <T> List<T> invokeAll(ExecutorService executor, List<Callable<T>> tasks) throws IOException {
+        try {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : executor.invokeAll(tasks))
+                results.add(future.get());
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Cuts the file into chunks of roughly equal size. A chunk boundary is never placed directly behind a quote,
+     * escape, or carriage return character, so that no two-character sequence is split across two chunks.
+     */
+    private long[] chunkBoundaries(FileChannel channel, long size) throws IOException {
+        long chunkSize = Math.max(this.minChunkSize, Math.min(MAX_CHUNK_SIZE, size / (4L * this.numThreads) + 1));
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer window = ByteBuffer.allocate(4096);
+        long boundary = this.cleanBoundary(channel, chunkSize, size, window);
+        while (boundary < size) {
+            boundaries.add(boundary);
+            boundary = this.cleanBoundary(channel, boundary + chunkSize, size, window);
+        }
+        boundaries.add(size);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long cleanBoundary(FileChannel channel, long boundary, long size, ByteBuffer window) throws IOException {
+        while (boundary < size) {
+            window.clear();
+            int read = channel.read(window, boundary - 1);
+            for (int i = 0; i < read && boundary < size; i++, boundary++) {
+                byte previous = window.get(i);
+                if (previous != QUOTE && previous != ESCAPE && previous != '\r')
+                    return boundary;
+            }
+        }
+        return size;
+    }
+
+    private ScanResult[] scanChunk(FileChannel channel, long from, long to, boolean first) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        ScanResult[] results = new ScanResult[NUM_STATES];
+        for (int state = 0; state < NUM_STATES; state++) {
+            results[state] = this.scan(buffer, from, state);
+            if (first)
+                break;
+        }
+        return results;
+    }
+
+    /**
+     * Scans the bytes of a chunk for record terminators, i.e., line breaks outside of quotes, assuming that the
+     * chunk starts in the given quoting state. The state transitions mirror those of the OpenCSV parser.
+     */
+    private ScanResult scan(ByteBuffer buffer, long offset, int startState) {
+        boolean inQuotes = (startState & IN_QUOTES) != 0;
+        boolean inField = (startState & IN_FIELD) != 0;
+        long numTerminators = 0;
+        long firstRecordStart = -1;
+        long lastRecordStart = -1;
+
+        int limit = buffer.limit();
+        for (int pos = 0; pos < limit; pos++) {
+            byte c = buffer.get(pos);
+            if (c == '\n' || c == '\r') {
+                if (c == '\r' && pos + 1 < limit && buffer.get(pos + 1) == '\n')
+                    pos++;
+                if (!inQuotes) {
+                    inField = false;
+                    numTerminators++;
+                    lastRecordStart = offset + pos + 1;
+                    if (firstRecordStart < 0)
+                        firstRecordStart = lastRecordStart;
+                }
+                continue;
+            }
+            byte next = (pos + 1 < limit) ? buffer.get(pos + 1) : (byte) '\n';
+            if (c == ESCAPE) {
+                inField = true;
+                if (next == QUOTE || next == ESCAPE || next == this.separator)
+                    pos++;
+            } else if (c == QUOTE) {
+                if ((inQuotes || inField) && next == QUOTE)
+                    pos++;
+                else
+                    inQuotes = !inQuotes;
+                inField = !inField;
+            } else if (c == this.separator && !inQuotes) {
+                inField = false;
+            } else {
+                inField = true;
+            }
+        }
+        int endState = (inQuotes ? IN_QUOTES : 0) | (inField ? IN_FIELD : 0);
+        return new ScanResult(endState, numTerminators, firstRecordStart, lastRecordStart);
+    }
+
+    private void parseSegment(FileChannel channel, long from, long to, int firstRecord, int headerRows,
+                              String[][] header, String[][] records) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        CharsetDecoder decoder = this.charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        CharBuffer chars = decoder.decode(buffer);
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int recordIndex = firstRecord;
+        int length = chars.limit();
+        int pos = 0;
+        while (pos < length) {
+            boolean isHeader = recordIndex < headerRows;
+            boolean inQuotes = false;
+            boolean inField = false;
+            boolean fieldWasQuoted = false;
+            fields.clear();
+            field.setLength(0);
+
+            // Parse the record line by line, because quoted fields may span multiple lines
+            while (true) {
+                int lineStart = pos;
+                int lineEnd = lineStart;
+                while (lineEnd < length && chars.get(lineEnd) != '\n' && chars.get(lineEnd) != '\r')
+                    lineEnd++;
+
+                for (int i = lineStart; i < lineEnd; i++) {
+                    char c = chars.get(i);
+                    char next = (i + 1 < lineEnd) ? chars.get(i + 1) : '\n';
+                    if (c == ESCAPE) {
+                        inField = true;
+                        if (next == QUOTE || next == ESCAPE || next == this.separator) {
+                            field.append(next);
+                            i++;
+                        }
+                    } else if (c == QUOTE) {
+                        if ((inQuotes || inField) && next == QUOTE) {
+                            field.append(QUOTE);
+                            i++;
+                        } else {
+                            inQuotes = !inQuotes;
+                            if (field.length() == 0)
+                                fieldWasQuoted = true;
+                            // A quote embedded in the middle of a field is kept as a literal character
+                            if (i - lineStart > 2 && chars.get(i - 1) != this.separator && i + 1 < lineEnd && next != this.separator)
+                                field.append(QUOTE);
+                        }
+                        inField = !inField;
+                    } else if (c == this.separator && !inQuotes) {
+                        fields.add(this.toValue(field, fieldWasQuoted, isHeader));
+                        field.setLength(0);
+                        fieldWasQuoted = false;
+                        inField = false;
+                    } else {
+                        field.append(c);
+                        inField = true;
+                        fieldWasQuoted = true;
+                    }
+                }
+
+                pos = lineEnd;
+                if (pos < length)
+                    pos += (chars.get(pos) == '\r' && pos + 1 < length && chars.get(pos + 1) == '\n') ? 2 : 1;
+
+                if (!inQuotes) {
+                    fields.add(this.toValue(field, fieldWasQuoted, isHeader));
+                    break;
+                }
+                if (lineEnd >= length)
+                    throw new IOException("Unterminated quoted field at end of record " + recordIndex + ": " + field);
+                field.append('\n');
+                fieldWasQuoted = false;
+            }
+
+            String[] record = fields.toArray(new String[0]);
+            if (isHeader)
+                header[recordIndex] = record;
+            else
+                records[recordIndex - headerRows] = record;
+            recordIndex++;
+        }
+    }
+
+    private String toValue(StringBuilder field, boolean fieldWasQuoted, boolean isHeader) {
+        if (field.length() == 0)
+            return (isHeader && !fieldWasQuoted) ? null : "";
+        return field.toString();
+    }
+}
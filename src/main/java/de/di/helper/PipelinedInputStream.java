@@ -0,0 +1,114 @@
+package de.di.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A PipelinedInputStream reads its source stream on a separate thread and hands the bytes over in chunks through a
+ * bounded queue. Wrapping a decompressing stream in a PipelinedInputStream lets decompression and parsing run
+ * concurrently, while the queue capacity bounds the amount of buffered data.
+ */
+public class PipelinedInputStream extends InputStream {
+
+    private static final byte[] END = new byte[0];
+
+    // The chunks that were read from the source but not yet consumed; END marks the end of the source.
+    private final BlockingQueue<byte[]> chunks;
+
+    // The thread that reads the source stream.
+    private final Thread reader;
+
+    // The failure of the reader thread, if any; it is rethrown to the consumer after all preceding chunks.
+    private volatile IOException failure;
+
+    // The chunk that is currently consumed and the read position within it.
+    private byte[] chunk = null;
+    private int position = 0;
+
+    // A flag indicating whether END was consumed.
+    private boolean finished = false;
+
+    public PipelinedInputStream(final InputStream source, final int chunkSize, final int queueCapacity) {
+        this.chunks = new ArrayBlockingQueue<>(queueCapacity);
+        this.reader = new Thread(() -> this.pump(source, chunkSize), "pipelined-input-reader");
+        this.reader.setDaemon(true);
+        this.reader.start();
+    }
+
+    private void pump(InputStream source, int chunkSize) {
+        try (InputStream in = source) {
+            while (true) {
+                byte[] buffer = new byte[chunkSize];
+                int length = in.readNBytes(buffer, 0, chunkSize);
+                if (length > 0)
+                    this.chunks.put((length == chunkSize) ? buffer : Arrays.copyOf(buffer, length));
+                if (length < chunkSize)
+                    break;
+            }
+        } catch (IOException e) {
+            this.failure = e;
+        } catch (InterruptedException e) {
+            // The consumer closed the stream; no one waits for further chunks
+            return;
+        }
+        try {
+            this.chunks.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Makes sure that a chunk with remaining bytes is available; returns false at the end of the stream.
+    private boolean fill() throws IOException {
+        while (!this.finished && (this.chunk == null || this.position == this.chunk.length)) {
+            try {
+                this.chunk = this.chunks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            this.position = 0;
+            if (this.chunk == END) {
+                this.finished = true;
+                if (this.failure != null)
+                    throw this.failure;
+            }
+        }
+        return !this.finished;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!this.fill())
+            return -1;
+        return this.chunk[this.position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0)
+            return 0;
+        if (!this.fill())
+            return -1;
+        int read = Math.min(length, this.chunk.length - this.position);
+        System.arraycopy(this.chunk, this.position, buffer, offset, read);
+        this.position += read;
+        return read;
+    }
+
+    @Override
+    public int available() {
+        return (this.chunk == null) ? 0 : this.chunk.length - this.position;
+    }
+
+    @Override
+    public void close() {
+        this.finished = true;
+        this.reader.interrupt();
+        this.chunks.clear();
+    }
+}
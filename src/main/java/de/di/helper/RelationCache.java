@@ -0,0 +1,212 @@
+package de.di.helper;
+
+import de.di.structures.ColumnStatistics;
+import de.di.structures.DictionaryColumn;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * The RelationCache stores parsed relations in a compact binary columnar format, so that later loads of an unchanged
+ * source file can memory-map the cache file instead of parsing the CSV again. A cache file holds the header, the row
+ * count, and the dictionary-encoded columns with their statistics. It is only used if the size, the modification
+ * time, and the CRC32C checksum of the source file as well as the parse options match those it was written for.
+ * The cache directory must not lie inside a folder whose files are all loaded as relations.
+ */
+public class RelationCache {
+
+    private static final int MAGIC = 0x44495243; // "DIRC"
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".relcache";
+
+    // The directory that holds the cache files.
+    private final Path directory;
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachedRelation {
+        private final String[] attributes;
+        private final int numRecords;
+        private final DictionaryColumn[] columns;
+        private final ColumnStatistics[] statistics;
+    }
+
+    public RelationCache(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Checks whether the given path is located in this cache's directory.
+     * @param path The path to check.
+     * @return true if the path lies inside the cache directory.
+     */
+    public boolean contains(final Path path) {
+        return path.toAbsolutePath().normalize().startsWith(this.directory.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Reads the cached version of the given source file, if a valid one exists.
+     * @param source The path of the CSV source file.
+     * @param hasHeader A flag indicating whether the first record of the source is a header.
+     * @param separator The separator character of the source.
+     * @param charset The charset of the source.
+     * @return The cached relation or null if there is no cache file or it does not match the source.
+     */
+    public CachedRelation read(final Path source, final boolean hasHeader, final char separator, final Charset charset) {
+        Path cacheFile = this.cacheFileOf(source);
+        if (!Files.isRegularFile(cacheFile))
+            return null;
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                return null;
+
+            // Compare the cheap properties first, so that the checksum is only calculated for likely hits
+            String path = readString(buffer);
+            long size = buffer.getLong();
+            long modified = buffer.getLong();
+            long checksum = buffer.getLong();
+            boolean header = buffer.get() != 0;
+            char sep = buffer.getChar();
+            String charsetName = readString(buffer);
+            if (!source.toAbsolutePath().normalize().toString().equals(path) || Files.size(source) != size ||
+                    Files.getLastModifiedTime(source).toMillis() != modified || header != hasHeader ||
+                    sep != separator || !charset.name().equals(charsetName) || checksumOf(source) != checksum)
+                return null;
+
+            int numAttributes = buffer.getInt();
+            int numRecords = buffer.getInt();
+            String[] attributes = new String[numAttributes];
+            for (int attribute = 0; attribute < numAttributes; attribute++)
+                attributes[attribute] = readString(buffer);
+
+            DictionaryColumn[] columns = new DictionaryColumn[numAttributes];
+            ColumnStatistics[] statistics = new ColumnStatistics[numAttributes];
+            for (int attribute = 0; attribute < numAttributes; attribute++) {
+                statistics[attribute] = new ColumnStatistics(numRecords, buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+                String[] dictionary = new String[statistics[attribute].getNumDistinct()];
+                for (int valueId = 0; valueId < dictionary.length; valueId++)
+                    dictionary[valueId] = readString(buffer);
+                int[] valueIds = new int[numRecords];
+                buffer.asIntBuffer().get(valueIds);
+                buffer.position(buffer.position() + 4 * numRecords);
+                columns[attribute] = new DictionaryColumn(dictionary, valueIds);
+            }
+            return new CachedRelation(attributes, numRecords, columns, statistics);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            // A truncated or otherwise unreadable cache file is treated as a cache miss and will be overwritten
+            return null;
+        }
+    }
+
+    /**
+     * Writes the given relation data into the cache file of the given source file. The file is written to a temporary
+     * file first and then moved into place, so that concurrent readers never see a partially written cache file.
+     * @param source The path of the CSV source file.
+     * @param hasHeader A flag indicating whether the first record of the source is a header.
+     * @param separator The separator character of the source.
+     * @param charset The charset of the source.
+     * @param relation The attributes, row count, columns, and statistics that should be cached.
+     */
+    public void write(final Path source, final boolean hasHeader, final char separator, final Charset charset,
+                      final CachedRelation relation) {
+        try {
+            Files.createDirectories(this.directory);
+            Path cacheFile = this.cacheFileOf(source);
+            Path tempFile = Files.createTempFile(this.directory, cacheFile.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), 1 << 16))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    writeString(out, source.toAbsolutePath().normalize().toString());
+                    out.writeLong(Files.size(source));
+                    out.writeLong(Files.getLastModifiedTime(source).toMillis());
+                    out.writeLong(checksumOf(source));
+                    out.writeByte(hasHeader ? 1 : 0);
+                    out.writeChar(separator);
+                    writeString(out, charset.name());
+
+                    out.writeInt(relation.getAttributes().length);
+                    out.writeInt(relation.getNumRecords());
+                    for (String attribute : relation.getAttributes())
+                        writeString(out, attribute);
+
+                    for (int attribute = 0; attribute < relation.getColumns().length; attribute++) {
+                        DictionaryColumn column = relation.getColumns()[attribute];
+                        ColumnStatistics statistics = relation.getStatistics()[attribute];
+                        out.writeInt(statistics.getNumDistinct());
+                        out.writeInt(statistics.getNumEmpty());
+                        out.writeInt(statistics.getMinLength());
+                        out.writeInt(statistics.getMaxLength());
+                        for (String value : column.getDictionary())
+                            writeString(out, value);
+                        for (int valueId : column.getValueIds())
+                            out.writeInt(valueId);
+                    }
+                }
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the path of the cache file for the given source file. The name combines the source's file name with a
+     * hash of its absolute path, so that equally named files in different folders do not share a cache file.
+     * @param source The path of the CSV source file.
+     * @return The path of the cache file.
+     */
+    public Path cacheFileOf(final Path source) {
+        Path absolute = source.toAbsolutePath().normalize();
+        String name = absolute.getFileName().toString();
+        return this.directory.resolve(name + "-" + Integer.toHexString(absolute.toString().hashCode()) + SUFFIX);
+    }
+
+    private static long checksumOf(final Path source) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += Integer.MAX_VALUE) {
+                long length = Math.min(Integer.MAX_VALUE, size - position);
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+            }
+        }
+        return crc.getValue();
+    }
+
+    // Strings are stored as their UTF-8 byte length followed by the bytes; the length -1 encodes null.
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0)
+            return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,91 @@
+package de.di.helper;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The ReservoirSampler draws a uniform random sample of fixed size from a stream of items of unknown length (algorithm
+ * R). Items are identified by their position in the stream; for every offered item, the sampler tells the caller in
+ * which reservoir slot to store it, if at all. Equal seeds draw equal samples from equally long streams.
+ */
+public class ReservoirSampler {
+
+    // The random generator that decides which items replace reservoir items.
+    private final SplittableRandom random;
+
+    // The stream position of the item that every reservoir slot currently holds.
+    private final int[] items;
+
+    // The number of items that have been offered so far.
+    private int numOffered = 0;
+
+    public ReservoirSampler(final int size, final long seed) {
+        this.random = new SplittableRandom(seed);
+        this.items = new int[size];
+    }
+
+    /**
+     * Draws a sample of the given size from the positions 0 to numItems - 1, exactly as if all positions were offered
+     * one after the other.
+     * @param numItems The number of items in the stream.
+     * @param size The size of the sample.
+     * @param seed The seed of the random generator.
+     * @return The sampled positions in ascending order.
+     */
+    public static int[] sample(final int numItems, final int size, final long seed) {
+        ReservoirSampler sampler = new ReservoirSampler(size, seed);
+        for (int item = 0; item < numItems; item++)
+            sampler.offer();
+        return sampler.sampledItems();
+    }
+
+    /**
+     * Offers the next item of the stream to the sampler.
+     * @return The reservoir slot in which the item should be stored, replacing the slot's previous item, or -1 if the
+     * item is not sampled.
+     */
+    public int offer() {
+        int item = this.numOffered++;
+        if (item < this.items.length) {
+            this.items[item] = item;
+            return item;
+        }
+        int slot = this.random.nextInt(item + 1);
+        if (slot >= this.items.length)
+            return -1;
+        this.items[slot] = item;
+        return slot;
+    }
+
+    /**
+     * Returns the number of items in the reservoir.
+     * @return The number of sampled items.
+     */
+    public int size() {
+        return Math.min(this.numOffered, this.items.length);
+    }
+
+    /**
+     * Returns the occupied reservoir slots ordered by the stream position of their items.
+     * @return The slots in stream order of their items.
+     */
+    public int[] slotsInStreamOrder() {
+        int[] slots = new int[this.size()];
+        for (int slot = 0; slot < slots.length; slot++)
+            slots[slot] = slot;
+        IntArrays.quickSort(slots, (slot1, slot2) -> Integer.compare(this.items[slot1], this.items[slot2]));
+        return slots;
+    }
+
+    /**
+     * Returns the stream positions of all sampled items.
+     * @return The sampled positions in ascending order.
+     */
+    public int[] sampledItems() {
+        int[] sampled = Arrays.copyOf(this.items, this.size());
+        Arrays.sort(sampled);
+        return sampled;
+    }
+}
@@ -0,0 +1,65 @@
+package de.di.helper;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ValueInterner replaces equal values of the same column by one shared String instance, so that repeated values,
+ * such as keys or country names, are stored only once and compare by identity. Every column has its own intern table
+ * with a bounded number of entries; a column whose table overflows is considered high-cardinality, its table is
+ * released, and its further values are kept as they are. The interner is not thread-safe.
+ */
+public class ValueInterner {
+
+    // The intern tables of all columns; a table is null if the column exceeded the table size.
+    private final List<Object2ObjectOpenHashMap<String, String>> tables = new ArrayList<>();
+
+    // The maximum number of distinct values that are interned per column.
+    private final int maxTableSize;
+
+    public ValueInterner(final int maxTableSize) {
+        this.maxTableSize = maxTableSize;
+    }
+
+    /**
+     * Returns the shared instance of the given value in the given column.
+     * @param column The index of the column that contains the value.
+     * @param value The value that should be interned.
+     * @return The instance of the value that all equal values of the column share; the value itself if it is the
+     * first of its kind or if the column exceeded the table size.
+     */
+    public String intern(final int column, final String value) {
+        while (this.tables.size() <= column)
+            this.tables.add(new Object2ObjectOpenHashMap<>());
+        Object2ObjectOpenHashMap<String, String> table = this.tables.get(column);
+        if (table == null)
+            return value;
+
+        String shared = table.putIfAbsent(value, value);
+        if (shared != null)
+            return shared;
+        if (table.size() > this.maxTableSize)
+            this.tables.set(column, null);
+        return value;
+    }
+
+    /**
+     * Interns all values of the given record in place.
+     * @param record The record whose values should be interned; the value at index i belongs to column i.
+     */
+    public void internAll(final String[] record) {
+        for (int column = 0; column < record.length; column++)
+            record[column] = this.intern(column, record[column]);
+    }
+
+    /**
+     * Checks whether the given column exceeded the table size, i.e., whether its values are no longer interned.
+     * @param column The index of the column.
+     * @return true if the column's values are no longer interned.
+     */
+    public boolean isOverflowed(final int column) {
+        return column < this.tables.size() && this.tables.get(column) == null;
+    }
+}
@@ -0,0 +1,149 @@
+package de.di.similarity_measures;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import lombok.Getter;
+
+/**
+ * A CachedSimilarityMeasure remembers the similarities of the most recently compared value pairs of another similarity
+ * measure, so that value pairs that are compared again, e.g., in further Sorted Neighborhood passes or because values
+ * repeat, are not recalculated. Pairs are keyed by the hash codes of their values independent of their order, which
+ * assumes a symmetric measure; as different pairs can share a key, the values of a cached pair are compared before its
+ * similarity is returned. The least recently used pair is evicted when the cache is full. The cache is thread-safe,
+ * but similarities are calculated outside of its lock.
+ */
+public class CachedSimilarityMeasure implements SimilarityMeasure {
+
+    // The similarity measure whose similarities are cached
+    @Getter
+    private final SimilarityMeasure similarityMeasure;
+
+    // The maximum number of cached value pairs
+    @Getter
+    private final int capacity;
+
+    // The cached value pairs in the order of their last use, keyed by the hash codes of their values.
+    private final Long2ObjectLinkedOpenHashMap<CachedPair> cache;
+
+    // The number of calculations that were answered from the cache
+    private long hits = 0;
+
+    // The number of calculations that had to be calculated by the similarity measure
+    private long misses = 0;
+
+    public CachedSimilarityMeasure(final SimilarityMeasure similarityMeasure, final int capacity) {
+        this.similarityMeasure = similarityMeasure;
+        this.capacity = capacity;
+        this.cache = new Long2ObjectLinkedOpenHashMap<>(Math.min(capacity, 1 << 16));
+    }
+
+    /**
+     * Returns the similarity of the two input strings from the cache or, if the pair is not cached, calculates it with
+     * the cached similarity measure and caches it.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @return The similarity of the two arguments w.r.t. the cached similarity measure.
+     */
+    @Override
+    public double calculate(final String string1, final String string2) {
+        if (string1 == null || string2 == null)
+            return this.similarityMeasure.calculate(string1, string2);
+
+        long key = key(string1.hashCode(), string2.hashCode());
+        synchronized (this) {
+            CachedPair pair = this.cache.getAndMoveToLast(key);
+            if (pair != null && pair.matches(string1, string2)) {
+                this.hits++;
+                return pair.similarity;
+            }
+            this.misses++;
+        }
+
+        double similarity = this.similarityMeasure.calculate(string1, string2);
+        synchronized (this) {
+            this.cache.putAndMoveToLast(key, new CachedPair(string1, string2, similarity));
+            if (this.cache.size() > this.capacity)
+                this.cache.removeFirst();
+        }
+        return similarity;
+    }
+
+    /**
+     * Calculates the similarity of the two input string lists with the cached similarity measure; string lists are
+     * not cached.
+     * @param strings1 The first string list argument for the similarity calculation.
+     * @param strings2 The second string list argument for the similarity calculation.
+     * @return The similarity of the two arguments w.r.t. the cached similarity measure.
+     */
+    @Override
+    public double calculate(final String[] strings1, final String[] strings2) {
+        return this.similarityMeasure.calculate(strings1, strings2);
+    }
+
+    /**
+     * Returns the number of currently cached value pairs.
+     * @return The number of currently cached value pairs.
+     */
+    public synchronized int size() {
+        return this.cache.size();
+    }
+
+    /**
+     * Returns the number of calculations that were answered from the cache.
+     * @return The number of cache hits since the creation or the last clear() of the cache.
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of calculations that had to be calculated by the similarity measure.
+     * @return The number of cache misses since the creation or the last clear() of the cache.
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Returns the fraction of calculations that were answered from the cache.
+     * @return The hit rate in [0, 1]; 0 if nothing has been calculated yet.
+     */
+    public synchronized double hitRate() {
+        long calculations = this.hits + this.misses;
+        return (calculations == 0) ? 0 : (double) this.hits / calculations;
+    }
+
+    /**
+     * Removes all cached value pairs and resets the hit and miss counters.
+     */
+    public synchronized void clear() {
+        this.cache.clear();
+        this.hits = 0;
+        this.misses = 0;
+    }
+
+    // Combines the hash codes of two values into a key that does not depend on the order of the values
+    private static long key(int hash1, int hash2) {
+        int min = Math.min(hash1, hash2);
+        int max = Math.max(hash1, hash2);
+        return ((long) min << 32) | (max & 0xFFFFFFFFL);
+    }
+
+    // A cached value pair with its similarity.
+    private static final class CachedPair {
+
+        private final String value1;
+        private final String value2;
+        private final double similarity;
+
+        private CachedPair(String value1, String value2, double similarity) {
+            this.value1 = value1;
+            this.value2 = value2;
+            this.similarity = similarity;
+        }
+
+        private boolean matches(String string1, String string2) {
+            return (this.value1.equals(string1) && this.value2.equals(string2))
+                    || (this.value1.equals(string2) && this.value2.equals(string1));
+        }
+    }
+}
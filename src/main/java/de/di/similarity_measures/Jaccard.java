@@ -1,6 +1,8 @@
 package de.di.similarity_measures;
 
+import de.di.similarity_measures.helper.SimilarityKernels;
 import de.di.similarity_measures.helper.Tokenizer;
+import de.di.similarity_measures.structures.PreparedValues;
 import lombok.AllArgsConstructor;
 
 import java.util.*;
@@ -8,6 +10,9 @@ import java.util.*;
 @AllArgsConstructor
 public class Jaccard implements SimilarityMeasure {
 
+    // The two token buffers of every thread, which are reused by all calculations of that thread.
+    private static final ThreadLocal<long[][]> TOKEN_BUFFERS = ThreadLocal.withInitial(() -> new long[2][64]);
+
     // The tokenizer that is used to transform string inputs into token lists.
     private final Tokenizer tokenizer;
 
@@ -27,9 +32,155 @@ public class Jaccard implements SimilarityMeasure {
         string1 = (string1 == null) ? "" : string1;
         string2 = (string2 == null) ? "" : string2;
 
-        String[] strings1 = this.tokenizer.tokenize(string1);
-        String[] strings2 = this.tokenizer.tokenize(string2);
-        return this.calculate(strings1, strings2);
+        // The strings are tokenized into sorted long tokens, so that neither tokens nor sets need to be allocated
+        long[][] buffers = TOKEN_BUFFERS.get();
+        buffers[0] = ensureCapacity(buffers[0], this.tokenizer.numTokens(string1));
+        buffers[1] = ensureCapacity(buffers[1], this.tokenizer.numTokens(string2));
+        int numTokens1 = this.tokenizer.tokenizeHashed(string1, buffers[0], !this.bagSemantics);
+        int numTokens2 = this.tokenizer.tokenizeHashed(string2, buffers[1], !this.bagSemantics);
+        return this.calculateTokenized(buffers[0], numTokens1, buffers[1], numTokens2);
+    }
+
+    /**
+     * Calculates the Jaccard similarity of the two input strings if it can reach the lower bound. The similarity can
+     * be at most min(|tokens1|, |tokens2|) / max(|tokens1|, |tokens2|) with set semantics and
+     * min(|tokens1|, |tokens2|) / (|tokens1| + |tokens2|) with bag semantics, so token lists whose sizes differ too
+     * much are rejected without merging them; with bag semantics, even without tokenizing the strings.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @param lowerBound The similarity below which the exact similarity is of no interest.
+     * @return The Jaccard similarity of the two arguments if it is at least the lower bound; otherwise, either that
+     * similarity or BELOW_BOUND.
+     */
+    @Override
+    public double calculate(String string1, String string2, double lowerBound) {
+        string1 = (string1 == null) ? "" : string1;
+        string2 = (string2 == null) ? "" : string2;
+
+        // With bag semantics, all tokens count, so the sizes are known before tokenizing
+        int maxTokens1 = this.tokenizer.numTokens(string1);
+        int maxTokens2 = this.tokenizer.numTokens(string2);
+        if (this.bagSemantics && this.isBelowSizeBound(maxTokens1, maxTokens2, lowerBound))
+            return BELOW_BOUND;
+
+        long[][] buffers = TOKEN_BUFFERS.get();
+        buffers[0] = ensureCapacity(buffers[0], maxTokens1);
+        buffers[1] = ensureCapacity(buffers[1], maxTokens2);
+        int numTokens1 = this.tokenizer.tokenizeHashed(string1, buffers[0], !this.bagSemantics);
+        int numTokens2 = this.tokenizer.tokenizeHashed(string2, buffers[1], !this.bagSemantics);
+        if (this.isBelowSizeBound(numTokens1, numTokens2, lowerBound))
+            return BELOW_BOUND;
+        return this.calculateTokenized(buffers[0], numTokens1, buffers[1], numTokens2);
+    }
+
+    /**
+     * Calculates the Jaccard similarity of two sorted token lists, such as the ones of Tokenizer.tokenizeHashed(), by
+     * merging them. The token lists may contain duplicates; with set semantics, duplicates count only once.
+     * @param tokens1 The first sorted token list argument for the similarity calculation.
+     * @param numTokens1 The number of tokens at the front of tokens1 that belong to the list.
+     * @param tokens2 The second sorted token list argument for the similarity calculation.
+     * @param numTokens2 The number of tokens at the front of tokens2 that belong to the list.
+     * @return The multiset Jaccard similarity of the two arguments.
+     */
+    public double calculate(long[] tokens1, int numTokens1, long[] tokens2, int numTokens2) {
+        int i = 0, j = 0;
+        int intersectionCount = 0;
+        if (this.bagSemantics) {
+            while (i < numTokens1 && j < numTokens2) {
+                if (tokens1[i] < tokens2[j]) {
+                    i++;
+                } else if (tokens1[i] > tokens2[j]) {
+                    j++;
+                } else {
+                    intersectionCount++;
+                    i++;
+                    j++;
+                }
+            }
+            int unionCount = numTokens1 + numTokens2;
+            return (unionCount == 0) ? 0.0 : (double) intersectionCount / unionCount;
+        }
+
+        int unionCount = 0;
+        while (i < numTokens1 || j < numTokens2) {
+            long token;
+            if (j == numTokens2 || (i < numTokens1 && tokens1[i] < tokens2[j])) {
+                token = tokens1[i];
+            } else if (i == numTokens1 || tokens2[j] < tokens1[i]) {
+                token = tokens2[j];
+            } else {
+                token = tokens1[i];
+                intersectionCount++;
+            }
+            unionCount++;
+            while (i < numTokens1 && tokens1[i] == token)
+                i++;
+            while (j < numTokens2 && tokens2[j] == token)
+                j++;
+        }
+        return (double) intersectionCount / unionCount;
+    }
+
+    /**
+     * Calculates the Jaccard similarity of the two token id lists, e.g., lists encoded by a TokenDictionary. Negative
+     * ids, such as the -1 of TokenDictionary.lookup() for unknown tokens, are different tokens that only occur in their
+     * own list, i.e., they only count for the union. The result is the same as for the corresponding string lists if
+     * every unknown token occurs at most once per list.
+     * @param tokenIds1 The first token id list argument for the similarity calculation.
+     * @param tokenIds2 The second token id list argument for the similarity calculation.
+     * @return The multiset Jaccard similarity of the two arguments.
+     */
+    public double calculate(int[] tokenIds1, int[] tokenIds2) {
+        long[][] buffers = TOKEN_BUFFERS.get();
+        buffers[0] = ensureCapacity(buffers[0], tokenIds1.length);
+        buffers[1] = ensureCapacity(buffers[1], tokenIds2.length);
+        // Every negative id gets its own slot below all valid ids, so that unknown tokens never match
+        for (int i = 0; i < tokenIds1.length; i++)
+            buffers[0][i] = (tokenIds1[i] < 0) ? Long.MIN_VALUE + i : tokenIds1[i];
+        for (int i = 0; i < tokenIds2.length; i++)
+            buffers[1][i] = (tokenIds2[i] < 0) ? Long.MIN_VALUE + tokenIds1.length + i : tokenIds2[i];
+        Arrays.sort(buffers[0], 0, tokenIds1.length);
+        Arrays.sort(buffers[1], 0, tokenIds2.length);
+        return this.calculate(buffers[0], tokenIds1.length, buffers[1], tokenIds2.length);
+    }
+
+    /**
+     * Tokenizes the given values once into sorted token arrays, which are then compared by merging.
+     * @param values The values that should be prepared.
+     * @return The prepared values, whose similarities equal the pairwise calculate() results of the values.
+     */
+    @Override
+    public PreparedValues prepare(final String[] values) {
+        long[][] tokens = new long[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            String value = (values[i] == null) ? "" : values[i];
+            long[] valueTokens = new long[this.tokenizer.numTokens(value)];
+            int numTokens = this.tokenizer.tokenizeHashed(value, valueTokens, !this.bagSemantics);
+            tokens[i] = (numTokens == valueTokens.length) ? valueTokens : Arrays.copyOf(valueTokens, numTokens);
+        }
+        return new PreparedTokens(this, tokens);
+    }
+
+    // Calculates the similarity of token lists from this.tokenizer, which are strictly increasing with set semantics,
+    // so that their intersection can be counted by the (SIMD) kernels
+    private double calculateTokenized(long[] tokens1, int numTokens1, long[] tokens2, int numTokens2) {
+        if (this.bagSemantics)
+            return this.calculate(tokens1, numTokens1, tokens2, numTokens2);
+        int intersectionCount = SimilarityKernels.get().intersectionSize(tokens1, numTokens1, tokens2, numTokens2);
+        return (double) intersectionCount / (numTokens1 + numTokens2 - intersectionCount);
+    }
+
+    // Checks whether token lists of the given sizes, which are distinct with set semantics, cannot reach the lower bound
+    private boolean isBelowSizeBound(int numTokens1, int numTokens2, double lowerBound) {
+        if (numTokens1 + numTokens2 == 0)
+            return false;
+        int minTokens = Math.min(numTokens1, numTokens2);
+        double maxSimilarity = (double) minTokens / (this.bagSemantics ? numTokens1 + numTokens2 : Math.max(numTokens1, numTokens2));
+        return maxSimilarity < lowerBound - ROUNDING_MARGIN;
+    }
+
+    private static long[] ensureCapacity(long[] buffer, int capacity) {
+        return (buffer.length < capacity) ? new long[Math.max(capacity, 2 * buffer.length)] : buffer;
     }
 
     /**
@@ -92,4 +243,37 @@ public class Jaccard implements SimilarityMeasure {
         }
         return (double) intersectionCount / unionCount;
     }
-}
\ No newline at end of file
+
+    // The sorted token arrays of prepared values.
+    private static final class PreparedTokens implements PreparedValues {
+
+        private final Jaccard jaccard;
+        private final long[][] tokens;
+
+        private PreparedTokens(Jaccard jaccard, long[][] tokens) {
+            this.jaccard = jaccard;
+            this.tokens = tokens;
+        }
+
+        @Override
+        public int size() {
+            return this.tokens.length;
+        }
+
+        @Override
+        public double calculate(int index, PreparedValues others, int otherIndex) {
+            long[] tokens1 = this.tokens[index];
+            long[] tokens2 = ((PreparedTokens) others).tokens[otherIndex];
+            return this.jaccard.calculateTokenized(tokens1, tokens1.length, tokens2, tokens2.length);
+        }
+
+        @Override
+        public double calculate(int index, PreparedValues others, int otherIndex, double lowerBound) {
+            long[] tokens1 = this.tokens[index];
+            long[] tokens2 = ((PreparedTokens) others).tokens[otherIndex];
+            if (this.jaccard.isBelowSizeBound(tokens1.length, tokens2.length, lowerBound))
+                return BELOW_BOUND;
+            return this.jaccard.calculateTokenized(tokens1, tokens1.length, tokens2, tokens2.length);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package de.di.similarity_measures;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+public class JaroWinkler implements SimilarityMeasure {
+
+    // The number of leading characters that the Winkler boost rewards at most.
+    private static final int MAX_PREFIX_LENGTH = 4;
+
+    // The match flags of every thread, which are reused by all calculations of that thread.
+    private static final ThreadLocal<MatchFlags> MATCH_FLAGS = ThreadLocal.withInitial(MatchFlags::new);
+
+    // The weight by which every common prefix character moves the Jaro similarity towards 1
+    @Getter
+    private final double prefixScale;
+
+    // The Jaro similarity above which the Winkler boost is applied
+    @Getter
+    private final double boostThreshold;
+
+    public JaroWinkler() {
+        this(0.1, 0.7);
+    }
+
+    public JaroWinkler(final double prefixScale, final double boostThreshold) {
+        this.prefixScale = prefixScale;
+        this.boostThreshold = boostThreshold;
+    }
+
+    /**
+     * Calculates the Jaro-Winkler similarity of the two input strings.
+     * The Jaro similarity counts the characters that both strings contain within a window around the same position
+     * and the transpositions among them; the Winkler boost raises similarities above the boost threshold for strings
+     * with a common prefix, which suits short name fields.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @return The Jaro-Winkler similarity of the two arguments in [0, 1]; 1 for two empty strings.
+     */
+    @Override
+    public double calculate(final String string1, final String string2) {
+        return this.calculate(string1, 0, string1.length(), string2, 0, string2.length());
+    }
+
+    /**
+     * Calculates the Jaro-Winkler similarity of two substrings without materializing them.
+     * @param string1 The string that contains the first substring.
+     * @param from1 The index of the first character of the first substring.
+     * @param to1 The index after the last character of the first substring.
+     * @param string2 The string that contains the second substring.
+     * @param from2 The index of the first character of the second substring.
+     * @param to2 The index after the last character of the second substring.
+     * @return The Jaro-Winkler similarity of the two substrings in [0, 1]; 1 for two empty substrings.
+     */
+    public double calculate(final String string1, final int from1, final int to1, final String string2, final int from2, final int to2) {
+        int length1 = to1 - from1;
+        int length2 = to2 - from2;
+        if (length1 == 0 || length2 == 0)
+            return (length1 == length2) ? 1.0 : 0.0;
+
+        MatchFlags flags = MATCH_FLAGS.get().ensureCapacity(length1, length2);
+        int window = Math.max(0, Math.max(length1, length2) / 2 - 1);
+        int matches = 0;
+        for (int i = 0; i < length1; i++) {
+            char c = string1.charAt(from1 + i);
+            int end = Math.min(length2, i + window + 1);
+            for (int j = Math.max(0, i - window); j < end; j++) {
+                if (!flags.matched2[j] && string2.charAt(from2 + j) == c) {
+                    flags.matched1[i] = true;
+                    flags.matched2[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+
+        int transpositions = 0;
+        if (matches > 0) {
+            for (int i = 0, j = 0; i < length1; i++) {
+                if (!flags.matched1[i])
+                    continue;
+                while (!flags.matched2[j])
+                    j++;
+                if (string1.charAt(from1 + i) != string2.charAt(from2 + j))
+                    transpositions++;
+                j++;
+            }
+        }
+        flags.clear(length1, length2);
+
+        int prefixLength = 0;
+        int maxPrefixLength = Math.min(MAX_PREFIX_LENGTH, Math.min(length1, length2));
+        while (prefixLength < maxPrefixLength && string1.charAt(from1 + prefixLength) == string2.charAt(from2 + prefixLength))
+            prefixLength++;
+        return this.boost(jaro(matches, transpositions, length1, length2), prefixLength);
+    }
+
+    /**
+     * Calculates the Jaro-Winkler similarity of the two input string lists.
+     * For string lists, we consider each list as an ordered list of tokens and count matching and transposed tokens
+     * instead of characters.
+     * @param strings1 The first string list argument for the similarity calculation.
+     * @param strings2 The second string list argument for the similarity calculation.
+     * @return The Jaro-Winkler similarity of the two arguments in [0, 1]; 1 for two empty lists.
+     */
+    @Override
+    public double calculate(final String[] strings1, final String[] strings2) {
+        int length1 = strings1.length;
+        int length2 = strings2.length;
+        if (length1 == 0 || length2 == 0)
+            return (length1 == length2) ? 1.0 : 0.0;
+
+        MatchFlags flags = MATCH_FLAGS.get().ensureCapacity(length1, length2);
+        int window = Math.max(0, Math.max(length1, length2) / 2 - 1);
+        int matches = 0;
+        for (int i = 0; i < length1; i++) {
+            int end = Math.min(length2, i + window + 1);
+            for (int j = Math.max(0, i - window); j < end; j++) {
+                if (!flags.matched2[j] && strings2[j].equals(strings1[i])) {
+                    flags.matched1[i] = true;
+                    flags.matched2[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+
+        int transpositions = 0;
+        if (matches > 0) {
+            for (int i = 0, j = 0; i < length1; i++) {
+                if (!flags.matched1[i])
+                    continue;
+                while (!flags.matched2[j])
+                    j++;
+                if (!strings1[i].equals(strings2[j]))
+                    transpositions++;
+                j++;
+            }
+        }
+        flags.clear(length1, length2);
+
+        int prefixLength = 0;
+        int maxPrefixLength = Math.min(MAX_PREFIX_LENGTH, Math.min(length1, length2));
+        while (prefixLength < maxPrefixLength && strings1[prefixLength].equals(strings2[prefixLength]))
+            prefixLength++;
+        return this.boost(jaro(matches, transpositions, length1, length2), prefixLength);
+    }
+
+    // Calculates the Jaro similarity from the number of matches and the number of matches in a different order
+    private static double jaro(int matches, int transpositions, int length1, int length2) {
+        if (matches == 0)
+            return 0.0;
+        double m = matches;
+        return (m / length1 + m / length2 + (m - transpositions / 2.0) / m) / 3.0;
+    }
+
+    private double boost(double jaro, int prefixLength) {
+        if (jaro <= this.boostThreshold)
+            return jaro;
+        return jaro + prefixLength * this.prefixScale * (1.0 - jaro);
+    }
+
+    // The flags that mark the matched elements of both arguments; all false between uses.
+    private static final class MatchFlags {
+
+        private boolean[] matched1 = new boolean[64];
+        private boolean[] matched2 = new boolean[64];
+
+        private MatchFlags ensureCapacity(int length1, int length2) {
+            if (this.matched1.length < length1)
+                this.matched1 = new boolean[Math.max(length1, 2 * this.matched1.length)];
+            if (this.matched2.length < length2)
+                this.matched2 = new boolean[Math.max(length2, 2 * this.matched2.length)];
+            return this;
+        }
+
+        private void clear(int length1, int length2) {
+            Arrays.fill(this.matched1, 0, length1, false);
+            Arrays.fill(this.matched2, 0, length2, false);
+        }
+    }
+}
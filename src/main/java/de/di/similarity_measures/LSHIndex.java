@@ -0,0 +1,213 @@
+package de.di.similarity_measures;
+
+import de.di.Relation;
+import de.di.similarity_measures.helper.MinHashFamily;
+import de.di.similarity_measures.helper.Tokenizer;
+import de.di.similarity_measures.structures.SimilarPair;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The LSHIndex finds similar token sets without comparing all pairs of sets. It stores the MinHash signature of every
+ * added set, splits each signature into bands of rows, and puts the set into one hash bucket per band. Two sets become
+ * candidates if they share at least one bucket, which happens with probability 1 - (1 - J^rows)^bands for sets with
+ * Jaccard similarity J; all candidates are then verified by their estimated Jaccard similarity. The index is not
+ * thread-safe.
+ */
+public class LSHIndex {
+
+    // The number of bands that every signature is split into
+    @Getter
+    private final int bands;
+
+    // The number of signature values per band
+    @Getter
+    private final int rows;
+
+    // The MinHash family that signs all sets of this index; it has bands * rows functions.
+    private final MinHashFamily minHashFamily;
+
+    // The choice of whether signatures are calculated with one-permutation hashing.
+    private final boolean onePermutation;
+
+    // The signatures of all added sets by their index; null for empty sets, which are never similar to any set.
+    private final ObjectArrayList<long[]> signatures = new ObjectArrayList<>();
+
+    // The buckets of every band, which map the hash of a band's signature values to the indexes of its sets.
+    private final List<Long2ObjectOpenHashMap<IntArrayList>> buckets;
+
+    public LSHIndex(final int bands, final int rows, final boolean onePermutation, final long seed) {
+        this.bands = bands;
+        this.rows = rows;
+        this.minHashFamily = new MinHashFamily(bands * rows, seed);
+        this.onePermutation = onePermutation;
+        this.buckets = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++)
+            this.buckets.add(new Long2ObjectOpenHashMap<>());
+    }
+
+    /**
+     * Creates an index with the given signature width whose bands and rows are chosen for the given threshold, i.e.,
+     * such that (1 / bands)^(1 / rows), the similarity at which the candidate probability rises most steeply, is
+     * closest to the threshold.
+     * @param threshold The Jaccard similarity threshold that queries will mostly use.
+     * @param numHashFunctions The maximum signature width; the index uses bands * rows <= numHashFunctions functions.
+     * @param onePermutation The choice of whether signatures are calculated with one-permutation hashing.
+     * @param seed The seed of the MinHash family.
+     * @return The index for the threshold.
+     */
+    public static LSHIndex forThreshold(final double threshold, final int numHashFunctions, final boolean onePermutation, final long seed) {
+        int bestRows = 1;
+        double bestError = Double.MAX_VALUE;
+        for (int rows = 1; rows <= numHashFunctions; rows++) {
+            int bands = numHashFunctions / rows;
+            double error = Math.abs(Math.pow(1.0 / bands, 1.0 / rows) - threshold);
+            if (error < bestError) {
+                bestError = error;
+                bestRows = rows;
+            }
+        }
+        return new LSHIndex(numHashFunctions / bestRows, bestRows, onePermutation, seed);
+    }
+
+    /**
+     * Adds the given token set to the index.
+     * @param tokens The tokens of the set, e.g., from Tokenizer.tokenizeHashed(); duplicates are ignored.
+     * @return The index of the set, which is the number of sets added before it.
+     */
+    public int add(final long[] tokens) {
+        int index = this.signatures.size();
+        if (tokens.length == 0) {
+            this.signatures.add(null);
+            return index;
+        }
+
+        long[] signature = this.minHashFamily.signature(tokens, this.onePermutation);
+        this.signatures.add(signature);
+        for (int band = 0; band < this.bands; band++)
+            this.buckets.get(band).computeIfAbsent(this.bandHash(signature, band), key -> new IntArrayList(2)).add(index);
+        return index;
+    }
+
+    /**
+     * Adds the given string tokens, e.g., the values of a column, as one set to the index.
+     * @param tokens The string tokens of the set; duplicates are ignored.
+     * @return The index of the set.
+     */
+    public int add(final String[] tokens) {
+        long[] hashes = new long[tokens.length];
+        for (int i = 0; i < tokens.length; i++)
+            hashes[i] = MinHashFamily.hash(tokens[i]);
+        return this.add(hashes);
+    }
+
+    /**
+     * Adds the tokenized values of the given attribute as one set per record to the index, so that the set indexes
+     * are the record indexes if the index was empty.
+     * @param relation The relation whose records should be added.
+     * @param attribute The index of the attribute whose values should be added.
+     * @param tokenizer The tokenizer that splits the values into tokens.
+     */
+    public void addAll(final Relation relation, final int attribute, final Tokenizer tokenizer) {
+        for (String[] record : relation.getRecords())
+            this.add(tokenizer.tokenizeHashed(record[attribute] == null ? "" : record[attribute]));
+    }
+
+    /**
+     * Returns the number of sets in this index.
+     * @return The number of sets in this index.
+     */
+    public int size() {
+        return this.signatures.size();
+    }
+
+    /**
+     * Finds all sets of the index whose estimated Jaccard similarity with the given token set is at least the
+     * threshold.
+     * @param tokens The tokens of the query set.
+     * @param threshold The minimum estimated Jaccard similarity.
+     * @return The indexes of all similar sets in ascending order.
+     */
+    public int[] query(final long[] tokens, final double threshold) {
+        if (tokens.length == 0)
+            return new int[0];
+
+        long[] signature = this.minHashFamily.signature(tokens, this.onePermutation);
+        IntArrayList similar = new IntArrayList();
+        IntOpenHashSet compared = new IntOpenHashSet();
+        for (int band = 0; band < this.bands; band++) {
+            IntArrayList bucket = this.buckets.get(band).get(this.bandHash(signature, band));
+            if (bucket == null)
+                continue;
+            for (int i = 0; i < bucket.size(); i++) {
+                int index = bucket.getInt(i);
+                if (compared.add(index) && this.minHashFamily.estimateJaccard(signature, this.signatures.get(index), threshold - SimilarityMeasure.ROUNDING_MARGIN) >= threshold)
+                    similar.add(index);
+            }
+        }
+        int[] indexes = similar.toIntArray();
+        Arrays.sort(indexes);
+        return indexes;
+    }
+
+    /**
+     * Finds all pairs of sets in the index whose estimated Jaccard similarity is at least the threshold. Only sets that
+     * share a bucket are compared, so the join runs in roughly linear time if the buckets stay small.
+     * @param threshold The minimum estimated Jaccard similarity.
+     * @return The similar pairs with their estimated similarities, sorted by their indexes.
+     */
+    public List<SimilarPair> selfJoin(final double threshold) {
+        List<SimilarPair> pairs = new ArrayList<>();
+        LongOpenHashSet compared = new LongOpenHashSet();
+        for (int band = 0; band < this.bands; band++) {
+            for (IntArrayList bucket : this.buckets.get(band).values()) {
+                for (int i = 0; i < bucket.size(); i++) {
+                    for (int j = i + 1; j < bucket.size(); j++) {
+                        int index1 = bucket.getInt(i);
+                        int index2 = bucket.getInt(j);
+                        if (!compared.add(((long) index1 << 32) | index2))
+                            continue;
+                        double similarity = this.minHashFamily.estimateJaccard(this.signatures.get(index1), this.signatures.get(index2), threshold - SimilarityMeasure.ROUNDING_MARGIN);
+                        if (similarity >= threshold)
+                            pairs.add(new SimilarPair(index1, index2, similarity));
+                    }
+                }
+            }
+        }
+        Collections.sort(pairs);
+        return pairs;
+    }
+
+    /**
+     * Finds all pairs of records whose tokenized values of the given attribute have an estimated Jaccard similarity of
+     * at least the threshold.
+     * @param relation The relation whose records should be joined.
+     * @param attribute The index of the attribute whose values should be compared.
+     * @param tokenizer The tokenizer that splits the values into tokens.
+     * @param threshold The minimum estimated Jaccard similarity.
+     * @param numHashFunctions The maximum signature width of the index.
+     * @return The similar record pairs with their estimated similarities, sorted by their record indexes.
+     */
+    public static List<SimilarPair> selfJoin(final Relation relation, final int attribute, final Tokenizer tokenizer,
+                                             final double threshold, final int numHashFunctions) {
+        LSHIndex index = forThreshold(threshold, numHashFunctions, true, 0);
+        index.addAll(relation, attribute, tokenizer);
+        return index.selfJoin(threshold);
+    }
+
+    private long bandHash(final long[] signature, final int band) {
+        long hash = band;
+        for (int row = band * this.rows; row < (band + 1) * this.rows; row++)
+            hash = MinHashFamily.mix(hash * 0x9E3779B97F4A7C15L + signature[row]);
+        return hash;
+    }
+}
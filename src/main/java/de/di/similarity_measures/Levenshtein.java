@@ -1,18 +1,28 @@
 package de.di.similarity_measures;
 
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 
 import java.util.Arrays;
 
 @AllArgsConstructor
 public class Levenshtein implements SimilarityMeasure {
 
+    private static final int HISTOGRAM_BUCKETS = 64;
+
+    // The pattern match vectors of every thread, which are reused by all calculations of that thread.
+    private static final ThreadLocal<PatternMasks> PATTERN_MASKS = ThreadLocal.withInitial(PatternMasks::new);
+
     // Utility method to find the minimum value among the given numbers
     public static int min(int... numbers) {
-        return Arrays.stream(numbers).min().orElse(Integer.MAX_VALUE);
+        int min = Integer.MAX_VALUE;
+        for (int number : numbers)
+            min = Math.min(min, number);
+        return min;
     }
 
     // The choice of whether Levenshtein or Damerau-Levenshtein should be calculated
+    @Getter
     private final boolean withDamerau;
 
     /**
@@ -24,45 +34,367 @@ public class Levenshtein implements SimilarityMeasure {
      */
     @Override
     public double calculate(final String string1, final String string2) {
-        // Handle null inputs by converting them to empty strings
-        final int len1 = string1.length();
-        final int len2 = string2.length();
+        int levenshteinDistance = distance(string1, string2, this.withDamerau);
+        int maxLength = Math.max(string1.length(), string2.length());
+        double normalizedDistance = (double) levenshteinDistance / maxLength;
+        return 1.0 - normalizedDistance;
+    }
 
-        // Initialize the distance matrix
-        int[][] distance = new int[len1 + 1][len2 + 1];
+    /**
+     * Calculates the Levenshtein similarity of the two input strings if it can reach the lower bound. The lower bound
+     * translates into a maximum distance, so pairs whose lengths differ too much are rejected right away, and all
+     * other pairs are only aligned within the band of the distance matrix that can hold this distance.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @param lowerBound The similarity below which the exact similarity is of no interest.
+     * @return The (Damerau) Levenshtein similarity of the two arguments if it is at least the lower bound; otherwise
+     * BELOW_BOUND.
+     */
+    @Override
+    public double calculate(final String string1, final String string2, final double lowerBound) {
+        int maxLength = Math.max(string1.length(), string2.length());
+        if (lowerBound <= 0 || maxLength == 0)
+            return this.calculate(string1, string2);
 
-        for (int i = 0; i <= len1; i++) {
-            distance[i][0] = i;
+        int maxDistance = (int) Math.floor((1 - lowerBound) * maxLength + ROUNDING_MARGIN);
+        int levenshteinDistance = distance(string1, string2, this.withDamerau, maxDistance);
+        if (levenshteinDistance > maxDistance)
+            return BELOW_BOUND;
+        return 1.0 - (double) levenshteinDistance / maxLength;
+    }
+
+    /**
+     * Calculates the Levenshtein distance or, with Damerau, the optimal string alignment distance (adjacent
+     * transpositions, no edits of transposed characters) of the two input strings. The distance is computed with the
+     * bit-parallel algorithm of Myers in Hyyrö's formulation, which processes 64 characters of the shorter string per
+     * machine word: strings with at most 64 characters after removing their common prefix and suffix need a single
+     * word per character of the longer string and no allocation; longer strings are processed in blocks of words.
+     * @param string1 The first string argument for the distance calculation.
+     * @param string2 The second string argument for the distance calculation.
+     * @param withDamerau A flag indicating whether adjacent transpositions count as a single edit.
+     * @return The number of edits that transform one string into the other.
+     */
+    public static int distance(final String string1, final String string2, final boolean withDamerau) {
+        return distance(string1, string2, withDamerau, Integer.MAX_VALUE - 1);
+    }
+
+    /**
+     * Calculates the (Damerau) Levenshtein distance of the two input strings as long as it does not exceed the given
+     * maximum distance. Pairs whose lengths or character histograms differ by more than the maximum distance are
+     * rejected without any alignment; for small maximum distances, only the diagonal band of the distance matrix
+     * that can hold distances up to the maximum is evaluated (Ukkonen), and the evaluation stops as soon as no cell
+     * of the band is within the maximum anymore.
+     * @param string1 The first string argument for the distance calculation.
+     * @param string2 The second string argument for the distance calculation.
+     * @param withDamerau A flag indicating whether adjacent transpositions count as a single edit.
+     * @param maxDistance The maximum distance that is of interest.
+     * @return The distance of the two strings if it is at most maxDistance; maxDistance + 1 otherwise.
+     */
+    public static int distance(final String string1, final String string2, final boolean withDamerau, final int maxDistance) {
+        // The shorter string becomes the pattern, so that it occupies as few machine words as possible
+        String pattern = (string1.length() <= string2.length()) ? string1 : string2;
+        String text = (pattern == string1) ? string2 : string1;
+        if (text.length() - pattern.length() > maxDistance)
+            return maxDistance + 1;
+
+        // A common prefix and suffix never need to be edited
+        int prefix = 0;
+        while (prefix < pattern.length() && pattern.charAt(prefix) == text.charAt(prefix))
+            prefix++;
+        int suffix = 0;
+        while (suffix < pattern.length() - prefix &&
+                pattern.charAt(pattern.length() - 1 - suffix) == text.charAt(text.length() - 1 - suffix))
+            suffix++;
+        int patternLength = pattern.length() - prefix - suffix;
+        int textEnd = text.length() - suffix;
+        if (patternLength == 0)
+            return textEnd - prefix;
+
+        PatternMasks masks = PATTERN_MASKS.get();
+        if (maxDistance < textEnd - prefix && histogramDistance(masks, pattern, prefix, patternLength, text, textEnd) > maxDistance)
+            return maxDistance + 1;
+        if (2L * maxDistance + 1 < patternLength)
+            return banded(masks, pattern, prefix, patternLength, text, textEnd, withDamerau, maxDistance);
+
+        masks.build(pattern, prefix, patternLength);
+        try {
+            int distance;
+            if (masks.words == 1)
+                distance = withDamerau ? osa(masks, patternLength, text, prefix, textEnd) : levenshtein(masks, patternLength, text, prefix, textEnd);
+            else
+                distance = withDamerau ? osaBlocked(masks, patternLength, text, prefix, textEnd) : levenshteinBlocked(masks, patternLength, text, prefix, textEnd);
+            return Math.min(distance, maxDistance + 1);
+        } finally {
+            masks.clear(pattern, prefix, patternLength);
         }
-        for (int j = 0; j <= len2; j++) {
-            distance[0][j] = j;
+    }
+
+    // Every edit changes the character counts of at most two buckets by one, and transpositions change none, so the
+    // larger of the total surplus and the total deficit of the pattern's bucket counts is a lower bound of the distance.
+    private static int histogramDistance(PatternMasks masks, String pattern, int start, int patternLength, String text, int textEnd) {
+        int[] histogram = masks.histogram;
+        for (int i = start; i < start + patternLength; i++)
+            histogram[pattern.charAt(i) & (HISTOGRAM_BUCKETS - 1)]++;
+        for (int j = start; j < textEnd; j++)
+            histogram[text.charAt(j) & (HISTOGRAM_BUCKETS - 1)]--;
+        int surplus = 0;
+        int deficit = 0;
+        for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++) {
+            if (histogram[bucket] > 0)
+                surplus += histogram[bucket];
+            else
+                deficit -= histogram[bucket];
+            histogram[bucket] = 0;
         }
+        return Math.max(surplus, deficit);
+    }
 
-        // Fill the distance matrix
-        for (int i = 1; i <= len1; i++) {
-            for (int j = 1; j <= len2; j++) {
-                int cost = (string1.charAt(i - 1) == string2.charAt(j - 1)) ? 0 : 1;
+    // Evaluates the distance matrix row by row, but only within maxDistance cells of its diagonal; all cells outside
+    // of the band are treated as maxDistance + 1. Row i of the matrix corresponds to the i-th pattern character.
+    private static int banded(PatternMasks masks, String pattern, int start, int patternLength, String text, int textEnd,
+                              boolean withDamerau, int maxDistance) {
+        int textLength = textEnd - start;
+        int outside = maxDistance + 1;
+        int[] previous2 = masks.row(0, textLength + 1);
+        int[] previous = masks.row(1, textLength + 1);
+        int[] current = masks.row(2, textLength + 1);
+        for (int j = 0; j <= textLength; j++)
+            previous[j] = Math.min(j, outside);
 
-                distance[i][j] = min(
-                        distance[i - 1][j] + 1,     // Deletion
-                        distance[i][j - 1] + 1,     // Insertion
-                        distance[i - 1][j - 1] + cost // Substitution
-                );
+        for (int i = 1; i <= patternLength; i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(textLength, i + maxDistance);
+            current[from - 1] = (from == 1) ? Math.min(i, outside) : outside;
+            int rowMin = current[from - 1];
+            char p = pattern.charAt(start + i - 1);
+            for (int j = from; j <= to; j++) {
+                char t = text.charAt(start + j - 1);
+                int value = Math.min(previous[j - 1] + ((p == t) ? 0 : 1), Math.min(previous[j], current[j - 1]) + 1);
+                if (withDamerau && i > 1 && j > 1 && p == text.charAt(start + j - 2) && pattern.charAt(start + i - 2) == t)
+                    value = Math.min(value, previous2[j - 2] + 1);
+                current[j] = Math.min(value, outside);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < textLength)
+                current[to + 1] = outside;
+            if (rowMin > maxDistance)
+                return outside;
 
-                // Damerau-Levenshtein transposition
-                if (withDamerau && i > 1 && j > 1 &&
-                        string1.charAt(i - 1) == string2.charAt(j - 2) &&
-                        string1.charAt(i - 2) == string2.charAt(j - 1)) {
-                    distance[i][j] = Math.min(distance[i][j], distance[i - 2][j - 2] + cost);
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[textLength];
+    }
+
+    private static int levenshtein(PatternMasks masks, int patternLength, String text, int textStart, int textEnd) {
+        long last = 1L << (patternLength - 1);
+        long vp = ~0L;
+        long vn = 0;
+        int distance = patternLength;
+        for (int j = textStart; j < textEnd; j++) {
+            long pm = masks.get(text.charAt(j), 0);
+            long d0 = (((pm & vp) + vp) ^ vp) | pm | vn;
+            long hp = vn | ~(d0 | vp);
+            long hn = d0 & vp;
+            if ((hp & last) != 0)
+                distance++;
+            if ((hn & last) != 0)
+                distance--;
+            hp = (hp << 1) | 1;
+            hn = hn << 1;
+            vp = hn | ~(d0 | hp);
+            vn = hp & d0;
+        }
+        return distance;
+    }
+
+    // Hyyrö's extension for transpositions marks a diagonal step as a match if the two characters were swapped.
+    private static int osa(PatternMasks masks, int patternLength, String text, int textStart, int textEnd) {
+        long last = 1L << (patternLength - 1);
+        long vp = ~0L;
+        long vn = 0;
+        long d0 = 0;
+        long previousPm = 0;
+        int distance = patternLength;
+        for (int j = textStart; j < textEnd; j++) {
+            long pm = masks.get(text.charAt(j), 0);
+            long tr = (((~d0) & pm) << 1) & previousPm;
+            d0 = (((pm & vp) + vp) ^ vp) | pm | vn | tr;
+            long hp = vn | ~(d0 | vp);
+            long hn = d0 & vp;
+            if ((hp & last) != 0)
+                distance++;
+            if ((hn & last) != 0)
+                distance--;
+            hp = (hp << 1) | 1;
+            hn = hn << 1;
+            vp = hn | ~(d0 | hp);
+            vn = hp & d0;
+            previousPm = pm;
+        }
+        return distance;
+    }
+
+    // Every word passes the horizontal deltas of its last row as carries into the first row of the next word.
+    private static int levenshteinBlocked(PatternMasks masks, int patternLength, String text, int textStart, int textEnd) {
+        int words = masks.words;
+        long last = 1L << ((patternLength - 1) & 63);
+        long[] vp = masks.vp;
+        long[] vn = masks.vn;
+        Arrays.fill(vp, 0, words, ~0L);
+        Arrays.fill(vn, 0, words, 0);
+        int distance = patternLength;
+        for (int j = textStart; j < textEnd; j++) {
+            char c = text.charAt(j);
+            long hpCarry = 1;
+            long hnCarry = 0;
+            for (int word = 0; word < words; word++) {
+                long x = masks.get(c, word) | hnCarry;
+                long d0 = (((x & vp[word]) + vp[word]) ^ vp[word]) | x | vn[word];
+                long hp = vn[word] | ~(d0 | vp[word]);
+                long hn = d0 & vp[word];
+                long hpIn = hpCarry;
+                long hnIn = hnCarry;
+                hpCarry = (word < words - 1) ? hp >>> 63 : ((hp & last) != 0 ? 1 : 0);
+                hnCarry = (word < words - 1) ? hn >>> 63 : ((hn & last) != 0 ? 1 : 0);
+                hp = (hp << 1) | hpIn;
+                hn = (hn << 1) | hnIn;
+                vp[word] = hn | ~(d0 | hp);
+                vn[word] = hp & d0;
+            }
+            distance += (int) (hpCarry - hnCarry);
+        }
+        return distance;
+    }
+
+    private static int osaBlocked(PatternMasks masks, int patternLength, String text, int textStart, int textEnd) {
+        int words = masks.words;
+        long last = 1L << ((patternLength - 1) & 63);
+        long[] vp = masks.vp;
+        long[] vn = masks.vn;
+        long[] d0s = masks.d0;
+        long[] previousPms = masks.pm;
+        Arrays.fill(vp, 0, words, ~0L);
+        Arrays.fill(vn, 0, words, 0);
+        Arrays.fill(d0s, 0, words, 0);
+        Arrays.fill(previousPms, 0, words, 0);
+        int distance = patternLength;
+        for (int j = textStart; j < textEnd; j++) {
+            char c = text.charAt(j);
+            long hpCarry = 1;
+            long hnCarry = 0;
+            // The transposition bit of a word's first row depends on the previous word's last row
+            long lowerD0 = 0;
+            long lowerPm = 0;
+            for (int word = 0; word < words; word++) {
+                long pm = masks.get(c, word);
+                long previousD0 = d0s[word];
+                long tr = ((((~previousD0) & pm) << 1) | (((~lowerD0) & lowerPm) >>> 63)) & previousPms[word];
+                long x = pm | hnCarry;
+                long d0 = (((x & vp[word]) + vp[word]) ^ vp[word]) | x | vn[word] | tr;
+                long hp = vn[word] | ~(d0 | vp[word]);
+                long hn = d0 & vp[word];
+                long hpIn = hpCarry;
+                long hnIn = hnCarry;
+                hpCarry = (word < words - 1) ? hp >>> 63 : ((hp & last) != 0 ? 1 : 0);
+                hnCarry = (word < words - 1) ? hn >>> 63 : ((hn & last) != 0 ? 1 : 0);
+                hp = (hp << 1) | hpIn;
+                hn = (hn << 1) | hnIn;
+                vp[word] = hn | ~(d0 | hp);
+                vn[word] = hp & d0;
+                d0s[word] = d0;
+                previousPms[word] = pm;
+                lowerD0 = previousD0;
+                lowerPm = pm;
+            }
+            distance += (int) (hpCarry - hnCarry);
+        }
+        return distance;
+    }
+
+    // The match vectors of a pattern: bit i of the mask of character c in word w is set if the pattern has c at
+    // position 64 * w + i. Characters below 256 are looked up directly; all others are searched in a short list. The
+    // masks are cleared after every use, so that building the next pattern's masks only touches its own characters.
+    private static final class PatternMasks {
+
+        private int words = 0;
+        private long[] latinMasks = new long[256];
+        private char[] otherChars = new char[64];
+        private long[] otherMasks = new long[64];
+        private int numOtherChars = 0;
+
+        // The column vectors of the blocked algorithms, one entry per word.
+        private long[] vp = new long[0];
+        private long[] vn = new long[0];
+        private long[] d0 = new long[0];
+        private long[] pm = new long[0];
+
+        // The character bucket counts of the histogram pre-check; all zero between uses.
+        private final int[] histogram = new int[HISTOGRAM_BUCKETS];
+
+        // The three matrix rows of the banded algorithm.
+        private final int[][] rows = new int[3][0];
+
+        private int[] row(int index, int length) {
+            if (this.rows[index].length < length)
+                this.rows[index] = new int[Math.max(length, 2 * this.rows[index].length)];
+            return this.rows[index];
+        }
+
+        private void build(String pattern, int start, int length) {
+            this.words = (length + 63) >>> 6;
+            if (this.latinMasks.length < 256 * this.words)
+                this.latinMasks = new long[256 * this.words];
+            if (this.otherChars.length < length) {
+                this.otherChars = new char[length];
+                this.otherMasks = new long[length * this.words];
+            } else if (this.otherMasks.length < this.otherChars.length * this.words) {
+                this.otherMasks = new long[this.otherChars.length * this.words];
+            }
+            if (this.words > 1 && this.vp.length < this.words) {
+                this.vp = new long[this.words];
+                this.vn = new long[this.words];
+                this.d0 = new long[this.words];
+                this.pm = new long[this.words];
+            }
+
+            for (int i = 0; i < length; i++) {
+                char c = pattern.charAt(start + i);
+                int word = i >>> 6;
+                if (c < 256) {
+                    this.latinMasks[c * this.words + word] |= 1L << i;
+                    continue;
+                }
+                int index = 0;
+                while (index < this.numOtherChars && this.otherChars[index] != c)
+                    index++;
+                if (index == this.numOtherChars) {
+                    this.otherChars[this.numOtherChars++] = c;
+                    Arrays.fill(this.otherMasks, index * this.words, (index + 1) * this.words, 0);
                 }
+                this.otherMasks[index * this.words + word] |= 1L << i;
             }
         }
 
-        // Calculate the Levenshtein similarity
-        int levenshteinDistance = distance[len1][len2];
-        int maxLength = Math.max(len1, len2);
-        double normalizedDistance = (double) levenshteinDistance / maxLength;
-        return 1.0 - normalizedDistance;
+        private long get(char c, int word) {
+            if (c < 256)
+                return this.latinMasks[c * this.words + word];
+            for (int index = 0; index < this.numOtherChars; index++)
+                if (this.otherChars[index] == c)
+                    return this.otherMasks[index * this.words + word];
+            return 0;
+        }
+
+        private void clear(String pattern, int start, int length) {
+            for (int i = 0; i < length; i++) {
+                char c = pattern.charAt(start + i);
+                if (c < 256)
+                    Arrays.fill(this.latinMasks, c * this.words, (c + 1) * this.words, 0);
+            }
+            this.numOtherChars = 0;
+        }
     }
 
     /**
@@ -94,9 +426,9 @@ public class Levenshtein implements SimilarityMeasure {
             for (int j = 1; j <= len2; j++) {
                 int cost = (strings1[i - 1].equals(strings2[j - 1])) ? 0 : 1;
 
-                distance[i][j] = min(
+                distance[i][j] = Math.min(Math.min(
                         distance[i - 1][j] + 1,     // Deletion
-                        distance[i][j - 1] + 1,     // Insertion
+                        distance[i][j - 1] + 1),    // Insertion
                         distance[i - 1][j - 1] + cost // Substitution
                 );
 
@@ -115,4 +447,45 @@ public class Levenshtein implements SimilarityMeasure {
         double normalizedDistance = (double) levenshteinDistance / maxLength;
         return 1.0 - normalizedDistance;
     }
-}
\ No newline at end of file
+
+    /**
+     * Calculates the Levenshtein similarity of the two token id lists, e.g., lists encoded by a TokenDictionary. The
+     * result is the same as for the corresponding string lists, but tokens are compared by their ids and only three
+     * rows of the distance matrix are kept.
+     * @param tokenIds1 The first token id list argument for the similarity calculation.
+     * @param tokenIds2 The second token id list argument for the similarity calculation.
+     * @return The (multiset) Levenshtein similarity of the two arguments.
+     */
+    public double calculate(final int[] tokenIds1, final int[] tokenIds2) {
+        final int len1 = tokenIds1.length;
+        final int len2 = tokenIds2.length;
+
+        PatternMasks masks = PATTERN_MASKS.get();
+        int[] previousPrevious = masks.row(0, len2 + 1);
+        int[] previous = masks.row(1, len2 + 1);
+        int[] current = masks.row(2, len2 + 1);
+        for (int j = 0; j <= len2; j++)
+            previous[j] = j;
+
+        for (int i = 1; i <= len1; i++) {
+            current[0] = i;
+            for (int j = 1; j <= len2; j++) {
+                int cost = (tokenIds1[i - 1] == tokenIds2[j - 1]) ? 0 : 1;
+                current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+
+                if (this.withDamerau && i > 1 && j > 1 &&
+                        tokenIds1[i - 1] == tokenIds2[j - 2] && tokenIds1[i - 2] == tokenIds2[j - 1])
+                    current[j] = Math.min(current[j], previousPrevious[j - 2] + cost);
+            }
+            int[] row = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = row;
+        }
+
+        int levenshteinDistance = previous[len2];
+        int maxLength = Math.max(len1, len2);
+        double normalizedDistance = (double) levenshteinDistance / maxLength;
+        return 1.0 - normalizedDistance;
+    }
+}
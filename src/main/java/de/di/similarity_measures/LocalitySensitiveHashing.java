@@ -1,13 +1,20 @@
 package de.di.similarity_measures;
 
 import de.di.similarity_measures.helper.MinHash;
+import de.di.similarity_measures.helper.MinHashFamily;
 import de.di.similarity_measures.helper.Tokenizer;
+import de.di.similarity_measures.structures.PreparedValues;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class LocalitySensitiveHashing implements SimilarityMeasure {
 
+    // The seed of the MinHash family, so that the signatures of all instances with the same width are comparable.
+    private static final long SEED = 0x5DEECE66DL;
+
     // The tokenizer that is used to transform string inputs into token lists.
     private final Tokenizer tokenizer;
 
@@ -17,14 +24,28 @@ public class LocalitySensitiveHashing implements SimilarityMeasure {
     // The MinHash functions that are used to calculate the LSH signatures.
     private final List<MinHash> minHashFunctions;
 
+    // The Jaccard algorithm that compares two LSH signatures.
+    private final Jaccard jaccard;
+
+    // The seeded MinHash family that is used to calculate the hashed signatures for indexing.
+    private final MinHashFamily minHashFamily;
+
+    // The choice of whether hashed signatures are calculated with one-permutation hashing instead of one pass per function.
+    private final boolean onePermutation;
+
     public LocalitySensitiveHashing(final Tokenizer tokenizer, final boolean bagSemantics, final int numHashFunctions) {
-        assert(tokenizer.getTokenSize() >= numHashFunctions);
+        this(tokenizer, bagSemantics, numHashFunctions, false);
+    }
 
+    public LocalitySensitiveHashing(final Tokenizer tokenizer, final boolean bagSemantics, final int numHashFunctions, final boolean onePermutation) {
         this.tokenizer = tokenizer;
         this.bagSemantics = bagSemantics;
         this.minHashFunctions = new ArrayList<>(numHashFunctions);
         for (int i = 0; i < numHashFunctions; i++)
             this.minHashFunctions.add(new MinHash(i));
+        this.jaccard = new Jaccard(tokenizer, bagSemantics);
+        this.minHashFamily = new MinHashFamily(numHashFunctions, SEED);
+        this.onePermutation = onePermutation;
     }
 
     /**
@@ -54,28 +75,169 @@ public class LocalitySensitiveHashing implements SimilarityMeasure {
      */
     @Override
     public double calculate(final String[] strings1, final String[] strings2) {
-        int numHashFunctions = this.minHashFunctions.size();
-        int[] signature1 = new int[numHashFunctions];
-        int[] signature2 = new int[numHashFunctions];
-
-        // Calculate MinHash signatures for both sets of strings
-        for (int i = 0; i < numHashFunctions; i++) {
-            MinHash minHash = this.minHashFunctions.get(i);
-            signature1[i] = minHash.compute(strings1);
-            signature2[i] = minHash.compute(strings2);
-        }
+        return this.jaccard.calculate(this.minHash(strings1), this.minHash(strings2));
+    }
 
-        // Calculate Jaccard similarity between the two signatures
-        int intersection = 0;
-        for (int i = 0; i < numHashFunctions; i++) {
-            if (signature1[i] == signature2[i]) {
-                intersection++;
+    /**
+     * Calculates the LSH similarity of the two input strings if it can reach the lower bound. The second signature is
+     * calculated one MinHash function, i.e., one signature slot, at a time; after every slot, the overlap with the
+     * first signature is bounded by the overlap so far plus the number of remaining slots, and the calculation stops
+     * as soon as this bound cannot reach the lower bound anymore, which saves the remaining passes over the tokens.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @param lowerBound The similarity below which the exact similarity is of no interest.
+     * @return The LSH similarity of the two arguments if it is at least the lower bound; otherwise, either that
+     * similarity or BELOW_BOUND.
+     */
+    @Override
+    public double calculate(final String string1, final String string2, final double lowerBound) {
+        String[] signature1 = this.minHash(this.tokenizer.tokenize(string1));
+        String[] strings2 = this.tokenizer.tokenize(string2);
+        int numSlots = signature1.length;
+        if (lowerBound <= 0 || numSlots == 0)
+            return this.jaccard.calculate(signature1, this.minHash(strings2));
+
+        // The values of the first signature that the second one can still match, with their multiplicities
+        Object2IntOpenHashMap<String> available = new Object2IntOpenHashMap<>(numSlots);
+        for (String value : signature1)
+            available.addTo(value, 1);
+        int numDistinct1 = available.size();
+        ObjectOpenHashSet<String> seen = new ObjectOpenHashSet<>(numSlots);
+
+        String[] signature2 = new String[numSlots];
+        int overlap = 0;
+        int numOutside = 0;
+        for (int slot = 0; slot < numSlots; slot++) {
+            String value = this.minHashFunctions.get(slot).hash(strings2);
+            signature2[slot] = value;
+            if (this.bagSemantics) {
+                if (available.getInt(value) > 0) {
+                    available.addTo(value, -1);
+                    overlap++;
+                }
+            } else if (seen.add(value)) {
+                if (available.containsKey(value))
+                    overlap++;
+                else
+                    numOutside++;
             }
+
+            // Every remaining slot adds at most one to the overlap; with set semantics, the union is at least the
+            // first signature's values plus the second signature's other values so far
+            int maxOverlap = overlap + numSlots - slot - 1;
+            double maxSimilarity = this.bagSemantics ? (double) maxOverlap / (2 * numSlots) : (double) maxOverlap / (numDistinct1 + numOutside);
+            if (maxSimilarity < lowerBound - ROUNDING_MARGIN)
+                return BELOW_BOUND;
+        }
+        return this.jaccard.calculate(signature1, signature2);
+    }
+
+    /**
+     * Calculates the LSH signatures of the given values once, so that they are compared without tokenizing and
+     * hashing them for every pair again.
+     * @param values The values that should be prepared.
+     * @return The prepared values, whose similarities equal the pairwise calculate() results of the values.
+     */
+    @Override
+    public PreparedValues prepare(final String[] values) {
+        String[][] signatures = new String[values.length][];
+        for (int i = 0; i < values.length; i++)
+            signatures[i] = this.minHash(this.tokenizer.tokenize(values[i]));
+        return new PreparedSignatures(this.jaccard, signatures);
+    }
+
+    /**
+     * Calculates the hashed LSH signature of the input string with the seeded MinHash family, e.g., to index the string
+     * or to compare it with many other strings. The signature is calculated in one pass over the string's hashed
+     * tokens if one-permutation hashing is enabled.
+     * @param string The string argument whose signature should be calculated.
+     * @return The hashed signature of the argument.
+     */
+    public long[] signature(final String string) {
+        long[] tokens = this.tokenizer.tokenizeHashed(string);
+        if (this.bagSemantics)
+            numberOccurrences(tokens);
+        return this.minHashFamily.signature(tokens, this.onePermutation);
+    }
+
+    /**
+     * Estimates the similarity of two strings from their hashed signatures. With bag semantics, the signatures
+     * estimate the multiset Jaccard similarity sum(min) / sum(max), which is converted into the bag semantics
+     * sum(min) / (sum(min) + sum(max)) of the Jaccard algorithm.
+     * @param signature1 The hashed signature of the first string.
+     * @param signature2 The hashed signature of the second string.
+     * @return The estimated Jaccard similarity of the two strings.
+     */
+    public double estimate(final long[] signature1, final long[] signature2) {
+        double estimate = this.minHashFamily.estimateJaccard(signature1, signature2);
+        return this.bagSemantics ? estimate / (1 + estimate) : estimate;
+    }
+
+    /**
+     * Estimates the similarity of two strings from their hashed signatures if the estimate can reach the lower bound;
+     * the signature positions are only compared as long as the remaining positions can still lift the estimate to the
+     * lower bound.
+     * @param signature1 The hashed signature of the first string.
+     * @param signature2 The hashed signature of the second string.
+     * @param lowerBound The estimate below which the exact estimate is of no interest.
+     * @return The same estimate as estimate(signature1, signature2) if it is at least the lower bound; otherwise,
+     * either that estimate or BELOW_BOUND.
+     */
+    public double estimate(final long[] signature1, final long[] signature2, final double lowerBound) {
+        // The bag estimate e / (1 + e) reaches the lower bound iff e reaches lowerBound / (1 - lowerBound)
+        double requiredEstimate = lowerBound;
+        if (this.bagSemantics)
+            requiredEstimate = (lowerBound < 1) ? lowerBound / (1 - lowerBound) : Double.POSITIVE_INFINITY;
+        double estimate = this.minHashFamily.estimateJaccard(signature1, signature2, requiredEstimate - ROUNDING_MARGIN);
+        if (estimate == MinHashFamily.BELOW_BOUND)
+            return BELOW_BOUND;
+        return this.bagSemantics ? estimate / (1 + estimate) : estimate;
+    }
+
+    // Calculates the LSH signature of the given tokens; every MinHash function picks the minimum token of its own
+    // order, so the signature positions differ
+    private String[] minHash(final String[] strings) {
+        // The positional MinHash functions need a token position per function; the hashed signatures do not
+        assert(this.tokenizer.getTokenSize() >= this.minHashFunctions.size());
+
+        String[] signature = new String[this.minHashFunctions.size()];
+        for (int i = 0; i < signature.length; i++)
+            signature[i] = this.minHashFunctions.get(i).hash(strings);
+        return signature;
+    }
+
+    // Makes the repeated occurrences of a token distinct, so that the n-th occurrence of a token in one list matches
+    // only the n-th occurrence of the same token in another list; the tokens must be sorted
+    private static void numberOccurrences(long[] tokens) {
+        long previous = 0;
+        int occurrence = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            long token = tokens[i];
+            occurrence = (i > 0 && token == previous) ? occurrence + 1 : 0;
+            previous = token;
+            tokens[i] = token + occurrence * 0x9E3779B97F4A7C15L;
         }
+    }
+
+    // The LSH signatures of prepared values.
+    private static final class PreparedSignatures implements PreparedValues {
 
-        // Calculate LSH Jaccard similarity
-        double lshJaccard = (double) intersection / numHashFunctions;
+        private final Jaccard jaccard;
+        private final String[][] signatures;
 
-        return lshJaccard;
+        private PreparedSignatures(Jaccard jaccard, String[][] signatures) {
+            this.jaccard = jaccard;
+            this.signatures = signatures;
+        }
+
+        @Override
+        public int size() {
+            return this.signatures.length;
+        }
+
+        @Override
+        public double calculate(int index, PreparedValues others, int otherIndex) {
+            return this.jaccard.calculate(this.signatures[index], ((PreparedSignatures) others).signatures[otherIndex]);
+        }
     }
-}
\ No newline at end of file
+}
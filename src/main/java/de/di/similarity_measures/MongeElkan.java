@@ -0,0 +1,100 @@
+package de.di.similarity_measures;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MongeElkan implements SimilarityMeasure {
+
+    // The similarity measure that compares the single words of the two strings
+    private final SimilarityMeasure innerMeasure;
+
+    // The choice of whether the similarities of both directions are averaged, which makes the measure symmetric
+    private final boolean symmetric;
+
+    /**
+     * Calculates the Monge-Elkan similarity of the two input strings.
+     * The strings are split into whitespace-separated words; every word of the first string is matched with its most
+     * similar word of the second string w.r.t. the inner measure, and the similarities of these best matches are
+     * averaged. Words are compared in place if the inner measure is Jaro-Winkler; other inner measures receive them
+     * as strings.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @return The Monge-Elkan similarity of the two arguments; 1 if neither argument contains a word.
+     */
+    @Override
+    public double calculate(final String string1, final String string2) {
+        if (!this.symmetric)
+            return this.directed(string1, string2);
+        return (this.directed(string1, string2) + this.directed(string2, string1)) / 2;
+    }
+
+    /**
+     * Calculates the Monge-Elkan similarity of the two input string lists, whose elements are the words.
+     * @param strings1 The first string list argument for the similarity calculation.
+     * @param strings2 The second string list argument for the similarity calculation.
+     * @return The Monge-Elkan similarity of the two arguments; 1 if both arguments are empty.
+     */
+    @Override
+    public double calculate(final String[] strings1, final String[] strings2) {
+        if (!this.symmetric)
+            return this.directed(strings1, strings2);
+        return (this.directed(strings1, strings2) + this.directed(strings2, strings1)) / 2;
+    }
+
+    private double directed(String string1, String string2) {
+        double sum = 0;
+        int numWords1 = 0;
+        for (int from1 = nextWord(string1, 0); from1 < string1.length(); from1 = nextWord(string1, from1)) {
+            int to1 = wordEnd(string1, from1);
+            double max = 0;
+            for (int from2 = nextWord(string2, 0); from2 < string2.length(); from2 = nextWord(string2, from2)) {
+                int to2 = wordEnd(string2, from2);
+                max = Math.max(max, this.similarity(string1, from1, to1, string2, from2, to2));
+                from2 = to2;
+            }
+            sum += max;
+            numWords1++;
+            from1 = to1;
+        }
+        if (numWords1 == 0)
+            return (nextWord(string2, 0) == string2.length()) ? 1.0 : 0.0;
+        return sum / numWords1;
+    }
+
+    private double directed(String[] strings1, String[] strings2) {
+        if (strings1.length == 0)
+            return (strings2.length == 0) ? 1.0 : 0.0;
+
+        double sum = 0;
+        for (String word1 : strings1) {
+            double max = 0;
+            for (String word2 : strings2)
+                max = Math.max(max, this.innerMeasure.calculate(word1, word2));
+            sum += max;
+        }
+        return sum / strings1.length;
+    }
+
+    private double similarity(String string1, int from1, int to1, String string2, int from2, int to2) {
+        if (this.innerMeasure instanceof JaroWinkler)
+            return ((JaroWinkler) this.innerMeasure).calculate(string1, from1, to1, string2, from2, to2);
+        return this.innerMeasure.calculate(string1.substring(from1, to1), string2.substring(from2, to2));
+    }
+
+    // Returns the index of the first character of the next word at or after the given index; the string length if
+    // there is none
+    private static int nextWord(String string, int index) {
+        while (index < string.length() && Character.isWhitespace(string.charAt(index)))
+            index++;
+        return index;
+    }
+
+    // Returns the index after the last character of the word that starts at the given index
+    private static int wordEnd(String string, int index) {
+        while (index < string.length() && !Character.isWhitespace(string.charAt(index)))
+            index++;
+        return index;
+    }
+}
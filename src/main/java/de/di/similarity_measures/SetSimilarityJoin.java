@@ -0,0 +1,214 @@
+package de.di.similarity_measures;
+
+import de.di.Relation;
+import de.di.similarity_measures.helper.Tokenizer;
+import de.di.similarity_measures.structures.SimilarPair;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The SetSimilarityJoin finds all pairs of values whose set-semantics Jaccard similarity is at least a threshold,
+ * exactly and without comparing all pairs (PPJoin). Every value is tokenized into a token set whose tokens are ordered
+ * by ascending frequency, and the sets are processed by ascending size. Two sets can only reach the threshold if
+ * their prefixes, i.e., their rarest tokens, overlap, so only prefixes are put into an inverted index; candidates
+ * from the index are pruned by their sizes (length filter) and by the overlap that their remaining tokens can still
+ * reach (positional filter) before they are verified by merging their token sets. Empty values are never similar to
+ * any value.
+ */
+public class SetSimilarityJoin {
+
+    // The tokenizer that is used to transform values into token sets.
+    private final Tokenizer tokenizer;
+
+    public SetSimilarityJoin(final Tokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * Finds all pairs of values whose Jaccard similarity with set semantics is at least the threshold.
+     * @param values The values that should be joined.
+     * @param threshold The minimum Jaccard similarity in (0, 1].
+     * @return The similar pairs with their Jaccard similarities, sorted by their indexes; index1 < index2.
+     */
+    public List<SimilarPair> selfJoin(final String[] values, final double threshold) {
+        return this.execute(values, null, threshold);
+    }
+
+    /**
+     * Finds all pairs of a value of the first and a value of the second list whose Jaccard similarity with set
+     * semantics is at least the threshold.
+     * @param values1 The first list of values.
+     * @param values2 The second list of values.
+     * @param threshold The minimum Jaccard similarity in (0, 1].
+     * @return The similar pairs with their Jaccard similarities, sorted by their indexes; index1 refers to values1 and
+     * index2 to values2.
+     */
+    public List<SimilarPair> join(final String[] values1, final String[] values2, final double threshold) {
+        if (values2 == null)
+            throw new IllegalArgumentException("The second list of values must not be null");
+        return this.execute(values1, values2, threshold);
+    }
+
+    /**
+     * Finds all pairs of records whose tokenized values of the given attribute have a Jaccard similarity with set
+     * semantics of at least the threshold.
+     * @param relation The relation whose records should be joined.
+     * @param attribute The index of the attribute whose values should be compared.
+     * @param threshold The minimum Jaccard similarity in (0, 1].
+     * @return The similar record pairs with their Jaccard similarities, sorted by their record indexes.
+     */
+    public List<SimilarPair> selfJoin(final Relation relation, final int attribute, final double threshold) {
+        return this.selfJoin(relation.getColumns()[attribute], threshold);
+    }
+
+    // Joins the values of the first list with each other if the second list is null; otherwise, joins only values of
+    // different lists, whose sets are numbered after the ones of the first list
+    private List<SimilarPair> execute(final String[] values1, final String[] values2, final double threshold) {
+        if (!(threshold > 0 && threshold <= 1))
+            throw new IllegalArgumentException("The threshold must be in (0, 1], but is " + threshold);
+
+        int numValues1 = values1.length;
+        int[][] sets = this.tokenize(values1, values2);
+        int[] order = new int[sets.length];
+        for (int set = 0; set < sets.length; set++)
+            order[set] = set;
+        IntArrays.quickSort(order, (set1, set2) -> Integer.compare(sets[set1].length, sets[set2].length));
+
+        // The inverted index maps every token to the (set << 32 | position) entries of the sets with the token in
+        // their indexed prefix
+        int numTokens = 0;
+        for (int[] set : sets)
+            if (set.length > 0)
+                numTokens = Math.max(numTokens, set[set.length - 1] + 1);
+        LongArrayList[] index = new LongArrayList[numTokens];
+        int[] overlaps = new int[sets.length];
+        IntArrayList candidates = new IntArrayList();
+        List<SimilarPair> pairs = new ArrayList<>();
+
+        for (int x : order) {
+            int[] setX = sets[x];
+            int sizeX = setX.length;
+            if (sizeX == 0)
+                continue;
+
+            // Probe the index with the prefix that any set with an overlap of ceil(threshold * sizeX) must hit
+            int minSize = ceil(threshold * sizeX);
+            int probePrefix = sizeX - minSize + 1;
+            for (int i = 0; i < probePrefix; i++) {
+                LongArrayList entries = index[setX[i]];
+                if (entries == null)
+                    continue;
+                for (int e = 0; e < entries.size(); e++) {
+                    long entry = entries.getLong(e);
+                    int y = (int) (entry >>> 32);
+                    int j = (int) entry;
+                    int sizeY = sets[y].length;
+                    if (sizeY < minSize || overlaps[y] < 0)
+                        continue;
+                    if (values2 != null && (x < numValues1) == (y < numValues1))
+                        continue;
+
+                    if (overlaps[y] == 0)
+                        candidates.add(y);
+                    int requiredOverlap = ceil(threshold / (1 + threshold) * (sizeX + sizeY));
+                    int remainingOverlap = 1 + Math.min(sizeX - i - 1, sizeY - j - 1);
+                    overlaps[y] = (overlaps[y] + remainingOverlap >= requiredOverlap) ? overlaps[y] + 1 : -1;
+                }
+            }
+
+            // Verify the candidates that survived the positional filter
+            for (int c = 0; c < candidates.size(); c++) {
+                int y = candidates.getInt(c);
+                if (overlaps[y] > 0) {
+                    int overlap = overlap(setX, sets[y]);
+                    double similarity = (double) overlap / (sizeX + sets[y].length - overlap);
+                    if (similarity >= threshold) {
+                        if (values2 == null)
+                            pairs.add(new SimilarPair(Math.min(x, y), Math.max(x, y), similarity));
+                        else
+                            pairs.add(new SimilarPair(Math.min(x, y), Math.max(x, y) - numValues1, similarity));
+                    }
+                }
+                overlaps[y] = 0;
+            }
+            candidates.clear();
+
+            // Index the prefix that any larger set with an overlap of ceil(2 * threshold / (1 + threshold) * sizeX)
+            // must hit; all sets processed later are at least as large
+            int indexPrefix = sizeX - ceil(2 * threshold / (1 + threshold) * sizeX) + 1;
+            for (int i = 0; i < indexPrefix; i++) {
+                if (index[setX[i]] == null)
+                    index[setX[i]] = new LongArrayList(2);
+                index[setX[i]].add(((long) x << 32) | i);
+            }
+        }
+        Collections.sort(pairs);
+        return pairs;
+    }
+
+    private int[][] tokenize(final String[] values1, final String[] values2) {
+        int numValues1 = values1.length;
+        int numValues = numValues1 + (values2 == null ? 0 : values2.length);
+
+        // Tokenize all values into distinct hashed tokens and count the sets that contain each token
+        long[][] tokens = new long[numValues][];
+        Long2IntOpenHashMap frequencies = new Long2IntOpenHashMap();
+        for (int set = 0; set < numValues; set++) {
+            String value = (set < numValues1) ? values1[set] : values2[set - numValues1];
+            value = (value == null) ? "" : value;
+            long[] buffer = new long[this.tokenizer.numTokens(value)];
+            tokens[set] = Arrays.copyOf(buffer, this.tokenizer.tokenizeHashed(value, buffer, true));
+            for (long token : tokens[set])
+                frequencies.addTo(token, 1);
+        }
+
+        // Rank the tokens by ascending frequency, so that the prefixes of all sets consist of their rarest tokens
+        long[] distinctTokens = frequencies.keySet().toLongArray();
+        LongArrays.quickSort(distinctTokens, (token1, token2) -> {
+            int comparison = Integer.compare(frequencies.get(token1), frequencies.get(token2));
+            return (comparison != 0) ? comparison : Long.compare(token1, token2);
+        });
+        Long2IntOpenHashMap ranks = new Long2IntOpenHashMap(distinctTokens.length);
+        for (int rank = 0; rank < distinctTokens.length; rank++)
+            ranks.put(distinctTokens[rank], rank);
+
+        int[][] sets = new int[numValues][];
+        for (int set = 0; set < numValues; set++) {
+            sets[set] = new int[tokens[set].length];
+            for (int i = 0; i < tokens[set].length; i++)
+                sets[set][i] = ranks.get(tokens[set][i]);
+            Arrays.sort(sets[set]);
+        }
+        return sets;
+    }
+
+    // Returns the smallest integer that is at least the given product, tolerating rounding errors
+    private static int ceil(final double product) {
+        return (int) Math.ceil(product - SimilarityMeasure.ROUNDING_MARGIN);
+    }
+
+    // Counts the common tokens of two sorted token sets
+    private static int overlap(final int[] set1, final int[] set2) {
+        int overlap = 0;
+        for (int i = 0, j = 0; i < set1.length && j < set2.length; ) {
+            if (set1[i] < set2[j]) {
+                i++;
+            } else if (set1[i] > set2[j]) {
+                j++;
+            } else {
+                overlap++;
+                i++;
+                j++;
+            }
+        }
+        return overlap;
+    }
+}
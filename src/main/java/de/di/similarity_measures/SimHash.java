@@ -0,0 +1,127 @@
+package de.di.similarity_measures;
+
+import de.di.similarity_measures.helper.MinHashFamily;
+import de.di.similarity_measures.helper.Tokenizer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * The SimHash measure compresses every value into a 64-bit fingerprint: each token votes with its 64-bit hash for or
+ * against every bit, weighted by its number of occurrences, and a bit of the fingerprint is set if the votes for it
+ * prevail. Values with similar token multisets get fingerprints that differ in few bits, so the similarity of two
+ * values is estimated by the Hamming distance of their fingerprints, which costs a single popcount regardless of the
+ * lengths of the values.
+ */
+@Getter
+@AllArgsConstructor
+public class SimHash implements SimilarityMeasure {
+
+    // The number of bits of a fingerprint.
+    public static final int NUM_BITS = Long.SIZE;
+
+    // The token buffer of every thread, which is reused by all fingerprints of that thread.
+    private static final ThreadLocal<long[]> TOKEN_BUFFERS = ThreadLocal.withInitial(() -> new long[64]);
+
+    // The votes for every bit of every thread; all 0 between fingerprints.
+    private static final ThreadLocal<int[]> BIT_VOTES = ThreadLocal.withInitial(() -> new int[NUM_BITS]);
+
+    // The tokenizer that is used to transform string inputs into token lists.
+    private final Tokenizer tokenizer;
+
+    /**
+     * Estimates the similarity of the two input strings by the Hamming distance of their fingerprints.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @return 1 - hammingDistance / 64, which is in [0, 1].
+     */
+    @Override
+    public double calculate(final String string1, final String string2) {
+        return similarity(this.fingerprint(string1), this.fingerprint(string2));
+    }
+
+    /**
+     * Estimates the similarity of the two input token lists by the Hamming distance of their fingerprints.
+     * @param strings1 The first string list argument for the similarity calculation.
+     * @param strings2 The second string list argument for the similarity calculation.
+     * @return 1 - hammingDistance / 64, which is in [0, 1].
+     */
+    @Override
+    public double calculate(final String[] strings1, final String[] strings2) {
+        return similarity(this.fingerprint(strings1), this.fingerprint(strings2));
+    }
+
+    /**
+     * Calculates the fingerprint of the input string from the tokens of the tokenizer.
+     * @param string The string argument that should be fingerprinted.
+     * @return The 64-bit fingerprint of the argument; 0 if the argument has no token.
+     */
+    public long fingerprint(final String string) {
+        String value = (string == null) ? "" : string;
+        long[] tokens = TOKEN_BUFFERS.get();
+        int numTokens = this.tokenizer.numTokens(value);
+        if (tokens.length < numTokens) {
+            tokens = new long[Math.max(numTokens, 2 * tokens.length)];
+            TOKEN_BUFFERS.set(tokens);
+        }
+        numTokens = this.tokenizer.tokenizeHashed(value, tokens, false);
+        return fingerprint(tokens, numTokens);
+    }
+
+    /**
+     * Calculates the fingerprint of the input token list.
+     * @param strings The token list argument that should be fingerprinted.
+     * @return The 64-bit fingerprint of the argument; 0 if the argument is empty.
+     */
+    public long fingerprint(final String[] strings) {
+        long[] tokens = new long[strings.length];
+        for (int i = 0; i < strings.length; i++)
+            tokens[i] = MinHashFamily.hash(strings[i]);
+        return fingerprint(tokens, tokens.length);
+    }
+
+    /**
+     * Calculates the fingerprint of a token list, such as the one of Tokenizer.tokenizeHashed(). Every occurrence of
+     * a token votes once.
+     * @param tokens The token list whose first numTokens tokens should be fingerprinted.
+     * @param numTokens The number of tokens at the front of tokens that belong to the list.
+     * @return The 64-bit fingerprint of the token list; 0 if the list is empty.
+     */
+    public static long fingerprint(final long[] tokens, final int numTokens) {
+        int[] votes = BIT_VOTES.get();
+        for (int i = 0; i < numTokens; i++) {
+            // Packed tokens are not uniformly distributed, so they are mixed before they vote
+            long hash = MinHashFamily.mix(tokens[i]);
+            for (int bit = 0; bit < NUM_BITS; bit++)
+                votes[bit] += (int) ((hash >>> bit) & 1) * 2 - 1;
+        }
+
+        long fingerprint = 0;
+        for (int bit = 0; bit < NUM_BITS; bit++)
+            if (votes[bit] > 0)
+                fingerprint |= 1L << bit;
+        Arrays.fill(votes, 0);
+        return fingerprint;
+    }
+
+    /**
+     * Calculates the number of bits in which the two fingerprints differ.
+     * @param fingerprint1 The first fingerprint.
+     * @param fingerprint2 The second fingerprint.
+     * @return The Hamming distance of the fingerprints in [0, 64].
+     */
+    public static int hammingDistance(final long fingerprint1, final long fingerprint2) {
+        return Long.bitCount(fingerprint1 ^ fingerprint2);
+    }
+
+    /**
+     * Calculates the similarity of two fingerprints from their Hamming distance.
+     * @param fingerprint1 The first fingerprint.
+     * @param fingerprint2 The second fingerprint.
+     * @return 1 - hammingDistance / 64, which is in [0, 1].
+     */
+    public static double similarity(final long fingerprint1, final long fingerprint2) {
+        return 1.0 - (double) hammingDistance(fingerprint1, fingerprint2) / NUM_BITS;
+    }
+}
@@ -0,0 +1,187 @@
+package de.di.similarity_measures;
+
+import de.di.Relation;
+import de.di.similarity_measures.helper.Tokenizer;
+import de.di.similarity_measures.structures.SimilarPair;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The SimHashIndex finds all SimHash fingerprints within a maximum Hamming distance k of each other without comparing
+ * all pairs. The 64 bits are split into k + 1 disjoint blocks; two fingerprints that differ in at most k bits agree
+ * on at least one block by the pigeonhole principle. The index therefore keeps one table per block, which groups the
+ * fingerprints by their bits in that block, as if the fingerprints were permuted to start with the block; only
+ * fingerprints in the same group of some table are compared, with a popcount. Small k gives wide blocks and small
+ * groups. The index is not thread-safe.
+ */
+public class SimHashIndex {
+
+    // The measure that fingerprints string values
+    @Getter
+    private final SimHash simHash;
+
+    // The maximum Hamming distance of fingerprints that are reported as similar
+    @Getter
+    private final int maxDistance;
+
+    // The bit mask of every block.
+    private final long[] blockMasks;
+
+    // The fingerprints of all added values by their index.
+    private final LongArrayList fingerprints = new LongArrayList();
+
+    // The table of every block, which maps the bits of a block to the indexes of the fingerprints with these bits.
+    private final List<Long2ObjectOpenHashMap<IntArrayList>> tables;
+
+    public SimHashIndex(final SimHash simHash, final int maxDistance) {
+        if (maxDistance < 0 || maxDistance >= SimHash.NUM_BITS)
+            throw new IllegalArgumentException("The maximum Hamming distance must be in [0, " + (SimHash.NUM_BITS - 1) + "], but is " + maxDistance);
+        this.simHash = simHash;
+        this.maxDistance = maxDistance;
+
+        int numBlocks = maxDistance + 1;
+        this.blockMasks = new long[numBlocks];
+        this.tables = new ArrayList<>(numBlocks);
+        for (int block = 0, from = 0; block < numBlocks; block++) {
+            int to = (block + 1) * SimHash.NUM_BITS / numBlocks;
+            this.blockMasks[block] = (to - from == Long.SIZE) ? -1L : ((1L << (to - from)) - 1) << from;
+            this.tables.add(new Long2ObjectOpenHashMap<>());
+            from = to;
+        }
+    }
+
+    /**
+     * Adds the given fingerprint to the index.
+     * @param fingerprint The fingerprint, e.g., from SimHash.fingerprint().
+     * @return The index of the fingerprint, which is the number of fingerprints added before it.
+     */
+    public int add(final long fingerprint) {
+        int index = this.fingerprints.size();
+        this.fingerprints.add(fingerprint);
+        for (int block = 0; block < this.blockMasks.length; block++)
+            this.tables.get(block).computeIfAbsent(fingerprint & this.blockMasks[block], key -> new IntArrayList(2)).add(index);
+        return index;
+    }
+
+    /**
+     * Fingerprints the given value and adds it to the index.
+     * @param value The value that should be added.
+     * @return The index of the value's fingerprint.
+     */
+    public int add(final String value) {
+        return this.add(this.simHash.fingerprint(value));
+    }
+
+    /**
+     * Adds the values of the given attribute to the index, so that the fingerprint indexes are the record indexes if
+     * the index was empty.
+     * @param relation The relation whose records should be added.
+     * @param attribute The index of the attribute whose values should be added.
+     */
+    public void addAll(final Relation relation, final int attribute) {
+        for (String[] record : relation.getRecords())
+            this.add(record[attribute]);
+    }
+
+    /**
+     * Returns the number of fingerprints in this index.
+     * @return The number of fingerprints in this index.
+     */
+    public int size() {
+        return this.fingerprints.size();
+    }
+
+    /**
+     * Returns the fingerprint with the given index.
+     * @param index The index of the fingerprint.
+     * @return The fingerprint with the given index.
+     */
+    public long getFingerprint(final int index) {
+        return this.fingerprints.getLong(index);
+    }
+
+    /**
+     * Finds all fingerprints of the index within the maximum Hamming distance of the given fingerprint.
+     * @param fingerprint The query fingerprint.
+     * @return The indexes of all similar fingerprints in ascending order.
+     */
+    public int[] query(final long fingerprint) {
+        IntArrayList similar = new IntArrayList();
+        for (int block = 0; block < this.blockMasks.length; block++) {
+            IntArrayList group = this.tables.get(block).get(fingerprint & this.blockMasks[block]);
+            if (group == null)
+                continue;
+            for (int i = 0; i < group.size(); i++) {
+                long other = this.fingerprints.getLong(group.getInt(i));
+                if (this.isFirstCommonBlock(fingerprint, other, block) && SimHash.hammingDistance(fingerprint, other) <= this.maxDistance)
+                    similar.add(group.getInt(i));
+            }
+        }
+        int[] indexes = similar.toIntArray();
+        Arrays.sort(indexes);
+        return indexes;
+    }
+
+    /**
+     * Finds all fingerprints of the index within the maximum Hamming distance of the given value's fingerprint.
+     * @param value The query value.
+     * @return The indexes of all similar fingerprints in ascending order.
+     */
+    public int[] query(final String value) {
+        return this.query(this.simHash.fingerprint(value));
+    }
+
+    /**
+     * Finds all pairs of fingerprints in the index within the maximum Hamming distance of each other.
+     * @return The similar pairs with their SimHash similarities, sorted by their indexes.
+     */
+    public List<SimilarPair> selfJoin() {
+        List<SimilarPair> pairs = new ArrayList<>();
+        for (int block = 0; block < this.blockMasks.length; block++) {
+            for (IntArrayList group : this.tables.get(block).values()) {
+                for (int i = 0; i < group.size(); i++) {
+                    long fingerprint1 = this.fingerprints.getLong(group.getInt(i));
+                    for (int j = i + 1; j < group.size(); j++) {
+                        long fingerprint2 = this.fingerprints.getLong(group.getInt(j));
+                        if (this.isFirstCommonBlock(fingerprint1, fingerprint2, block) && SimHash.hammingDistance(fingerprint1, fingerprint2) <= this.maxDistance)
+                            pairs.add(new SimilarPair(group.getInt(i), group.getInt(j), SimHash.similarity(fingerprint1, fingerprint2)));
+                    }
+                }
+            }
+        }
+        Collections.sort(pairs);
+        return pairs;
+    }
+
+    /**
+     * Finds all pairs of records whose values of the given attribute have fingerprints within the maximum Hamming
+     * distance of each other.
+     * @param relation The relation whose records should be joined.
+     * @param attribute The index of the attribute whose values should be compared.
+     * @param tokenizer The tokenizer that splits the values into tokens.
+     * @param maxDistance The maximum Hamming distance of similar fingerprints.
+     * @return The similar record pairs with their SimHash similarities, sorted by their record indexes.
+     */
+    public static List<SimilarPair> selfJoin(final Relation relation, final int attribute, final Tokenizer tokenizer, final int maxDistance) {
+        SimHashIndex index = new SimHashIndex(new SimHash(tokenizer), maxDistance);
+        index.addAll(relation, attribute);
+        return index.selfJoin();
+    }
+
+    // Checks whether the block is the first one on which both fingerprints agree, so that every pair is compared in
+    // only one table
+    private boolean isFirstCommonBlock(final long fingerprint1, final long fingerprint2, final int block) {
+        long difference = fingerprint1 ^ fingerprint2;
+        for (int earlierBlock = 0; earlierBlock < block; earlierBlock++)
+            if ((difference & this.blockMasks[earlierBlock]) == 0)
+                return false;
+        return true;
+    }
+}
@@ -1,8 +1,67 @@
 package de.di.similarity_measures;
 
+import de.di.similarity_measures.structures.PreparedStrings;
+import de.di.similarity_measures.structures.PreparedValues;
+
 public interface SimilarityMeasure {
 
+    // The result of bounded calculations whose similarity was proven to be below the lower bound.
+    double BELOW_BOUND = Double.NEGATIVE_INFINITY;
+
+    // The margin by which lower bounds are relaxed before a calculation is stopped, so that rounding errors never
+    // reject a similarity at the lower bound.
+    double ROUNDING_MARGIN = 1e-9;
+
     double calculate(final String string1, final String string2);
 
     double calculate(final String[] strings1, final String[] strings2);
+
+    /**
+     * Calculates the similarity of the two input strings if it can reach the lower bound. Measures may stop as soon as
+     * they can prove that the similarity is below the bound, e.g., from the lengths of the strings, which makes
+     * threshold decisions much cheaper than exact similarities. Measures without such proofs calculate the exact
+     * similarity.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @param lowerBound The similarity below which the exact similarity is of no interest.
+     * @return The same similarity as calculate(string1, string2) if it is at least the lower bound; otherwise, either
+     * that similarity or BELOW_BOUND.
+     */
+    default double calculate(final String string1, final String string2, final double lowerBound) {
+        return this.calculate(string1, string2);
+    }
+
+    /**
+     * Preprocesses the given values into the form that this measure compares, so that the values can be compared
+     * one-to-many and many-to-many without preprocessing them for every pair again. Measures without preprocessing
+     * keep the values as they are.
+     * @param values The values that should be prepared.
+     * @return The prepared values, whose similarities equal the pairwise calculate() results of the values.
+     */
+    default PreparedValues prepare(final String[] values) {
+        return new PreparedStrings(this, values);
+    }
+
+    /**
+     * Calculates the similarities of the value with every value of the list.
+     * @param string The value that should be compared.
+     * @param strings The values that the value should be compared with.
+     * @return The similarities of the value with every value of the list.
+     */
+    default double[] calculate(final String string, final String[] strings) {
+        return this.prepare(new String[]{string}).calculate(0, this.prepare(strings));
+    }
+
+    /**
+     * Calculates the similarities of all values of the first list with all values of the second list.
+     * @param strings1 The first list of values, which determines the first dimension of the result.
+     * @param strings2 The second list of values, which determines the second dimension of the result.
+     * @param parallel The choice of whether the rows of the result should be calculated in parallel.
+     * @return The #strings1 x #strings2 sized similarity block.
+     */
+    default double[][] calculate(final String[] strings1, final String[] strings2, final boolean parallel) {
+        PreparedValues prepared1 = this.prepare(strings1);
+        PreparedValues prepared2 = (strings1 == strings2) ? prepared1 : this.prepare(strings2);
+        return prepared1.calculate(prepared2, parallel);
+    }
 }
@@ -0,0 +1,324 @@
+package de.di.similarity_measures;
+
+import de.di.Relation;
+import de.di.similarity_measures.helper.TokenDictionary;
+import de.di.similarity_measures.helper.Tokenizer;
+import de.di.similarity_measures.structures.PreparedValues;
+import de.di.similarity_measures.structures.SparseVector;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * The TfIdfCosine measure compares values by the cosine of their token weight vectors, where every token is weighted
+ * by its frequency in the value and its inverse document frequency in a corpus, so that rare tokens count more than
+ * common ones. The measure is fitted once over a corpus, e.g., a column of a relation: the document frequencies and
+ * the weight vectors of all corpus values are calculated upfront and stored as unit-length sparse vectors, which makes
+ * every comparison of corpus values a single merge of two sorted id arrays. Weights are either classic TF-IDF or
+ * BM25, which saturates the term frequencies and normalizes them by the value lengths. Tokens that do not occur in
+ * the corpus are weighted as if their document frequency was 0; they get temporary ids that only live for one
+ * calculation or one list of prepared values, so the fitted state never changes and the measure is thread-safe.
+ */
+public class TfIdfCosine implements SimilarityMeasure {
+
+    // The BM25 parameter that controls how quickly the weight of a repeated token saturates
+    private static final double K1 = 1.2;
+
+    // The BM25 parameter that controls how strongly weights are normalized by the value length
+    private static final double B = 0.75;
+
+    // The tokenizer that is used to transform string inputs into token lists.
+    @Getter
+    private final Tokenizer tokenizer;
+
+    // The choice of whether tokens are weighted with BM25 instead of TF-IDF
+    @Getter
+    private final boolean bm25;
+
+    // The ids of all corpus tokens; the dictionary is only read after fitting.
+    @Getter(AccessLevel.PACKAGE)
+    private final TokenDictionary dictionary = new TokenDictionary();
+
+    // The inverse document frequency of every token of the corpus by its id.
+    private final float[] idfs;
+
+    // The inverse document frequency of tokens that do not occur in the corpus.
+    private final float unseenIdf;
+
+    // The average number of tokens of the corpus values.
+    private final double averageLength;
+
+    // The unit-length weight vectors of all corpus values in corpus order.
+    private final SparseVector[] vectors;
+
+    public TfIdfCosine(final Tokenizer tokenizer, final boolean bm25, final String[] corpus) {
+        this.tokenizer = tokenizer;
+        this.bm25 = bm25;
+
+        int[][] tokenIds = new int[corpus.length][];
+        long numTokens = 0;
+        for (int value = 0; value < corpus.length; value++) {
+            tokenIds[value] = this.dictionary.encode(this.tokenize(corpus[value]));
+            numTokens += tokenIds[value].length;
+        }
+        this.averageLength = (corpus.length == 0 || numTokens == 0) ? 1 : (double) numTokens / corpus.length;
+
+        this.idfs = new float[this.dictionary.size()];
+        for (int id = 0; id < this.idfs.length; id++)
+            this.idfs[id] = this.idf(this.dictionary.frequency(id), corpus.length);
+        this.unseenIdf = this.idf(0, corpus.length);
+
+        this.vectors = new SparseVector[corpus.length];
+        for (int value = 0; value < corpus.length; value++)
+            this.vectors[value] = this.vectorize(tokenIds[value]);
+    }
+
+    /**
+     * Fits a TF-IDF cosine measure over the values of the given attribute.
+     * @param relation The relation whose values form the corpus.
+     * @param attribute The index of the attribute whose values form the corpus.
+     * @param tokenizer The tokenizer that splits the values into tokens.
+     * @param bm25 The choice of whether tokens should be weighted with BM25 instead of TF-IDF.
+     * @return The fitted measure, whose corpus values are the attribute's values in record order.
+     */
+    public static TfIdfCosine fit(final Relation relation, final int attribute, final Tokenizer tokenizer, final boolean bm25) {
+        return new TfIdfCosine(tokenizer, bm25, relation.getColumns()[attribute]);
+    }
+
+    /**
+     * Calculates the cosine similarity of the two input strings' token weight vectors.
+     * @param string1 The first string argument for the similarity calculation.
+     * @param string2 The second string argument for the similarity calculation.
+     * @return The cosine similarity of the two arguments in [0, 1]; 1 if neither argument has a token.
+     */
+    @Override
+    public double calculate(final String string1, final String string2) {
+        UnseenTokens unseenTokens = new UnseenTokens(this.idfs.length);
+        return cosine(this.vectorize(this.tokenize(string1), unseenTokens), this.vectorize(this.tokenize(string2), unseenTokens));
+    }
+
+    /**
+     * Calculates the cosine similarity of the two input token lists' weight vectors.
+     * @param strings1 The first token list argument for the similarity calculation.
+     * @param strings2 The second token list argument for the similarity calculation.
+     * @return The cosine similarity of the two arguments in [0, 1]; 1 if both arguments are empty.
+     */
+    @Override
+    public double calculate(final String[] strings1, final String[] strings2) {
+        UnseenTokens unseenTokens = new UnseenTokens(this.idfs.length);
+        return cosine(this.vectorize(strings1, unseenTokens), this.vectorize(strings2, unseenTokens));
+    }
+
+    /**
+     * Calculates the cosine similarity of two corpus values with their precomputed weight vectors.
+     * @param index1 The index of the first value in the corpus.
+     * @param index2 The index of the second value in the corpus.
+     * @return The cosine similarity of the two corpus values in [0, 1]; 1 if neither value has a token.
+     */
+    public double calculate(final int index1, final int index2) {
+        return cosine(this.vectors[index1], this.vectors[index2]);
+    }
+
+    @Override
+    public PreparedValues prepare(final String[] values) {
+        UnseenTokens unseenTokens = new UnseenTokens(this.idfs.length);
+        SparseVector[] valueVectors = new SparseVector[values.length];
+        for (int i = 0; i < values.length; i++)
+            valueVectors[i] = this.vectorize(this.tokenize(values[i]), unseenTokens);
+        return new PreparedVectors(valueVectors, unseenTokens);
+    }
+
+    /**
+     * Returns the precomputed weight vector of a corpus value.
+     * @param index The index of the value in the corpus.
+     * @return The unit-length weight vector of the value.
+     */
+    public SparseVector getVector(final int index) {
+        return this.vectors[index];
+    }
+
+    /**
+     * Returns the number of values that this measure was fitted over.
+     * @return The number of corpus values.
+     */
+    public int size() {
+        return this.vectors.length;
+    }
+
+    /**
+     * Calculates the unit-length weight vector of the input string. Tokens that do not occur in the corpus count for
+     * the length of the vector but get no dimension, so that vectors of different calls are comparable.
+     * @param string The string argument that should be vectorized.
+     * @return The weight vector of the argument; an empty vector if the argument has no corpus token.
+     */
+    public SparseVector vectorize(final String string) {
+        return this.vectorize(this.tokenize(string));
+    }
+
+    /**
+     * Calculates the unit-length weight vector of the input token list. Tokens that do not occur in the corpus count
+     * for the length of the vector but get no dimension, so that vectors of different calls are comparable.
+     * @param tokens The token list argument that should be vectorized.
+     * @return The weight vector of the argument; an empty vector if the argument has no corpus token.
+     */
+    public SparseVector vectorize(final String[] tokens) {
+        SparseVector vector = this.vectorize(tokens, new UnseenTokens(this.idfs.length));
+        // The ids are sorted, so the temporary ids of the unseen tokens are at the end
+        int numCorpusIds = 0;
+        while (numCorpusIds < vector.size() && vector.getIds()[numCorpusIds] < this.idfs.length)
+            numCorpusIds++;
+        if (numCorpusIds == vector.size())
+            return vector;
+        return new SparseVector(Arrays.copyOf(vector.getIds(), numCorpusIds), Arrays.copyOf(vector.getWeights(), numCorpusIds));
+    }
+
+    // Vectorizes the token list with the temporary ids of its unseen tokens
+    private SparseVector vectorize(final String[] tokens, final UnseenTokens unseenTokens) {
+        int[] tokenIds = this.dictionary.lookup(tokens);
+        for (int i = 0; i < tokenIds.length; i++)
+            if (tokenIds[i] < 0)
+                tokenIds[i] = unseenTokens.idOf(tokens[i]);
+        return this.vectorize(tokenIds);
+    }
+
+    private String[] tokenize(final String string) {
+        return this.tokenizer.tokenize(string == null ? "" : string);
+    }
+
+    // Weights the distinct ids of the token id list by their term and document frequencies and normalizes the weights
+    private SparseVector vectorize(final int[] tokenIds) {
+        int[] sortedIds = tokenIds.clone();
+        Arrays.sort(sortedIds);
+
+        int numDistinct = 0;
+        int[] ids = new int[sortedIds.length];
+        float[] weights = new float[sortedIds.length];
+        double norm = 0;
+        for (int from = 0, to; from < sortedIds.length; from = to) {
+            to = from + 1;
+            while (to < sortedIds.length && sortedIds[to] == sortedIds[from])
+                to++;
+            double weight = this.weight(to - from, sortedIds.length, sortedIds[from]);
+            ids[numDistinct] = sortedIds[from];
+            weights[numDistinct] = (float) weight;
+            norm += weight * weight;
+            numDistinct++;
+        }
+
+        norm = Math.sqrt(norm);
+        for (int i = 0; i < numDistinct; i++)
+            weights[i] = (float) (weights[i] / norm);
+        return new SparseVector(Arrays.copyOf(ids, numDistinct), Arrays.copyOf(weights, numDistinct));
+    }
+
+    // Weights a token that occurs termFrequency times in a value of the given length
+    private double weight(final int termFrequency, final int length, final int id) {
+        double idf = (id < this.idfs.length) ? this.idfs[id] : this.unseenIdf;
+        if (!this.bm25)
+            return termFrequency * idf;
+        double lengthNorm = 1 - B + B * length / this.averageLength;
+        return termFrequency * (K1 + 1) / (termFrequency + K1 * lengthNorm) * idf;
+    }
+
+    // Calculates the inverse document frequency of a token in a corpus of the given size; always positive
+    private float idf(final int documentFrequency, final int numDocuments) {
+        if (this.bm25)
+            return (float) Math.log(1 + (numDocuments - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        return (float) (Math.log((1.0 + numDocuments) / (1.0 + documentFrequency)) + 1);
+    }
+
+    private static double cosine(final SparseVector vector1, final SparseVector vector2) {
+        return cosine(vector1, vector2, vector1.dot(vector2));
+    }
+
+    private static double cosine(final SparseVector vector1, final SparseVector vector2, final double dotProduct) {
+        if (vector1.size() == 0 || vector2.size() == 0)
+            return (vector1.size() == vector2.size()) ? 1.0 : 0.0;
+        // The float weights can push the dot product of equal vectors slightly above 1
+        return Math.min(1.0, dotProduct);
+    }
+
+    // The temporary ids of the tokens that do not occur in the corpus, which are valid for the vectors of one
+    // calculation or one list of prepared values; the ids start after the ids of the corpus tokens.
+    private static final class UnseenTokens {
+
+        private final int firstId;
+        private final Object2IntOpenHashMap<String> ids = new Object2IntOpenHashMap<>();
+        private final ObjectArrayList<String> tokens = new ObjectArrayList<>();
+
+        private UnseenTokens(int firstId) {
+            this.firstId = firstId;
+            this.ids.defaultReturnValue(-1);
+        }
+
+        private int idOf(String token) {
+            int id = this.ids.getInt(token);
+            if (id < 0) {
+                id = this.firstId + this.tokens.size();
+                this.ids.put(token, id);
+                this.tokens.add(token);
+            }
+            return id;
+        }
+    }
+
+    // The weight vectors of prepared values.
+    private static final class PreparedVectors implements PreparedValues {
+
+        private final SparseVector[] vectors;
+        private final UnseenTokens unseenTokens;
+
+        private PreparedVectors(SparseVector[] vectors, UnseenTokens unseenTokens) {
+            this.vectors = vectors;
+            this.unseenTokens = unseenTokens;
+        }
+
+        @Override
+        public int size() {
+            return this.vectors.length;
+        }
+
+        @Override
+        public double calculate(int index, PreparedValues others, int otherIndex) {
+            PreparedVectors otherVectors = (PreparedVectors) others;
+            SparseVector vector1 = this.vectors[index];
+            SparseVector vector2 = otherVectors.vectors[otherIndex];
+            if (this.unseenTokens == otherVectors.unseenTokens)
+                return cosine(vector1, vector2);
+            return cosine(vector1, vector2, this.dot(vector1, otherVectors, vector2));
+        }
+
+        // Calculates the dot product of vectors of different lists, whose unseen tokens have different temporary ids:
+        // corpus ids are merged, unseen tokens are matched by their tokens
+        private double dot(SparseVector vector1, PreparedVectors others, SparseVector vector2) {
+            int firstUnseenId = this.unseenTokens.firstId;
+            int[] ids1 = vector1.getIds();
+            int[] ids2 = vector2.getIds();
+            double product = 0;
+            int i = 0, j = 0;
+            while (i < ids1.length && j < ids2.length && ids1[i] < firstUnseenId && ids2[j] < firstUnseenId) {
+                if (ids1[i] < ids2[j]) {
+                    i++;
+                } else if (ids1[i] > ids2[j]) {
+                    j++;
+                } else {
+                    product += (double) vector1.getWeights()[i] * vector2.getWeights()[j];
+                    i++;
+                    j++;
+                }
+            }
+            for (; i < ids1.length; i++) {
+                if (ids1[i] < firstUnseenId)
+                    continue;
+                int otherId = others.unseenTokens.ids.getInt(this.unseenTokens.tokens.get(ids1[i] - firstUnseenId));
+                int position = (otherId < 0) ? -1 : Arrays.binarySearch(ids2, otherId);
+                if (position >= 0)
+                    product += (double) vector1.getWeights()[i] * vector2.getWeights()[position];
+            }
+            return product;
+        }
+    }
+}
@@ -1,5 +1,4 @@
 package de.di.similarity_measures.helper;
-import java.util.Random;
 
 import java.util.Comparator;
 import java.util.stream.Stream;
@@ -9,8 +8,12 @@ public class MinHash {
     // The comparator for the MinHashing; the comparator defines the sortation for this token-based minhash function
     private final Comparator<String> comparator;
 
+    // The seed of the hash function that compute() uses; every sortByPosition yields a different function
+    private final long seed;
+
     public MinHash(int sortByPosition) {
         this.comparator = this.createComparatorFor(sortByPosition);
+        this.seed = MinHashFamily.mix(sortByPosition + 1);
     }
 
     public String hash(final String[] strings) {
@@ -42,20 +45,19 @@ public class MinHash {
     }
 
 
+    /**
+     * Calculates the minimum value of this instance's seeded hash function over the given tokens.
+     * @param tokens The tokens that should be hashed.
+     * @return The minimum hash value of the tokens; Integer.MAX_VALUE if there are no tokens.
+     */
     public int compute(String[] tokens) {
         int minHashValue = Integer.MAX_VALUE;
-        for (String token : tokens) {
-            int seed = 0;
-            int hashValue = hash(token, seed);
-            if (hashValue < minHashValue) {
-                minHashValue = hashValue;
-            }
-        }
+        for (String token : tokens)
+            minHashValue = Math.min(minHashValue, this.hash(token));
         return minHashValue;
     }
 
-    private int hash(String token, int seed) {
-        Random random = new Random(token.hashCode() ^ seed);
-        return random.nextInt();
+    private int hash(String token) {
+        return (int) (MinHashFamily.mix(MinHashFamily.hash(token) ^ this.seed) >>> 32);
     }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package de.di.similarity_measures.helper;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A MinHashFamily is a fixed set of seeded hash functions over 64 bit tokens, such as the tokens of
+ * Tokenizer.tokenizeHashed() or the ids of a TokenDictionary. The signature of a token set holds, for every function,
+ * the minimum hash value over the set's tokens, so that the probability of two signatures agreeing at a position equals
+ * the Jaccard similarity of the two sets. Signatures are calculated without allocations, either with one pass per hash
+ * function or, with one-permutation hashing, with a single pass that distributes the tokens over the signature
+ * positions and densifies the empty positions afterwards. Signatures of the same family are comparable across calls
+ * and threads, as the family only depends on its size and seed.
+ */
+public class MinHashFamily {
+
+    // The value of signature positions that no token has been hashed to.
+    public static final long EMPTY = Long.MAX_VALUE;
+
+    // The bit that marks densified positions during one-permutation hashing, whose values are all non-negative.
+    private static final long DENSIFIED = Long.MIN_VALUE;
+
+    // The number of signature positions that a bounded estimation compares between two checks of its bound.
+    private static final int BOUND_CHECK_INTERVAL = 32;
+
+    // The result of bounded estimations that were stopped below their lower bound; no estimate is negative.
+    public static final double BELOW_BOUND = -1;
+
+    // The number of hash functions, i.e., the width of every signature
+    @Getter
+    private final int numHashFunctions;
+
+    // The seed of every hash function.
+    private final long[] seeds;
+
+    public MinHashFamily(final int numHashFunctions, final long seed) {
+        this.numHashFunctions = numHashFunctions;
+        this.seeds = new long[numHashFunctions];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < numHashFunctions; i++)
+            this.seeds[i] = random.nextLong();
+    }
+
+    /**
+     * Calculates the signature of the given tokens with one pass per hash function.
+     * @param tokens The tokens of the set; duplicates do not change the signature.
+     * @param numTokens The number of tokens at the front of the token array that belong to the set.
+     * @param signature The array that receives the signature; it must hold numHashFunctions values.
+     */
+    public void signature(final long[] tokens, final int numTokens, final long[] signature) {
+        for (int function = 0; function < this.numHashFunctions; function++) {
+            long seed = this.seeds[function];
+            long min = EMPTY;
+            for (int i = 0; i < numTokens; i++)
+                min = Math.min(min, mix(tokens[i] ^ seed));
+            signature[function] = min;
+        }
+    }
+
+    /**
+     * Calculates the signature of the given tokens with one-permutation hashing: every token is hashed only once, the
+     * hash selects the signature position and the minimum per position is kept. Positions that received no token are
+     * filled with the value of another position chosen by a fixed probe sequence (optimal densification), so that
+     * the signatures of non-empty sets can be compared position by position like regular MinHash signatures.
+     * @param tokens The tokens of the set; duplicates do not change the signature.
+     * @param numTokens The number of tokens at the front of the token array that belong to the set.
+     * @param signature The array that receives the signature; it must hold numHashFunctions values.
+     */
+    public void signatureOnePermutation(final long[] tokens, final int numTokens, final long[] signature) {
+        Arrays.fill(signature, 0, this.numHashFunctions, EMPTY);
+        long seed = this.seeds[0];
+        for (int i = 0; i < numTokens; i++) {
+            long hash = mix(tokens[i] ^ seed);
+            int position = (int) (((hash >>> 32) * this.numHashFunctions) >>> 32);
+            signature[position] = Math.min(signature[position], hash >>> 1);
+        }
+        if (numTokens == 0)
+            return;
+
+        // The probe sequence of a position only depends on the position and the attempt, so equal sets always copy
+        // from the same positions; copied values are taken from positions that were filled by tokens
+        for (int position = 0; position < this.numHashFunctions; position++) {
+            if (signature[position] != EMPTY)
+                continue;
+            for (int attempt = 1; ; attempt++) {
+                int source = (int) (((mix(position * 0x9E3779B97F4A7C15L + attempt) >>> 32) * this.numHashFunctions) >>> 32);
+                if (signature[source] != EMPTY && signature[source] >= 0) {
+                    signature[position] = signature[source] | DENSIFIED;
+                    break;
+                }
+            }
+        }
+        for (int position = 0; position < this.numHashFunctions; position++)
+            signature[position] &= ~DENSIFIED;
+    }
+
+    /**
+     * Calculates the signature of the given tokens into a new array, using one-permutation hashing if requested.
+     * @param tokens The tokens of the set; duplicates do not change the signature.
+     * @param onePermutation The choice of whether one-permutation hashing should be used.
+     * @return The signature of the tokens.
+     */
+    public long[] signature(final long[] tokens, final boolean onePermutation) {
+        long[] signature = new long[this.numHashFunctions];
+        if (onePermutation)
+            this.signatureOnePermutation(tokens, tokens.length, signature);
+        else
+            this.signature(tokens, tokens.length, signature);
+        return signature;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of two sets from their signatures as the fraction of agreeing positions.
+     * @param signature1 The signature of the first set.
+     * @param signature2 The signature of the second set.
+     * @return The estimated Jaccard similarity in [0, 1].
+     */
+    public double estimateJaccard(final long[] signature1, final long[] signature2) {
+        int agreements = SimilarityKernels.get().countEqual(signature1, signature2, this.numHashFunctions);
+        return (double) agreements / this.numHashFunctions;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of two sets from their signatures if the estimate can reach the lower bound.
+     * The positions are compared in chunks, and the comparison stops as soon as the agreements so far plus all
+     * remaining positions cannot reach the lower bound anymore. The bound is taken as is, so callers that must not
+     * lose estimates at the bound to rounding errors relax it first.
+     * @param signature1 The signature of the first set.
+     * @param signature2 The signature of the second set.
+     * @param lowerBound The estimate below which the exact estimate is of no interest.
+     * @return The same estimate as estimateJaccard(signature1, signature2) if it is at least the lower bound;
+     * otherwise, either that estimate or BELOW_BOUND.
+     */
+    public double estimateJaccard(final long[] signature1, final long[] signature2, final double lowerBound) {
+        SimilarityKernels kernels = SimilarityKernels.get();
+        double requiredAgreements = lowerBound * this.numHashFunctions;
+        int agreements = 0;
+        for (int from = 0; from < this.numHashFunctions; from += BOUND_CHECK_INTERVAL) {
+            if (agreements + (this.numHashFunctions - from) < requiredAgreements)
+                return BELOW_BOUND;
+            agreements += kernels.countEqual(signature1, signature2, from, Math.min(this.numHashFunctions, from + BOUND_CHECK_INTERVAL));
+        }
+        return (double) agreements / this.numHashFunctions;
+    }
+
+    /**
+     * Hashes a string token to a 64 bit token, so that string tokens can be signed like hashed tokens.
+     * @param token The string token.
+     * @return The 64 bit token of the string.
+     */
+    public static long hash(final String token) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < token.length(); i++)
+            hash = (hash ^ token.charAt(i)) * 0x100000001B3L;
+        return mix(hash);
+    }
+
+    /**
+     * Mixes the bits of the given value with the MurmurHash3 finalizer, which is a bijection on 64 bit values.
+     * @param value The value that should be mixed.
+     * @return The mixed value.
+     */
+    public static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,101 @@
+package de.di.similarity_measures.helper;
+
+/**
+ * The SimilarityKernels are the innermost loops of the token- and signature-based similarity measures. This class
+ * implements them with scalar code that runs on every Java version. On Java 17 and newer runtimes that resolve the
+ * jdk.incubator.vector module (--add-modules jdk.incubator.vector), get() returns the SIMD implementation of the
+ * kernels instead, which the multi-release jar ships in META-INF/versions/17. Both implementations return exactly the
+ * same results.
+ */
+public class SimilarityKernels {
+
+    // The name of the SIMD implementation, which only exists in the Java 17 part of the multi-release jar.
+    private static final String VECTORIZED_KERNELS = "de.di.similarity_measures.helper.VectorizedKernels";
+
+    // The kernels that the measures of this runtime use.
+    private static final SimilarityKernels KERNELS = load();
+
+    /**
+     * Returns the fastest kernels that this runtime supports.
+     * @return The SIMD kernels if the Vector API is available; otherwise the scalar kernels.
+     */
+    public static SimilarityKernels get() {
+        return KERNELS;
+    }
+
+    /**
+     * Tells whether these kernels use SIMD instructions.
+     * @return True for the SIMD kernels, false for the scalar kernels.
+     */
+    public boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * Counts the common tokens of two strictly increasing token lists, such as the distinct lists of
+     * Tokenizer.tokenizeHashed().
+     * @param tokens1 The first strictly increasing token list.
+     * @param numTokens1 The number of tokens at the front of tokens1 that belong to the list.
+     * @param tokens2 The second strictly increasing token list.
+     * @param numTokens2 The number of tokens at the front of tokens2 that belong to the list.
+     * @return The number of tokens that both lists contain.
+     */
+    public int intersectionSize(final long[] tokens1, final int numTokens1, final long[] tokens2, final int numTokens2) {
+        return intersectionSize(tokens1, 0, numTokens1, tokens2, 0, numTokens2);
+    }
+
+    /**
+     * Counts the positions at which two signatures, such as MinHash signatures, hold equal values.
+     * @param signature1 The first signature.
+     * @param signature2 The second signature.
+     * @param length The number of positions at the front of both signatures that should be compared.
+     * @return The number of positions with equal values.
+     */
+    public int countEqual(final long[] signature1, final long[] signature2, final int length) {
+        return this.countEqual(signature1, signature2, 0, length);
+    }
+
+    /**
+     * Counts the positions in a range at which two signatures hold equal values.
+     * @param signature1 The first signature.
+     * @param signature2 The second signature.
+     * @param from The first position that should be compared.
+     * @param to The position after the last position that should be compared.
+     * @return The number of positions in the range with equal values.
+     */
+    public int countEqual(final long[] signature1, final long[] signature2, final int from, final int to) {
+        int count = 0;
+        for (int i = from; i < to; i++)
+            if (signature1[i] == signature2[i])
+                count++;
+        return count;
+    }
+
+    // Counts the common tokens of two strictly increasing token list ranges by merging them
+    protected static int intersectionSize(final long[] tokens1, int from1, final int to1, final long[] tokens2, int from2, final int to2) {
+        int count = 0;
+        while (from1 < to1 && from2 < to2) {
+            if (tokens1[from1] < tokens2[from2]) {
+                from1++;
+            } else if (tokens1[from1] > tokens2[from2]) {
+                from2++;
+            } else {
+                count++;
+                from1++;
+                from2++;
+            }
+        }
+        return count;
+    }
+
+    private static SimilarityKernels load() {
+        if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent())
+            return new SimilarityKernels();
+        try {
+            return (SimilarityKernels) Class.forName(VECTORIZED_KERNELS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // The jar was built without the Java 17 part or the runtime cannot link it
+            return new SimilarityKernels();
+        }
+    }
+}
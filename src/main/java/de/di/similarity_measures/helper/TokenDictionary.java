@@ -0,0 +1,175 @@
+package de.di.similarity_measures.helper;
+
+import de.di.Relation;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The TokenDictionary maps every distinct token to a dense integer id, i.e., the ids of n tokens are 0 to n - 1 in
+ * the order in which the tokens were first seen. For every token, the dictionary also counts the number of encoded
+ * token lists, e.g., records, that contain it, which is the document frequency used for frequency-ordered prefix
+ * filtering and IDF weighting. The dictionary is thread-safe: lookups of known tokens run in parallel, only the
+ * encoding of new tokens and lists is serialized.
+ */
+public class TokenDictionary {
+
+    // The id of every token that is in the dictionary.
+    private final Object2IntOpenHashMap<String> ids = new Object2IntOpenHashMap<>();
+
+    // The token of every id.
+    private final ObjectArrayList<String> tokens = new ObjectArrayList<>();
+
+    // The number of encoded token lists that contain the token of every id.
+    private final IntArrayList frequencies = new IntArrayList();
+
+    // The number of token lists that have been encoded.
+    private int numLists = 0;
+
+    // The lock that allows parallel reads and serializes writes.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public TokenDictionary() {
+        this.ids.defaultReturnValue(-1);
+    }
+
+    /**
+     * Creates a dictionary of all tokens of the given attribute and encodes the attribute's values.
+     * @param relation The relation whose values should be tokenized.
+     * @param attribute The index of the attribute whose values should be tokenized.
+     * @param tokenizer The tokenizer that splits the values into tokens.
+     * @param dictionary The dictionary that should be extended with the tokens of the attribute.
+     * @return The token id lists of all records of the relation in record order.
+     */
+    public static int[][] encode(Relation relation, int attribute, Tokenizer tokenizer, TokenDictionary dictionary) {
+        String[][] records = relation.getRecords();
+        int[][] tokenIds = new int[records.length][];
+        for (int record = 0; record < records.length; record++) {
+            String value = records[record][attribute];
+            tokenIds[record] = dictionary.encode(tokenizer.tokenize(value == null ? "" : value));
+        }
+        return tokenIds;
+    }
+
+    /**
+     * Encodes the given token list as a list of token ids, adding all tokens that are not yet in the dictionary, and
+     * counts the list for the frequencies of its distinct tokens.
+     * @param tokens The token list that should be encoded.
+     * @return The ids of the tokens in the order of the token list.
+     */
+    public int[] encode(String[] tokens) {
+        int[] tokenIds = new int[tokens.length];
+        this.lock.writeLock().lock();
+        try {
+            this.numLists++;
+            for (int i = 0; i < tokens.length; i++) {
+                int id = this.ids.getInt(tokens[i]);
+                if (id < 0) {
+                    id = this.tokens.size();
+                    this.ids.put(tokens[i], id);
+                    this.tokens.add(tokens[i]);
+                    this.frequencies.add(0);
+                }
+                tokenIds[i] = id;
+            }
+            // Every token is counted once per list: the first occurrence stores the raised frequency negated, which
+            // marks the token as counted until the frequencies are restored
+            for (int id : tokenIds)
+                if (this.frequencies.getInt(id) >= 0)
+                    this.frequencies.set(id, -(this.frequencies.getInt(id) + 1));
+            for (int id : tokenIds)
+                if (this.frequencies.getInt(id) < 0)
+                    this.frequencies.set(id, -this.frequencies.getInt(id));
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        return tokenIds;
+    }
+
+    /**
+     * Encodes the given token list with the ids of the dictionary without changing the dictionary.
+     * @param tokens The token list that should be encoded.
+     * @return The ids of the tokens in the order of the token list; -1 for tokens that are not in the dictionary.
+     */
+    public int[] lookup(String[] tokens) {
+        int[] tokenIds = new int[tokens.length];
+        this.lock.readLock().lock();
+        try {
+            for (int i = 0; i < tokens.length; i++)
+                tokenIds[i] = this.ids.getInt(tokens[i]);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return tokenIds;
+    }
+
+    /**
+     * Returns the id of the given token.
+     * @param token The token whose id is requested.
+     * @return The id of the token; -1 if the token is not in the dictionary.
+     */
+    public int idOf(String token) {
+        this.lock.readLock().lock();
+        try {
+            return this.ids.getInt(token);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the token with the given id.
+     * @param id The id of the requested token.
+     * @return The token with the given id.
+     */
+    public String tokenOf(int id) {
+        this.lock.readLock().lock();
+        try {
+            return this.tokens.get(id);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of encoded token lists that contain the token with the given id.
+     * @param id The id of the token.
+     * @return The document frequency of the token.
+     */
+    public int frequency(int id) {
+        this.lock.readLock().lock();
+        try {
+            return this.frequencies.getInt(id);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of token lists that have been encoded with this dictionary.
+     * @return The number of encoded token lists.
+     */
+    public int numLists() {
+        this.lock.readLock().lock();
+        try {
+            return this.numLists;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of distinct tokens in this dictionary.
+     * @return The number of distinct tokens, which is also the smallest unused id.
+     */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.tokens.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+}
@@ -2,9 +2,17 @@ package de.di.similarity_measures.helper;
 
 import lombok.Getter;
 
+import java.util.Arrays;
+
 @Getter
 public class Tokenizer {
 
+    // The largest token size whose tokens are packed exactly into a long, i.e., with 16 bits per character
+    private static final int MAX_PACKED_TOKEN_SIZE = 4;
+
+    // The odd multiplier of the rolling hash that is used for tokens that are too long to be packed exactly
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
     // The symbol that should be used for padding, if "usePadding == true"
     public static String paddingSymbol = "$";
 
@@ -41,4 +49,90 @@ public class Tokenizer {
             tokens[i] = s.substring(i, i + this.tokenSize);
         return tokens;
     }
+
+    /**
+     * Calculates the number of tokens that the tokenization of the input string yields, i.e., the size of the token
+     * buffer that tokenizeHashed() needs for this string.
+     * @param string The string argument that should be tokenized.
+     * @return The number of tokens of the argument.
+     */
+    public int numTokens(final String string) {
+        int length = string.length() + 2 * this.paddingLength();
+        return Math.max(0, length - (this.tokenSize - 1));
+    }
+
+    /**
+     * Tokenizes the input string like tokenize(), but writes every token as a long into the given buffer instead of
+     * allocating a String per token. Tokens of up to four characters are packed exactly into their long, so that two
+     * tokens are equal if and only if their longs are equal; longer tokens are represented by a 64 bit rolling hash.
+     * The tokens are sorted, so that the token lists of two strings can be intersected by merging.
+     * @param string The string argument that should be tokenized.
+     * @param tokens The buffer that receives the tokens; it must hold at least numTokens(string) tokens.
+     * @param distinct The choice of whether duplicate tokens should be removed.
+     * @return The number of tokens that have been written to the front of the buffer.
+     */
+    public int tokenizeHashed(final String string, final long[] tokens, final boolean distinct) {
+        int numTokens = this.numTokens(string);
+        if (tokens.length < numTokens)
+            throw new IllegalArgumentException("The token buffer holds " + tokens.length + " tokens, but " + numTokens + " are needed");
+
+        int padding = this.paddingLength();
+        long token = 0;
+        if (this.tokenSize <= MAX_PACKED_TOKEN_SIZE) {
+            long mask = -1L >>> (64 - 16 * this.tokenSize);
+            for (int i = 0; i < this.tokenSize - 1; i++)
+                token = (token << 16) | charAt(string, padding, i);
+            for (int i = 0; i < numTokens; i++) {
+                token = ((token << 16) | charAt(string, padding, i + this.tokenSize - 1)) & mask;
+                tokens[i] = token;
+            }
+        } else {
+            long power = 1;
+            for (int i = 0; i < this.tokenSize - 1; i++) {
+                token = token * HASH_MULTIPLIER + charAt(string, padding, i);
+                power *= HASH_MULTIPLIER;
+            }
+            for (int i = 0; i < numTokens; i++) {
+                token = token * HASH_MULTIPLIER + charAt(string, padding, i + this.tokenSize - 1);
+                tokens[i] = token;
+                token -= charAt(string, padding, i) * power;
+            }
+        }
+
+        Arrays.sort(tokens, 0, numTokens);
+        if (!distinct || numTokens == 0)
+            return numTokens;
+        int numDistinct = 1;
+        for (int i = 1; i < numTokens; i++)
+            if (tokens[i] != tokens[numDistinct - 1])
+                tokens[numDistinct++] = tokens[i];
+        return numDistinct;
+    }
+
+    /**
+     * Tokenizes the input string into a new array of sorted tokens as described for tokenizeHashed(string, tokens,
+     * distinct); duplicate tokens are kept.
+     * @param string The string argument that should be tokenized.
+     * @return The sorted tokens of the argument.
+     */
+    public long[] tokenizeHashed(final String string) {
+        long[] tokens = new long[this.numTokens(string)];
+        this.tokenizeHashed(string, tokens, false);
+        return tokens;
+    }
+
+    // The number of characters that padding adds to either side of a string
+    private int paddingLength() {
+        return this.usePadding ? paddingSymbol.length() * Math.max(0, this.tokenSize - 1) : 0;
+    }
+
+    // Returns the character at the given index of the padded string without materializing the padded string
+    private static char charAt(final String string, final int padding, int index) {
+        if (index < padding)
+            return paddingSymbol.charAt(index % paddingSymbol.length());
+        index -= padding;
+        if (index < string.length())
+            return string.charAt(index);
+        return paddingSymbol.charAt((index - string.length()) % paddingSymbol.length());
+    }
 }
@@ -0,0 +1,42 @@
+package de.di.similarity_measures.structures;
+
+import de.di.similarity_measures.SimilarityMeasure;
+import lombok.AllArgsConstructor;
+
+/**
+ * PreparedStrings are values that need no preprocessing; they are compared with the pairwise calculation of their
+ * similarity measure.
+ */
+@AllArgsConstructor
+public class PreparedStrings implements PreparedValues {
+
+    // The similarity measure that compares the values.
+    private final SimilarityMeasure similarityMeasure;
+
+    // The values as they are.
+    private final String[] values;
+
+    /**
+     * Returns the value with the given index.
+     * @param index The index of the value.
+     * @return The value with the given index.
+     */
+    public String getValue(int index) {
+        return this.values[index];
+    }
+
+    @Override
+    public int size() {
+        return this.values.length;
+    }
+
+    @Override
+    public double calculate(int index, PreparedValues others, int otherIndex) {
+        return this.similarityMeasure.calculate(this.values[index], ((PreparedStrings) others).getValue(otherIndex));
+    }
+
+    @Override
+    public double calculate(int index, PreparedValues others, int otherIndex, double lowerBound) {
+        return this.similarityMeasure.calculate(this.values[index], ((PreparedStrings) others).getValue(otherIndex), lowerBound);
+    }
+}
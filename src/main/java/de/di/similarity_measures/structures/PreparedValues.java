@@ -0,0 +1,66 @@
+package de.di.similarity_measures.structures;
+
+import java.util.stream.IntStream;
+
+/**
+ * PreparedValues are a list of values that a similarity measure has preprocessed into the form it compares, e.g., into
+ * token arrays or signatures, so that values that take part in many comparisons are tokenized and hashed only once.
+ * Prepared values can only be compared with values prepared by the same measure.
+ */
+public interface PreparedValues {
+
+    /**
+     * Returns the number of prepared values.
+     * @return The number of prepared values.
+     */
+    int size();
+
+    /**
+     * Calculates the similarity of one prepared value of this list and one of the other list.
+     * @param index The index of the value in this list.
+     * @param others The other list, which must have been prepared by the same similarity measure.
+     * @param otherIndex The index of the value in the other list.
+     * @return The similarity of the two values.
+     */
+    double calculate(int index, PreparedValues others, int otherIndex);
+
+    /**
+     * Calculates the similarity of one prepared value of this list and one of the other list if it can reach the lower
+     * bound, like SimilarityMeasure.calculate(string1, string2, lowerBound).
+     * @param index The index of the value in this list.
+     * @param others The other list, which must have been prepared by the same similarity measure.
+     * @param otherIndex The index of the value in the other list.
+     * @param lowerBound The similarity below which the exact similarity is of no interest.
+     * @return The similarity of the two values if it is at least the lower bound; otherwise, either that similarity or
+     * SimilarityMeasure.BELOW_BOUND.
+     */
+    default double calculate(int index, PreparedValues others, int otherIndex, double lowerBound) {
+        return this.calculate(index, others, otherIndex);
+    }
+
+    /**
+     * Calculates the similarities of one prepared value of this list with all values of the other list.
+     * @param index The index of the value in this list.
+     * @param others The other list, which must have been prepared by the same similarity measure.
+     * @return The similarities of the value with every value of the other list.
+     */
+    default double[] calculate(int index, PreparedValues others) {
+        double[] similarities = new double[others.size()];
+        for (int otherIndex = 0; otherIndex < similarities.length; otherIndex++)
+            similarities[otherIndex] = this.calculate(index, others, otherIndex);
+        return similarities;
+    }
+
+    /**
+     * Calculates the similarities of all values of this list with all values of the other list.
+     * @param others The other list, which must have been prepared by the same similarity measure.
+     * @param parallel The choice of whether the rows of the result should be calculated in parallel.
+     * @return The #this x #others sized similarity block.
+     */
+    default double[][] calculate(PreparedValues others, boolean parallel) {
+        double[][] similarities = new double[this.size()][];
+        IntStream indexes = IntStream.range(0, this.size());
+        (parallel ? indexes.parallel() : indexes).forEach(index -> similarities[index] = this.calculate(index, others));
+        return similarities;
+    }
+}
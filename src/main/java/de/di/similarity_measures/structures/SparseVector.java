@@ -0,0 +1,55 @@
+package de.di.similarity_measures.structures;
+
+import lombok.Getter;
+
+/**
+ * A SparseVector stores only the non-zero dimensions of a vector as two parallel primitive arrays, the dimension ids
+ * in ascending order and their weights, so that the dot product of two vectors is a single merge of their ids.
+ */
+@Getter
+public class SparseVector {
+
+    // The ids of the non-zero dimensions in ascending order
+    private final int[] ids;
+
+    // The weight of every non-zero dimension in the order of the ids
+    private final float[] weights;
+
+    public SparseVector(final int[] ids, final float[] weights) {
+        if (ids.length != weights.length)
+            throw new IllegalArgumentException("A sparse vector needs one weight per id, but has " + ids.length + " ids and " + weights.length + " weights");
+        this.ids = ids;
+        this.weights = weights;
+    }
+
+    /**
+     * Returns the number of non-zero dimensions of this vector.
+     * @return The number of non-zero dimensions.
+     */
+    public int size() {
+        return this.ids.length;
+    }
+
+    /**
+     * Calculates the dot product of this and the other vector by merging their ids.
+     * @param other The other vector.
+     * @return The dot product of the two vectors; for unit vectors, their cosine similarity.
+     */
+    public double dot(final SparseVector other) {
+        int[] ids1 = this.ids;
+        int[] ids2 = other.ids;
+        double product = 0;
+        for (int i = 0, j = 0; i < ids1.length && j < ids2.length; ) {
+            if (ids1[i] < ids2[j]) {
+                i++;
+            } else if (ids1[i] > ids2[j]) {
+                j++;
+            } else {
+                product += (double) this.weights[i] * other.weights[j];
+                i++;
+                j++;
+            }
+        }
+        return product;
+    }
+}
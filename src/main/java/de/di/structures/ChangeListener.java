@@ -0,0 +1,16 @@
+package de.di.structures;
+
+/**
+ * A ChangeListener subscribes to the change feed of a relation and is notified about every batch of records that is
+ * appended to it, so that incremental algorithms only need to process the new records.
+ */
+public interface ChangeListener {
+
+    /**
+     * Is called after a batch of records was appended to the relation. The appended records are already visible to all
+     * readers of the relation when this method is called.
+     * @param relation The relation that the records were appended to.
+     * @param range The range of the appended records and the relation's new version.
+     */
+    void recordsAppended(StreamingRelation relation, RecordRange range);
+}
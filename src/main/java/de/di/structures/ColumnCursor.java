@@ -0,0 +1,23 @@
+package de.di.structures;
+
+/**
+ * A ColumnCursor iterates the values of a single relation column once in record order. Cursors over files hold an
+ * open reader and must be closed after use; cursors over in-memory relations hold no resources.
+ */
+public interface ColumnCursor extends AutoCloseable {
+
+    /**
+     * Checks whether the cursor can advance to another value.
+     * @return true if there is at least one more value.
+     */
+    boolean hasNext();
+
+    /**
+     * Advances the cursor to the value of the next record and returns it. Empty values are "".
+     * @return The value of the next record.
+     */
+    String next();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,289 @@
+package de.di.structures;
+
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A ColumnSketch summarizes the distinct values of a single column in a few KiB: the number of empty values, the
+ * lexicographically smallest and largest non-empty value, a histogram of the value lengths, a HyperLogLog estimate of
+ * the number of distinct values, a Bloom filter of the values, and a MinHash signature. All sketches of all columns
+ * use the same hash functions, so that two sketches can be compared without looking at the values again. Empty values
+ * are only counted; they are not part of any of the value sketches.
+ */
+@Getter
+public class ColumnSketch {
+
+    private static final int HLL_PRECISION = 10;
+    private static final int NUM_MIN_HASHES = 32;
+    private static final int NUM_BLOOM_HASHES = 4;
+    private static final int BLOOM_BITS_PER_VALUE = 8;
+    private static final int MIN_BLOOM_BITS = 64;
+    private static final int MAX_BLOOM_BITS = 1 << 23;
+    private static final int NUM_LENGTH_BUCKETS = 32;
+
+    // The number of records whose value is empty; sketches of value sets count 1 if the set contains the empty value.
+    private int numEmpty = 0;
+
+    // The lexicographically smallest and largest non-empty value; null if the column has no non-empty values.
+    private String min = null;
+    private String max = null;
+
+    // The length of the shortest and longest non-empty value; 0 if the column has no non-empty values.
+    private int minLength = 0;
+    private int maxLength = 0;
+
+    // The number of distinct non-empty values per length bucket; bucket b holds the lengths from 2^(b-1) to 2^b - 1.
+    private final int[] lengthHistogram = new int[NUM_LENGTH_BUCKETS];
+
+    // The HyperLogLog registers, i.e., the maximum rank of all value hashes per register.
+    @Getter(AccessLevel.NONE)
+    private final byte[] registers = new byte[1 << HLL_PRECISION];
+
+    // The Bloom filter bits; their number is a power of two, so that a filter can be folded to any smaller size.
+    @Getter(AccessLevel.NONE)
+    private final long[] bloomFilter;
+
+    // The MinHash signature, i.e., the minimum of every hash function over all values.
+    @Getter(AccessLevel.NONE)
+    private final long[] minHashes = new long[NUM_MIN_HASHES];
+
+    private ColumnSketch(int expectedDistinct) {
+        long bits = Math.max(MIN_BLOOM_BITS, Math.min(MAX_BLOOM_BITS, Long.highestOneBit(Math.max(1, (long) expectedDistinct * BLOOM_BITS_PER_VALUE) - 1) << 1));
+        this.bloomFilter = new long[(int) (bits >>> 6)];
+        Arrays.fill(this.minHashes, Long.MAX_VALUE);
+    }
+
+    /**
+     * Sketches the provided dictionary-encoded column. Only its distinct values are hashed; the records are only
+     * scanned to count the empty values, if the column contains any.
+     * @param column The column that should be sketched.
+     * @return The sketch of the column.
+     */
+    public static ColumnSketch of(final DictionaryColumn column) {
+        ColumnSketch sketch = new ColumnSketch(column.cardinality());
+        int emptyId = -1;
+        for (int valueId = 0; valueId < column.cardinality(); valueId++) {
+            String value = column.getDictionary()[valueId];
+            if (value.isEmpty())
+                emptyId = valueId;
+            else
+                sketch.add(value);
+        }
+        if (emptyId >= 0)
+            for (int valueId : column.getValueIds())
+                if (valueId == emptyId)
+                    sketch.numEmpty++;
+        return sketch;
+    }
+
+    /**
+     * Sketches the provided column of a primitive type without decoding all of its records into strings: every
+     * distinct primitive value is formatted only once.
+     * @param column The typed column that should be sketched; its type must not be STRING.
+     * @return The sketch of the column.
+     */
+    public static ColumnSketch of(final TypedColumn column) {
+        if (column.getType() == ColumnType.STRING)
+            throw new IllegalArgumentException("Columns of type STRING are sketched from their dictionary-encoded column.");
+
+        // Remember the first record of every distinct primitive value
+        Long2IntOpenHashMap firstRecords = new Long2IntOpenHashMap();
+        int numEmpty = 0;
+        for (int record = 0; record < column.size(); record++) {
+            if (column.isNull(record))
+                numEmpty++;
+            else
+                firstRecords.putIfAbsent(column.getBits(record), record);
+        }
+
+        ColumnSketch sketch = new ColumnSketch(firstRecords.size());
+        for (IntIterator iterator = firstRecords.values().iterator(); iterator.hasNext(); )
+            sketch.add(column.get(iterator.nextInt()));
+        sketch.numEmpty = numEmpty;
+        return sketch;
+    }
+
+    /**
+     * Sketches the provided set of distinct values, e.g., the values that were collected while streaming a column.
+     * @param values The distinct values of a column.
+     * @return The sketch of the values; its empty count is 1 if the values contain the empty value.
+     */
+    public static ColumnSketch of(final Collection<String> values) {
+        ColumnSketch sketch = new ColumnSketch(values.size());
+        for (String value : values) {
+            if (value.isEmpty())
+                sketch.numEmpty = 1;
+            else
+                sketch.add(value);
+        }
+        return sketch;
+    }
+
+    // Adds a distinct non-empty value to all value sketches.
+    private void add(String value) {
+        if (this.min == null) {
+            this.min = this.max = value;
+            this.minLength = this.maxLength = value.length();
+        } else {
+            if (value.compareTo(this.min) < 0)
+                this.min = value;
+            if (value.compareTo(this.max) > 0)
+                this.max = value;
+            this.minLength = Math.min(this.minLength, value.length());
+            this.maxLength = Math.max(this.maxLength, value.length());
+        }
+        this.lengthHistogram[lengthBucket(value.length())]++;
+
+        long hash = hash(value);
+
+        int register = (int) (hash >>> (64 - HLL_PRECISION));
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << HLL_PRECISION) | (1L << (HLL_PRECISION - 1))) + 1);
+        if (rank > this.registers[register])
+            this.registers[register] = rank;
+
+        for (int i = 0; i < NUM_BLOOM_HASHES; i++) {
+            long bit = this.bloomBit(hash, i);
+            this.bloomFilter[(int) (bit >>> 6)] |= 1L << bit;
+        }
+
+        for (int i = 0; i < NUM_MIN_HASHES; i++)
+            this.minHashes[i] = Math.min(this.minHashes[i], mix(hash + (i + 1) * 0x9E3779B97F4A7C15L));
+    }
+
+    // The i-th Bloom filter bit of a value hash by double hashing; masking keeps the bits of folded filters aligned.
+    private long bloomBit(long hash, int i) {
+        long step = mix(hash ^ 0x632BE59BD9B4E019L) | 1;
+        return (hash + i * step) & (((long) this.bloomFilter.length << 6) - 1);
+    }
+
+    private static int lengthBucket(int length) {
+        return Math.min(NUM_LENGTH_BUCKETS - 1, 32 - Integer.numberOfLeadingZeros(length));
+    }
+
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L ^ value.length();
+        for (int i = 0; i < value.length(); i++)
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        return mix(hash);
+    }
+
+    // The finalizer of MurmurHash3, which spreads every input bit over all output bits.
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Estimates the number of distinct non-empty values with HyperLogLog; small cardinalities are estimated by linear
+     * counting over the empty registers.
+     * @return The estimated number of distinct non-empty values.
+     */
+    public long estimateDistinct() {
+        int m = this.registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte rank : this.registers) {
+            sum += 1.0 / (1L << rank);
+            if (rank == 0)
+                zeros++;
+        }
+        double estimate = 0.7213 / (1 + 1.079 / m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0)
+            estimate = m * Math.log((double) m / zeros);
+        return Math.round(estimate);
+    }
+
+    /**
+     * Checks whether the column might contain the given value. The check has no false negatives.
+     * @param value The value to look up.
+     * @return false if the column definitely does not contain the value.
+     */
+    public boolean mightContain(final String value) {
+        if (value.isEmpty())
+            return this.numEmpty > 0;
+        if (this.min == null || value.compareTo(this.min) < 0 || value.compareTo(this.max) > 0)
+            return false;
+        long hash = hash(value);
+        for (int i = 0; i < NUM_BLOOM_HASHES; i++) {
+            long bit = this.bloomBit(hash, i);
+            if ((this.bloomFilter[(int) (bit >>> 6)] & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the values of this column might all be contained in the values of the other column. All sketches
+     * of a subset are dominated by the sketches of its superset, so the check has no false negatives: it only fails if
+     * the inclusion is impossible.
+     * @param other The sketch of the potentially including column.
+     * @return false if the values of this column are definitely not included in the values of the other column.
+     */
+    public boolean mightBeIncludedIn(final ColumnSketch other) {
+        if (this.numEmpty > 0 && other.numEmpty == 0)
+            return false;
+        if (this.min == null)
+            return true;
+        if (other.min == null || this.min.compareTo(other.min) < 0 || this.max.compareTo(other.max) > 0 ||
+                this.minLength < other.minLength || this.maxLength > other.maxLength)
+            return false;
+        for (int bucket = 0; bucket < NUM_LENGTH_BUCKETS; bucket++)
+            if (this.lengthHistogram[bucket] > other.lengthHistogram[bucket])
+                return false;
+        for (int register = 0; register < this.registers.length; register++)
+            if (this.registers[register] > other.registers[register])
+                return false;
+        for (int i = 0; i < NUM_MIN_HASHES; i++)
+            if (this.minHashes[i] < other.minHashes[i])
+                return false;
+
+        // Bloom filters of different sizes are compared at the smaller size by folding the larger one
+        int words = Math.min(this.bloomFilter.length, other.bloomFilter.length);
+        long[] bits = fold(this.bloomFilter, words);
+        long[] otherBits = fold(other.bloomFilter, words);
+        for (int word = 0; word < words; word++)
+            if ((bits[word] & ~otherBits[word]) != 0)
+                return false;
+        return true;
+    }
+
+    private static long[] fold(long[] bloomFilter, int words) {
+        if (bloomFilter.length == words)
+            return bloomFilter;
+        long[] folded = Arrays.copyOf(bloomFilter, words);
+        for (int word = words; word < bloomFilter.length; word++)
+            folded[word & (words - 1)] |= bloomFilter[word];
+        return folded;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of the non-empty values of this and the other column from their MinHash
+     * signatures.
+     * @param other The sketch of the other column.
+     * @return The estimated Jaccard similarity in [0, 1]; 0 if either column has no non-empty values.
+     */
+    public double estimateJaccard(final ColumnSketch other) {
+        if (this.min == null || other.min == null)
+            return 0;
+        int matches = 0;
+        for (int i = 0; i < NUM_MIN_HASHES; i++)
+            if (this.minHashes[i] == other.minHashes[i])
+                matches++;
+        return (double) matches / NUM_MIN_HASHES;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnSketch(distinct~" + this.estimateDistinct() + ", empty=" + this.numEmpty + ", range=[" +
+                this.min + ", " + this.max + "], length=[" + this.minLength + ", " + this.maxLength + "])";
+    }
+}
@@ -0,0 +1,60 @@
+package de.di.structures;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * ColumnStatistics summarize the values of a single relation column. They are derived from the dictionary-encoded
+ * column, i.e., all length statistics are calculated over the distinct values only.
+ */
+@Getter
+@AllArgsConstructor
+public class ColumnStatistics {
+
+    // The number of records in the column.
+    private final int numRecords;
+
+    // The number of distinct values in the column.
+    private final int numDistinct;
+
+    // The number of records whose value is empty.
+    private final int numEmpty;
+
+    // The length of the shortest value in the column; 0 if the column has no values.
+    private final int minLength;
+
+    // The length of the longest value in the column; 0 if the column has no values.
+    private final int maxLength;
+
+    /**
+     * Calculates the statistics of the provided dictionary-encoded column.
+     * @param column The column whose statistics should be calculated.
+     * @return The statistics of the column.
+     */
+    public static ColumnStatistics of(final DictionaryColumn column) {
+        int emptyId = -1;
+        int minLength = column.cardinality() == 0 ? 0 : Integer.MAX_VALUE;
+        int maxLength = 0;
+        for (int valueId = 0; valueId < column.cardinality(); valueId++) {
+            String value = column.getDictionary()[valueId];
+            if (value.isEmpty())
+                emptyId = valueId;
+            minLength = Math.min(minLength, value.length());
+            maxLength = Math.max(maxLength, value.length());
+        }
+
+        int numEmpty = 0;
+        if (emptyId >= 0)
+            for (int valueId : column.getValueIds())
+                if (valueId == emptyId)
+                    numEmpty++;
+
+        return new ColumnStatistics(column.size(), column.cardinality(), numEmpty, minLength, maxLength);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnStatistics(records=" + this.numRecords + ", distinct=" + this.numDistinct + ", empty=" +
+                this.numEmpty + ", length=[" + this.minLength + ", " + this.maxLength + "])";
+    }
+}
@@ -0,0 +1,23 @@
+package de.di.structures;
+
+/**
+ * The ColumnType describes how the values of a TypedColumn are stored. All types except STRING store primitive values,
+ * which are only chosen if every non-empty value of the column is reproduced exactly by formatting its primitive value.
+ */
+public enum ColumnType {
+
+    // Integral numbers stored as long values.
+    INTEGER,
+
+    // Decimal numbers stored as double values.
+    DECIMAL,
+
+    // ISO-8601 dates (yyyy-MM-dd) stored as long epoch days.
+    DATE,
+
+    // The values true and false stored as long values 1 and 0.
+    BOOLEAN,
+
+    // Arbitrary values stored as dictionary-encoded strings.
+    STRING
+}
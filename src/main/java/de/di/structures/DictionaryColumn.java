@@ -0,0 +1,303 @@
+package de.di.structures;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.Arrays;
+
+/**
+ * A DictionaryColumn is a dictionary-encoded representation of a single relation column. Every distinct value of the
+ * column is stored exactly once in the dictionary and every record refers to its value by a dense integer value id,
+ * i.e., the index of that value in the dictionary. Value ids are assigned in order of first occurrence.
+ * Appended columns share their arrays with the column they were appended to, so that appending a batch costs time in
+ * the size of the batch and not in the size of the column.
+ */
+public class DictionaryColumn {
+
+    // The distinct values of this column; the position of a value in this array is its value id. The array may be
+    // longer than the cardinality, if the column was appended and shares its array with its successors.
+    private final String[] dictionary;
+
+    // The value id of every record in this column, i.e., dictionary[valueIds[record]] is the value of that record.
+    // The array may be longer than the size of the column for the same reason.
+    private final int[] valueIds;
+
+    // The number of distinct values of this column.
+    private final int cardinality;
+
+    // The number of records of this column.
+    private final int size;
+
+    // The value id of every distinct value; built on the first append and then handed on to the appended column, so
+    // that only the most recent column of an append chain holds it.
+    private Object2IntOpenHashMap<String> valueToId;
+
+    // The dictionary and value ids trimmed to the cardinality and size; created on first request if the arrays are longer.
+    private String[] trimmedDictionary;
+    private int[] trimmedValueIds;
+
+    // The lexicographic rank of every value id; calculated lazily on first request.
+    private int[] ranks;
+
+    public DictionaryColumn(final String[] dictionary, final int[] valueIds) {
+        this(dictionary, dictionary.length, valueIds, valueIds.length, null);
+    }
+
+    private DictionaryColumn(final String[] dictionary, final int cardinality, final int[] valueIds, final int size, final Object2IntOpenHashMap<String> valueToId) {
+        this.dictionary = dictionary;
+        this.cardinality = cardinality;
+        this.valueIds = valueIds;
+        this.size = size;
+        this.valueToId = valueToId;
+    }
+
+    /**
+     * Returns the distinct values of this column; the position of a value in the array is its value id. The returned
+     * array must not be modified.
+     * @return The dictionary of this column.
+     */
+    public synchronized String[] getDictionary() {
+        if (this.dictionary.length == this.cardinality)
+            return this.dictionary;
+        if (this.trimmedDictionary == null)
+            this.trimmedDictionary = Arrays.copyOf(this.dictionary, this.cardinality);
+        return this.trimmedDictionary;
+    }
+
+    /**
+     * Returns the value id of every record in this column. The returned array must not be modified.
+     * @return The value ids of this column in record order.
+     */
+    public synchronized int[] getValueIds() {
+        if (this.valueIds.length == this.size)
+            return this.valueIds;
+        if (this.trimmedValueIds == null)
+            this.trimmedValueIds = Arrays.copyOf(this.valueIds, this.size);
+        return this.trimmedValueIds;
+    }
+
+    /**
+     * Dictionary-encodes the provided column values.
+     * @param values The values of the column that should be encoded.
+     * @return The dictionary-encoded column.
+     */
+    public static DictionaryColumn encode(final String[] values) {
+        Object2IntOpenHashMap<String> valueToId = new Object2IntOpenHashMap<>();
+        valueToId.defaultReturnValue(-1);
+
+        String[] dictionary = new String[16];
+        int[] valueIds = new int[values.length];
+        for (int record = 0; record < values.length; record++) {
+            // Interned values that repeat the previous record's instance skip the hash lookup
+            if (record > 0 && values[record] == values[record - 1]) {
+                valueIds[record] = valueIds[record - 1];
+                continue;
+            }
+            int valueId = valueToId.getInt(values[record]);
+            if (valueId < 0) {
+                valueId = valueToId.size();
+                valueToId.put(values[record], valueId);
+                if (valueId == dictionary.length)
+                    dictionary = Arrays.copyOf(dictionary, 2 * dictionary.length);
+                dictionary[valueId] = values[record];
+            }
+            valueIds[record] = valueId;
+        }
+        return new DictionaryColumn(Arrays.copyOf(dictionary, valueToId.size()), valueIds);
+    }
+
+    /**
+     * Dictionary-encodes the values of the provided cursor in a single pass. Only the distinct values and one value id
+     * per record are kept in memory, which allows encoding columns of relations that do not fit into memory as a whole.
+     * @param cursor The cursor over the column values that should be encoded; it is consumed but not closed.
+     * @return The dictionary-encoded column.
+     */
+    public static DictionaryColumn encode(final ColumnCursor cursor) {
+        Object2IntOpenHashMap<String> valueToId = new Object2IntOpenHashMap<>();
+        valueToId.defaultReturnValue(-1);
+
+        String[] dictionary = new String[16];
+        IntArrayList valueIds = new IntArrayList();
+        while (cursor.hasNext()) {
+            String value = cursor.next();
+            int valueId = valueToId.getInt(value);
+            if (valueId < 0) {
+                valueId = valueToId.size();
+                valueToId.put(value, valueId);
+                if (valueId == dictionary.length)
+                    dictionary = Arrays.copyOf(dictionary, 2 * dictionary.length);
+                dictionary[valueId] = value;
+            }
+            valueIds.add(valueId);
+        }
+        return new DictionaryColumn(Arrays.copyOf(dictionary, valueToId.size()), valueIds.toIntArray());
+    }
+
+    /**
+     * Dictionary-encodes all columns of the provided row-major records.
+     * @param records The records whose columns should be encoded.
+     * @param numAttributes The number of attributes, i.e., columns of the records.
+     * @return The dictionary-encoded columns in attribute order.
+     */
+    public static DictionaryColumn[] encode(final String[][] records, final int numAttributes) {
+        DictionaryColumn[] columns = new DictionaryColumn[numAttributes];
+        String[] values = new String[records.length];
+        for (int attribute = 0; attribute < numAttributes; attribute++) {
+            for (int record = 0; record < records.length; record++)
+                values[record] = records[record][attribute];
+            columns[attribute] = encode(values);
+        }
+        return columns;
+    }
+
+    /**
+     * Appends the provided values to this column as a new column. The new column extends the dictionary and the value
+     * ids of this column, i.e., all existing records keep their value ids, and new values get the next free ids in
+     * order of their first occurrence. This column stays unchanged. Appending to the most recent column of an append
+     * chain fills the spare capacity of the shared arrays and reuses the value id map, so it costs amortized time in
+     * the number of appended values; appending to any other column copies it first.
+     * @param values The values of the appended records.
+     * @return The column of all existing and appended records.
+     */
+    public synchronized DictionaryColumn append(final String[] values) {
+        // Only the most recent column of an append chain owns the spare capacity of the arrays and the value id map
+        boolean owner = this.valueToId != null;
+        Object2IntOpenHashMap<String> valueToId = this.valueToId;
+        String[] dictionary = this.dictionary;
+        int[] valueIds = this.valueIds;
+        if (!owner) {
+            valueToId = new Object2IntOpenHashMap<>(this.cardinality + 16);
+            valueToId.defaultReturnValue(-1);
+            for (int valueId = 0; valueId < this.cardinality; valueId++)
+                valueToId.put(this.dictionary[valueId], valueId);
+            dictionary = Arrays.copyOf(this.dictionary, Math.max(16, this.cardinality + Math.min(values.length, 1024)));
+        }
+        this.valueToId = null;
+
+        int size = this.size + values.length;
+        if (!owner || valueIds.length < size)
+            valueIds = Arrays.copyOf(valueIds, Math.max(size, 2 * this.size));
+        for (int i = 0; i < values.length; i++) {
+            int valueId = valueToId.getInt(values[i]);
+            if (valueId < 0) {
+                valueId = valueToId.size();
+                valueToId.put(values[i], valueId);
+                if (valueId == dictionary.length)
+                    dictionary = Arrays.copyOf(dictionary, 2 * dictionary.length);
+                dictionary[valueId] = values[i];
+            }
+            valueIds[this.size + i] = valueId;
+        }
+        return new DictionaryColumn(dictionary, valueToId.size(), valueIds, size, valueToId);
+    }
+
+    /**
+     * Selects the given records of this column into a new column. The new column shares its value objects with this
+     * column, but its dictionary only contains the selected values, again in order of their first occurrence.
+     * @param records The indexes of the records that should be selected, in their new order.
+     * @return The column of the selected records.
+     */
+    public DictionaryColumn select(final int[] records) {
+        int[] newIds = new int[this.cardinality];
+        Arrays.fill(newIds, -1);
+        String[] dictionary = new String[Math.min(records.length, this.cardinality)];
+        int cardinality = 0;
+        int[] valueIds = new int[records.length];
+        for (int i = 0; i < records.length; i++) {
+            int valueId = this.valueIds[records[i]];
+            if (newIds[valueId] < 0) {
+                newIds[valueId] = cardinality;
+                dictionary[cardinality++] = this.dictionary[valueId];
+            }
+            valueIds[i] = newIds[valueId];
+        }
+        return new DictionaryColumn(Arrays.copyOf(dictionary, cardinality), valueIds);
+    }
+
+    /**
+     * Returns the number of records in this column.
+     * @return The number of records in this column.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of distinct values in this column.
+     * @return The number of distinct values in this column.
+     */
+    public int cardinality() {
+        return this.cardinality;
+    }
+
+    /**
+     * Checks whether every record in this column has a different value.
+     * @return true if all values in this column are distinct.
+     */
+    public boolean isUnique() {
+        return this.cardinality() == this.size();
+    }
+
+    /**
+     * Returns the value of the given record.
+     * @param record The index of the record whose value is requested.
+     * @return The value of the given record.
+     */
+    public String get(final int record) {
+        return this.dictionary[this.valueIds[record]];
+    }
+
+    /**
+     * Returns the value id of the given record.
+     * @param record The index of the record whose value id is requested.
+     * @return The value id of the given record.
+     */
+    public int getValueId(final int record) {
+        return this.valueIds[record];
+    }
+
+    /**
+     * Estimates the heap size of this column in bytes, assuming about 40 bytes of overhead per distinct String object
+     * plus one byte per character.
+     * @return The estimated number of bytes that this column occupies.
+     */
+    public long estimateBytes() {
+        long bytes = 4L * this.size;
+        for (int valueId = 0; valueId < this.cardinality; valueId++)
+            bytes += 40 + this.dictionary[valueId].length();
+        return bytes;
+    }
+
+    /**
+     * Returns the lexicographic rank of every value id, such that comparing the ranks of two records is equivalent
+     * to comparing their values with String.compareTo().
+     * @return The lexicographic rank of every value id.
+     */
+    public synchronized int[] ranks() {
+        if (this.ranks == null) {
+            int[] sortedIds = new int[this.cardinality];
+            for (int valueId = 0; valueId < sortedIds.length; valueId++)
+                sortedIds[valueId] = valueId;
+            IntArrays.quickSort(sortedIds, (id1, id2) -> this.dictionary[id1].compareTo(this.dictionary[id2]));
+
+            int[] ranks = new int[this.cardinality];
+            for (int rank = 0; rank < sortedIds.length; rank++)
+                ranks[sortedIds[rank]] = rank;
+            this.ranks = ranks;
+        }
+        return this.ranks;
+    }
+
+    /**
+     * Decodes this column into a plain value array. The values are shared with the dictionary, i.e., no new String
+     * objects are created.
+     * @return The decoded values of this column in record order.
+     */
+    public String[] toArray() {
+        String[] values = new String[this.size];
+        for (int record = 0; record < values.length; record++)
+            values[record] = this.dictionary[this.valueIds[record]];
+        return values;
+    }
+}
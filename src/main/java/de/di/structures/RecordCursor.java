@@ -0,0 +1,24 @@
+package de.di.structures;
+
+/**
+ * A RecordCursor iterates the records of a relation once in record order. Cursors over files hold an open reader and
+ * must be closed after use; cursors over in-memory relations hold no resources.
+ */
+public interface RecordCursor extends AutoCloseable {
+
+    /**
+     * Checks whether the cursor can advance to another record.
+     * @return true if there is at least one more record.
+     */
+    boolean hasNext();
+
+    /**
+     * Advances the cursor to the next record and returns it. Empty values are "". The returned array may be reused
+     * by the cursor for the next record, i.e., callers must copy it if they need to keep it.
+     * @return The values of the next record.
+     */
+    String[] next();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,43 @@
+package de.di.structures;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A RecordRange describes the records that were appended to a relation between two versions, i.e., the records from
+ * (inclusive) and to (exclusive) that a consumer who has seen an older version has not processed yet.
+ */
+@Getter
+@AllArgsConstructor
+public class RecordRange {
+
+    // The index of the first record in the range.
+    private final int from;
+
+    // The index after the last record in the range.
+    private final int to;
+
+    // The version of the relation that contains all records of the range.
+    private final long version;
+
+    /**
+     * Returns the number of records in this range.
+     * @return The number of records in this range.
+     */
+    public int size() {
+        return this.to - this.from;
+    }
+
+    /**
+     * Checks whether this range contains no records.
+     * @return true if this range contains no records.
+     */
+    public boolean isEmpty() {
+        return this.from == this.to;
+    }
+
+    @Override
+    public String toString() {
+        return "RecordRange([" + this.from + ", " + this.to + "), version=" + this.version + ")";
+    }
+}
@@ -0,0 +1,34 @@
+package de.di.structures;
+
+/**
+ * A StreamingRelation is a relation whose records and columns can be read in single passes via cursors, without
+ * requiring the whole relation to be materialized in memory. It is implemented both by the in-memory Relation and by
+ * relations that re-read their file on every pass, so that single-pass algorithms can run on either.
+ */
+public interface StreamingRelation {
+
+    /**
+     * Returns the name of this relation.
+     * @return The name of this relation.
+     */
+    String getName();
+
+    /**
+     * Returns the attribute names of this relation.
+     * @return The attribute names of this relation.
+     */
+    String[] getAttributes();
+
+    /**
+     * Opens a new cursor over all records of this relation.
+     * @return A cursor that is positioned before the first record.
+     */
+    RecordCursor openRecords();
+
+    /**
+     * Opens a new cursor over the values of the given attribute.
+     * @param attribute The index of the attribute whose values should be iterated.
+     * @return A cursor that is positioned before the value of the first record.
+     */
+    ColumnCursor openColumn(int attribute);
+}
@@ -0,0 +1,260 @@
+package de.di.structures;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * A TypedColumn stores the values of a single relation column according to its inferred ColumnType: integers, dates,
+ * and booleans as long values, decimals as double values, and all other columns as dictionary-encoded strings. Empty
+ * values are marked in a null bitmap. Because a primitive type is only inferred if formatting the primitive values
+ * reproduces every original string exactly, the string view of a typed column is identical to its source column, and
+ * two values of the same type are equal if and only if their strings are equal.
+ */
+@Getter
+public class TypedColumn {
+
+    // The inferred type of this column.
+    private final ColumnType type;
+
+    // The primitive values of INTEGER (the value), DATE (the epoch day), and BOOLEAN (1 or 0) columns; null otherwise.
+    @Getter(AccessLevel.NONE)
+    private final long[] longValues;
+
+    // The primitive values of DECIMAL columns; null otherwise.
+    @Getter(AccessLevel.NONE)
+    private final double[] doubleValues;
+
+    // The dictionary-encoded values of STRING columns; null otherwise.
+    @Getter(AccessLevel.NONE)
+    private final DictionaryColumn stringValues;
+
+    // A bitmap with one bit per record that is set if the record's value is empty; null if no value is empty.
+    @Getter(AccessLevel.NONE)
+    private final long[] nullBitmap;
+
+    private TypedColumn(ColumnType type, long[] longValues, double[] doubleValues, DictionaryColumn stringValues, long[] nullBitmap) {
+        this.type = type;
+        this.longValues = longValues;
+        this.doubleValues = doubleValues;
+        this.stringValues = stringValues;
+        this.nullBitmap = nullBitmap;
+    }
+
+    /**
+     * Infers the type of the provided column and converts it into a typed column. The inference only inspects the
+     * distinct values of the column, and the conversion parses every distinct value once.
+     * @param column The dictionary-encoded column whose type should be inferred.
+     * @return The typed column; its type is STRING if no primitive type matches all non-empty values.
+     */
+    public static TypedColumn infer(final DictionaryColumn column) {
+        ColumnType type = inferType(column.getDictionary());
+        if (type == ColumnType.STRING)
+            return new TypedColumn(type, null, null, column, null);
+
+        // Parse every distinct value once and then expand the parsed values to all records
+        String[] dictionary = column.getDictionary();
+        long[] parsedLongs = new long[dictionary.length];
+        double[] parsedDoubles = new double[dictionary.length];
+        int emptyId = -1;
+        for (int valueId = 0; valueId < dictionary.length; valueId++) {
+            if (dictionary[valueId].isEmpty())
+                emptyId = valueId;
+            else if (type == ColumnType.DECIMAL)
+                parsedDoubles[valueId] = Double.parseDouble(dictionary[valueId]);
+            else
+                parsedLongs[valueId] = parseLong(type, dictionary[valueId]);
+        }
+
+        long[] longValues = (type == ColumnType.DECIMAL) ? null : new long[column.size()];
+        double[] doubleValues = (type == ColumnType.DECIMAL) ? new double[column.size()] : null;
+        long[] nullBitmap = (emptyId < 0) ? null : new long[(column.size() + 63) >>> 6];
+        for (int record = 0; record < column.size(); record++) {
+            int valueId = column.getValueId(record);
+            if (valueId == emptyId)
+                nullBitmap[record >>> 6] |= 1L << record;
+            else if (doubleValues != null)
+                doubleValues[record] = parsedDoubles[valueId];
+            else
+                longValues[record] = parsedLongs[valueId];
+        }
+        return new TypedColumn(type, longValues, doubleValues, null, nullBitmap);
+    }
+
+    /**
+     * Infers the most specific type that represents all non-empty provided values exactly.
+     * @param values The values whose type should be inferred.
+     * @return The inferred type; STRING if the values contain no non-empty value or no primitive type matches.
+     */
+    public static ColumnType inferType(final String[] values) {
+        boolean integer = true, decimal = true, date = true, bool = true;
+        boolean hasValue = false;
+        for (String value : values) {
+            if (value.isEmpty())
+                continue;
+            hasValue = true;
+            integer = integer && isInteger(value);
+            decimal = decimal && isDecimal(value);
+            date = date && isDate(value);
+            bool = bool && isBoolean(value);
+            if (!integer && !decimal && !date && !bool)
+                return ColumnType.STRING;
+        }
+        if (!hasValue)
+            return ColumnType.STRING;
+        if (integer)
+            return ColumnType.INTEGER;
+        if (decimal)
+            return ColumnType.DECIMAL;
+        if (date)
+            return ColumnType.DATE;
+        return bool ? ColumnType.BOOLEAN : ColumnType.STRING;
+    }
+
+    private static boolean isInteger(String value) {
+        char first = value.charAt(0);
+        if (first != '-' && (first < '0' || first > '9'))
+            return false;
+        try {
+            return Long.toString(Long.parseLong(value)).equals(value);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isDecimal(String value) {
+        char first = value.charAt(0);
+        if (first != '-' && (first < '0' || first > '9'))
+            return false;
+        try {
+            double parsed = Double.parseDouble(value);
+            return Double.isFinite(parsed) && Double.toString(parsed).equals(value);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isDate(String value) {
+        if (value.length() != 10 || value.charAt(4) != '-' || value.charAt(7) != '-')
+            return false;
+        try {
+            return LocalDate.parse(value).toString().equals(value);
+        } catch (DateTimeException e) {
+            return false;
+        }
+    }
+
+    private static boolean isBoolean(String value) {
+        return value.equals("true") || value.equals("false");
+    }
+
+    private static long parseLong(ColumnType type, String value) {
+        switch (type) {
+            case INTEGER:
+                return Long.parseLong(value);
+            case DATE:
+                return LocalDate.parse(value).toEpochDay();
+            case BOOLEAN:
+                return Boolean.parseBoolean(value) ? 1 : 0;
+            default:
+                throw new IllegalArgumentException("Type " + type + " is not stored as long values.");
+        }
+    }
+
+    /**
+     * Returns the number of records in this column.
+     * @return The number of records in this column.
+     */
+    public int size() {
+        if (this.stringValues != null)
+            return this.stringValues.size();
+        return (this.longValues != null) ? this.longValues.length : this.doubleValues.length;
+    }
+
+    /**
+     * Checks whether the value of the given record is empty.
+     * @param record The index of the record.
+     * @return true if the record's value is empty.
+     */
+    public boolean isNull(final int record) {
+        if (this.stringValues != null)
+            return this.stringValues.get(record).isEmpty();
+        return this.nullBitmap != null && (this.nullBitmap[record >>> 6] & (1L << record)) != 0;
+    }
+
+    /**
+     * Returns the primitive value of the given record in an INTEGER, DATE, or BOOLEAN column.
+     * @param record The index of the record.
+     * @return The integer value, the epoch day of the date, or 1 for true and 0 for false; 0 if the value is empty.
+     */
+    public long getLong(final int record) {
+        return this.longValues[record];
+    }
+
+    /**
+     * Returns the primitive value of the given record in a DECIMAL column.
+     * @param record The index of the record.
+     * @return The decimal value; 0 if the value is empty.
+     */
+    public double getDouble(final int record) {
+        return this.doubleValues[record];
+    }
+
+    /**
+     * Returns the primitive value of the given record as raw 64 bits, i.e., the long value or the bits of the double
+     * value. Within one typed column, two non-empty values are equal if and only if their raw bits are equal.
+     * @param record The index of the record.
+     * @return The raw 64 bits of the record's primitive value.
+     */
+    public long getBits(final int record) {
+        return (this.type == ColumnType.DECIMAL) ? Double.doubleToLongBits(this.doubleValues[record]) : this.longValues[record];
+    }
+
+    /**
+     * Returns the string value of the given record, which is exactly the value of the source column.
+     * @param record The index of the record.
+     * @return The string value of the given record.
+     */
+    public String get(final int record) {
+        if (this.stringValues != null)
+            return this.stringValues.get(record);
+        if (this.isNull(record))
+            return "";
+        switch (this.type) {
+            case INTEGER:
+                return Long.toString(this.longValues[record]);
+            case DECIMAL:
+                return Double.toString(this.doubleValues[record]);
+            case DATE:
+                return LocalDate.ofEpochDay(this.longValues[record]).toString();
+            default:
+                return Boolean.toString(this.longValues[record] != 0);
+        }
+    }
+
+    /**
+     * Formats all values of this column into a plain value array.
+     * @return The string values of this column in record order.
+     */
+    public String[] toArray() {
+        if (this.stringValues != null)
+            return this.stringValues.toArray();
+        String[] values = new String[this.size()];
+        for (int record = 0; record < values.length; record++)
+            values[record] = this.get(record);
+        return values;
+    }
+
+    /**
+     * Estimates the heap size of this column's primitive storage in bytes. STRING columns report 0, because their
+     * storage is the dictionary-encoded column that is shared with the relation.
+     * @return The estimated number of bytes that this column occupies.
+     */
+    public long estimateBytes() {
+        if (this.stringValues != null)
+            return 0;
+        return 8L * this.size() + ((this.nullBitmap == null) ? 0 : 8L * this.nullBitmap.length);
+    }
+}
@@ -0,0 +1,77 @@
+package de.di.similarity_measures.helper;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The VectorizedKernels implement the SimilarityKernels with the Vector API, i.e., with as many 64-bit lanes per
+ * instruction as the CPU's preferred vector size offers. SimilarityKernels.get() loads them by name, so that the
+ * rest of the project never links against the incubator module.
+ */
+final class VectorizedKernels extends SimilarityKernels {
+
+    // The vector shape for 64-bit lanes that the CPU supports best.
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    // The shuffles that rotate a vector by 1 to lanes - 1 lanes; index 0 is unused.
+    private static final VectorShuffle<Long>[] ROTATIONS = rotations();
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+
+    /**
+     * Counts the common tokens block by block: a block of each list is compared all-against-all by comparing one
+     * block with every rotation of the other, and the block with the smaller last token is advanced. As the lists are
+     * strictly increasing, every common token is counted exactly once.
+     */
+    @Override
+    public int intersectionSize(final long[] tokens1, final int numTokens1, final long[] tokens2, final int numTokens2) {
+        int lanes = SPECIES.length();
+        if (lanes < 2)
+            return super.intersectionSize(tokens1, numTokens1, tokens2, numTokens2);
+
+        int i = 0, j = 0;
+        int count = 0;
+        while (i + lanes <= numTokens1 && j + lanes <= numTokens2) {
+            LongVector block1 = LongVector.fromArray(SPECIES, tokens1, i);
+            LongVector block2 = LongVector.fromArray(SPECIES, tokens2, j);
+            VectorMask<Long> matches = block1.eq(block2);
+            for (int rotation = 1; rotation < lanes; rotation++)
+                matches = matches.or(block1.eq(block2.rearrange(ROTATIONS[rotation])));
+            count += matches.trueCount();
+
+            long last1 = tokens1[i + lanes - 1];
+            long last2 = tokens2[j + lanes - 1];
+            if (last1 <= last2)
+                i += lanes;
+            if (last2 <= last1)
+                j += lanes;
+        }
+        // Tokens of passed blocks are smaller than all remaining tokens of the other list, so the rest is a merge
+        return count + intersectionSize(tokens1, i, numTokens1, tokens2, j, numTokens2);
+    }
+
+    @Override
+    public int countEqual(final long[] signature1, final long[] signature2, final int from, final int to) {
+        int count = 0;
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length())
+            count += LongVector.fromArray(SPECIES, signature1, i).eq(LongVector.fromArray(SPECIES, signature2, i)).trueCount();
+        for (; i < to; i++)
+            if (signature1[i] == signature2[i])
+                count++;
+        return count;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static VectorShuffle<Long>[] rotations() {
+        VectorShuffle<Long>[] rotations = new VectorShuffle[SPECIES.length()];
+        for (int rotation = 1; rotation < rotations.length; rotation++)
+            rotations[rotation] = VectorShuffle.iota(SPECIES, rotation, 1, true);
+        return rotations;
+    }
+}
@@ -0,0 +1,65 @@
+package de.di;
+
+import de.di.helper.LoadOptions;
+import de.di.structures.ColumnCursor;
+import de.di.structures.RecordCursor;
+import de.di.structures.StreamingRelation;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class CsvFileRelationTest {
+
+    private static final String[] FILES = {"abcde.csv", "abcdefghi.csv", "tpch_nation.csv", "tpch_region.csv", "tpch_supplier.csv"};
+
+    @Test
+    public void testCursorCorrectness() {
+        for (String file : FILES) {
+            Path path = Paths.get("data" + File.separator + "data_profiling" + File.separator + file);
+            Relation relation = new Relation(path, true, ';', StandardCharsets.UTF_8);
+            Relation columnar = new Relation(path, true, ';', StandardCharsets.UTF_8, LoadOptions.defaults().columnar(true));
+            CsvFileRelation fileRelation = new CsvFileRelation(path, true, ';', StandardCharsets.UTF_8);
+
+            assertEquals(relation.getName(), fileRelation.getName());
+            assertArrayEquals(relation.getAttributes(), fileRelation.getAttributes());
+            for (StreamingRelation streamingRelation : new StreamingRelation[]{relation, columnar, fileRelation}) {
+                assertRecords(relation.getRecords(), streamingRelation);
+                for (int attribute = 0; attribute < relation.getAttributes().length; attribute++)
+                    assertColumn(relation.getColumns()[attribute], streamingRelation, attribute);
+            }
+        }
+    }
+
+    @Test
+    public void testCursorCorrectness_noHeader() {
+        Path path = Paths.get("data" + File.separator + "data_profiling" + File.separator + "abcde.csv");
+        Relation relation = new Relation(path, false, ';', StandardCharsets.UTF_8);
+        CsvFileRelation fileRelation = new CsvFileRelation(path, false, ';', StandardCharsets.UTF_8);
+
+        assertArrayEquals(relation.getAttributes(), fileRelation.getAttributes());
+        assertRecords(relation.getRecords(), fileRelation);
+    }
+
+    private static void assertRecords(String[][] expectedRecords, StreamingRelation relation) {
+        try (RecordCursor cursor = relation.openRecords()) {
+            for (String[] expectedRecord : expectedRecords)
+                assertArrayEquals(expectedRecord, cursor.next());
+            assertFalse(cursor.hasNext());
+        }
+    }
+
+    private static void assertColumn(String[] expectedValues, StreamingRelation relation, int attribute) {
+        try (ColumnCursor cursor = relation.openColumn(attribute)) {
+            for (String expectedValue : expectedValues)
+                assertEquals(expectedValue, cursor.next());
+            assertFalse(cursor.hasNext());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package de.di;
+
+import de.di.helper.LoadOptions;
+import de.di.helper.ReservoirSampler;
+import de.di.structures.RecordRange;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RelationTest {
+
+    private static final Path SUPPLIER = Paths.get("data" + File.separator + "data_profiling" + File.separator + "tpch_supplier.csv");
+
+    @Test
+    public void testSample() {
+        Relation relation = new Relation(SUPPLIER, true, ';', StandardCharsets.UTF_8);
+        Relation sample = relation.sample(10, 42);
+
+        assertNull(relation.getSourceIndexes());
+        assertEquals(10, sample.getNumRecords());
+        assertArrayEquals(sample.getSourceIndexes(), relation.sample(10, 42).getSourceIndexes());
+        for (int i = 0; i < sample.getNumRecords(); i++) {
+            // The view shares the record arrays of its source
+            assertSame(relation.getRecords()[sample.getSourceIndexes()[i]], sample.getRecords()[i]);
+            if (i > 0)
+                assertTrue(sample.getSourceIndexes()[i - 1] < sample.getSourceIndexes()[i]);
+        }
+
+        assertEquals(relation.getNumRecords(), relation.sample(relation.getNumRecords() + 1, 42).getNumRecords());
+    }
+
+    @Test
+    public void testSample_columnar() {
+        Relation relation = new Relation(SUPPLIER, true, ';', StandardCharsets.UTF_8);
+        Relation columnar = new Relation(SUPPLIER, true, ';', StandardCharsets.UTF_8, LoadOptions.defaults().columnar(true).inferTypes(true));
+        Relation sample = columnar.sample(10, 7);
+
+        assertArrayEquals(sample.getSourceIndexes(), relation.sample(10, 7).getSourceIndexes());
+        for (int i = 0; i < sample.getNumRecords(); i++)
+            assertArrayEquals(relation.getRecords()[sample.getSourceIndexes()[i]], sample.getRecords()[i]);
+
+        // Samples of samples refer to the records of the original relation
+        Relation nested = sample.sample(3, 7);
+        for (int i = 0; i < nested.getNumRecords(); i++)
+            assertArrayEquals(relation.getRecords()[nested.getSourceIndexes()[i]], nested.getRecords()[i]);
+    }
+
+    @Test
+    public void testSampleStratified() {
+        Relation relation = new Relation(SUPPLIER, true, ';', StandardCharsets.UTF_8);
+        int attribute = 3;
+        Relation sample = relation.sampleStratified(attribute, 0.1, 42);
+
+        assertArrayEquals(sample.getSourceIndexes(), relation.sampleStratified(attribute, 0.1, 42).getSourceIndexes());
+        assertTrue(sample.getNumRecords() < relation.getNumRecords());
+
+        Set<String> expectedStrata = new HashSet<>();
+        for (String[] record : relation.getRecords())
+            expectedStrata.add(record[attribute]);
+        Set<String> strata = new HashSet<>();
+        for (int i = 0; i < sample.getNumRecords(); i++) {
+            assertSame(relation.getRecords()[sample.getSourceIndexes()[i]], sample.getRecords()[i]);
+            strata.add(sample.getRecords()[i][attribute]);
+        }
+        assertEquals(expectedStrata, strata);
+    }
+
+    @Test
+    public void testSampleAtLoadTime() {
+        Relation relation = new Relation(SUPPLIER, true, ';', StandardCharsets.UTF_8);
+        int[] expectedIndexes = ReservoirSampler.sample(relation.getNumRecords(), 20, 3);
+
+        LoadOptions[] allOptions = {
+                LoadOptions.defaults().sampleSize(20).sampleSeed(3),
+                LoadOptions.defaults().sampleSize(20).sampleSeed(3).memoryMapped(true),
+                LoadOptions.defaults().sampleSize(20).sampleSeed(3).columnar(true)};
+        for (LoadOptions options : allOptions) {
+            Relation sample = new Relation(SUPPLIER, true, ';', StandardCharsets.UTF_8, options);
+
+            assertArrayEquals(relation.getAttributes(), sample.getAttributes());
+            assertArrayEquals(expectedIndexes, sample.getSourceIndexes());
+            for (int i = 0; i < sample.getNumRecords(); i++)
+                assertArrayEquals(relation.getRecords()[expectedIndexes[i]], sample.getRecords()[i]);
+        }
+    }
+
+    @Test
+    public void testAppend() {
+        Relation relation = new Relation(SUPPLIER, true, ';', StandardCharsets.UTF_8);
+        String[][] expectedRecords = relation.getRecords().clone();
+        int numRecords = expectedRecords.length;
+        String[][] firstBatch = Arrays.copyOfRange(expectedRecords, 0, 5);
+        String[][] secondBatch = {{"10001", "Supplier#000010001", "new address", "99", "00-000-000-0000", "0.0", "new"}};
+
+        LoadOptions[] allOptions = {LoadOptions.defaults(), LoadOptions.defaults().columnar(true).inferTypes(true)};
+        for (LoadOptions options : allOptions) {
+            Relation appended = new Relation(SUPPLIER, true, ';', StandardCharsets.UTF_8, options);
+            appended.getStatistics(3);
+            List<RecordRange> feed = new ArrayList<>();
+            appended.addChangeListener((changed, range) -> {
+                assertSame(appended, changed);
+                feed.add(range);
+            });
+
+            assertEquals(0, appended.getVersion());
+            RecordRange first = appended.append(firstBatch);
+            RecordRange second = appended.append(secondBatch);
+            assertTrue(appended.append(new String[0][]).isEmpty());
+
+            assertEquals(2, appended.getVersion());
+            assertEquals(2, feed.size());
+            assertEquals(numRecords, feed.get(0).getFrom());
+            assertEquals(numRecords + 5, feed.get(0).getTo());
+            assertEquals(1, feed.get(0).getVersion());
+            assertEquals(numRecords + 5, second.getFrom());
+            assertEquals(first.getTo(), feed.get(1).getFrom());
+            assertEquals(numRecords + 6, appended.getNumRecords());
+
+            // The appended records are visible in all views and the derived data is recalculated
+            for (int record = 0; record < numRecords; record++)
+                assertArrayEquals(expectedRecords[record], appended.getRecords()[record]);
+            for (int record = 0; record < 5; record++)
+                assertArrayEquals(firstBatch[record], appended.getRecords()[numRecords + record]);
+            assertArrayEquals(secondBatch[0], appended.getRecords()[numRecords + 5]);
+            assertEquals(numRecords + 6, appended.getStatistics(3).getNumRecords());
+            assertEquals(26, appended.getColumn(3).cardinality());
+            assertEquals("new", appended.getColumns()[6][numRecords + 5]);
+
+            // Consumers that poll the relation catch up from the version they have processed
+            assertEquals(numRecords, appended.changesSince(0).getFrom());
+            assertEquals(numRecords + 5, appended.changesSince(1).getFrom());
+            assertTrue(appended.changesSince(2).isEmpty());
+        }
+    }
+
+    @Test
+    public void testAppend_manyBatches() {
+        String[][] expectedRecords = new Relation(SUPPLIER, true, ';', StandardCharsets.UTF_8).getRecords();
+        int middle = expectedRecords.length / 2;
+        LoadOptions[] allOptions = {LoadOptions.defaults(), LoadOptions.defaults().columnar(true)};
+        for (LoadOptions options : allOptions) {
+            Relation relation = new Relation(SUPPLIER, true, ';', StandardCharsets.UTF_8, options);
+            for (int record = 0; record < expectedRecords.length; record += 3) {
+                relation.append(Arrays.copyOfRange(expectedRecords, record, Math.min(record + 3, expectedRecords.length)));
+                assertEquals(expectedRecords.length + Math.min(record + 3, expectedRecords.length), relation.getNumRecords());
+                // Reading the relation between appends must see exactly its records
+                if (record % 30 == 0)
+                    assertEquals(relation.getNumRecords(), relation.getRecords().length);
+            }
+
+            assertEquals(2 * expectedRecords.length, relation.getRecords().length);
+            assertEquals(2 * expectedRecords.length, relation.getColumn(1).getValueIds().length);
+            assertEquals(relation.getColumn(1).cardinality(), relation.getColumn(1).getDictionary().length);
+            for (int record = 0; record < expectedRecords.length; record++)
+                assertArrayEquals(expectedRecords[record], relation.getRecords()[expectedRecords.length + record]);
+            assertEquals(expectedRecords[middle][1], relation.getColumn(1).get(expectedRecords.length + middle));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAppend_sample() {
+        Relation relation = new Relation(SUPPLIER, true, ';', StandardCharsets.UTF_8);
+        relation.sample(10, 42).append(new String[][]{relation.getRecords()[0]});
+    }
+}
@@ -1,13 +1,19 @@
 package de.di.data_profiling;
 
+import de.di.CsvFileRelation;
 import de.di.Relation;
 import de.di.data_profiling.structures.IND;
+import de.di.helper.LoadOptions;
 import org.junit.Test;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class INDProfilerTest {
@@ -25,4 +31,37 @@ public class INDProfilerTest {
         List<IND> inds = profiler.profile(relations, false);
         assertEquals(211, inds.size());
     }
+
+    @Test
+    public void testCorrectness_parallelLoading() {
+        INDProfiler profiler = new INDProfiler();
+        String folderPath = "data" + File.separator + "data_profiling";
+        List<Relation> relations = Relation.readAllRelationsIn(folderPath, true, ';', StandardCharsets.UTF_8);
+        List<Relation> parallelRelations = Relation.readAllRelationsIn(folderPath, true, ';', StandardCharsets.UTF_8,
+                LoadOptions.defaults().loadingThreads(4).memoryBudget(4096));
+
+        assertEquals(relations.size(), parallelRelations.size());
+        for (int i = 0; i < relations.size(); i++) {
+            assertEquals(relations.get(i).getName(), parallelRelations.get(i).getName());
+            assertArrayEquals(relations.get(i).getRecords(), parallelRelations.get(i).getRecords());
+        }
+        assertEquals(profiler.profile(relations, false).toString(), profiler.profile(parallelRelations, false).toString());
+    }
+
+    @Test
+    public void testCorrectness_streaming() {
+        INDProfiler profiler = new INDProfiler();
+        List<Relation> relations = new ArrayList<>();
+        List<CsvFileRelation> fileRelations = new ArrayList<>();
+        for (String file : new String[]{"abcde.csv", "abcdefghi.csv", "tpch_nation.csv", "tpch_region.csv", "tpch_supplier.csv"}) {
+            Path path = Paths.get("data" + File.separator + "data_profiling" + File.separator + file);
+            relations.add(new Relation(path, true, ';', StandardCharsets.UTF_8));
+            fileRelations.add(new CsvFileRelation(path, true, ';', StandardCharsets.UTF_8));
+        }
+
+        List<IND> inds = profiler.profile(relations, false);
+        List<IND> streamedInds = profiler.profile(fileRelations, false);
+        assertEquals(211, streamedInds.size());
+        assertEquals(inds.toString(), streamedInds.toString());
+    }
 }
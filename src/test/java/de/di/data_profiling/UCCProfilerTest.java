@@ -3,12 +3,16 @@ package de.di.data_profiling;
 import de.di.Relation;
 import de.di.data_profiling.structures.AttributeList;
 import de.di.data_profiling.structures.UCC;
+import de.di.helper.LoadOptions;
 import org.junit.Test;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class UCCProfilerTest {
@@ -76,4 +80,18 @@ public class UCCProfilerTest {
         expectedUccs.add(new UCC(relation, new AttributeList(new int[]{3})));
         assertEquals(expectedUccs, uccs);
     }
+
+    @Test
+    public void testCorrectness_columnar() {
+        UCCProfiler profiler = new UCCProfiler();
+        String filePath = "data" + File.separator + "data_profiling" + File.separator + "abcdefghi.csv";
+        Relation rowRelation = new Relation(filePath);
+        Relation columnarRelation = new Relation(Path.of(filePath), true, ';', StandardCharsets.UTF_8, LoadOptions.defaults().columnar(true));
+
+        List<UCC> expectedUccs = new ArrayList<>();
+        for (UCC ucc : profiler.profile(rowRelation))
+            expectedUccs.add(new UCC(columnarRelation, ucc.getAttributeList()));
+        assertEquals(expectedUccs, profiler.profile(columnarRelation));
+        assertArrayEquals(rowRelation.getRecords(), columnarRelation.getRecords());
+    }
 }
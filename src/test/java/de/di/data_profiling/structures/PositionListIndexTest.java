@@ -2,7 +2,10 @@ package de.di.data_profiling.structures;
 
 import org.junit.Test;
 
+import java.util.HashSet;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class PositionListIndexTest {
 
@@ -22,4 +25,14 @@ public class PositionListIndexTest {
         assertEquals(pli4.getClusters(), pli1.intersect(pli2).intersect(pli5).getClusters());
         assertEquals(pli7.getClusters(), pli1.intersect(pli6).intersect(pli3).getClusters());
     }
+
+    @Test
+    public void testValueIdCorrectness() {
+        PositionListIndex pli1 = new PositionListIndex(new AttributeList(new int[]{0}), new String[]{"a", "a", "b", "c", "c", "a"});
+        PositionListIndex pli2 = new PositionListIndex(new AttributeList(new int[]{0}), new int[]{0, 0, 1, 2, 2, 0}, 3);
+
+        assertEquals(new HashSet<>(pli1.getClusters()), new HashSet<>(pli2.getClusters()));
+        assertEquals(pli1.isUnique(), pli2.isUnique());
+        assertTrue(new PositionListIndex(new AttributeList(new int[]{0}), new int[]{2, 0, 1}, 3).isUnique());
+    }
 }
@@ -4,10 +4,12 @@ import de.di.duplicate_detection.structures.AttrSimWeight;
 import de.di.similarity_measures.Jaccard;
 import de.di.similarity_measures.Levenshtein;
 import de.di.similarity_measures.helper.Tokenizer;
+import de.di.similarity_measures.structures.PreparedValues;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -85,4 +87,62 @@ public class RecordComparatorTest {
         double similarity = recordComparator.compare(this.tuple1, this.tuple2);
         assertEquals(0.6485968992248062, similarity, 0.0000000001);
     }
+
+    @Test
+    public void testEarlyAbortDecision() {
+        List<AttrSimWeight> attrSimWeights = new ArrayList<>(5);
+        attrSimWeights.add(new AttrSimWeight(0, new Levenshtein(true), 0.4));
+        attrSimWeights.add(new AttrSimWeight(1, new Jaccard(new Tokenizer(2, false), false), 0.1));
+        attrSimWeights.add(new AttrSimWeight(2, new Levenshtein(false), 0.2));
+        attrSimWeights.add(new AttrSimWeight(3, new Jaccard(new Tokenizer(3, true), false), 0.1));
+        attrSimWeights.add(new AttrSimWeight(4, new Levenshtein(true), 0.2));
+
+        // The early-abort decision must equal the decision on the fully calculated similarity for every threshold
+        Random random = new Random(3);
+        String[][] tuples = {this.tuple1, this.tuple2, mutate(random, this.tuple1), mutate(random, this.tuple1), mutate(random, this.tuple2)};
+        for (double threshold = 0; threshold <= 1.0; threshold += 0.01) {
+            RecordComparator recordComparator = new RecordComparator(attrSimWeights, threshold);
+            for (String[] tupleA : tuples) {
+                for (String[] tupleB : tuples) {
+                    double similarity = recordComparator.compare(tupleA, tupleB);
+                    double boundedSimilarity = recordComparator.compareBounded(tupleA, tupleB);
+                    assertEquals(recordComparator.isDuplicate(similarity), recordComparator.isDuplicate(boundedSimilarity));
+                    if (recordComparator.isDuplicate(similarity))
+                        assertEquals(similarity, boundedSimilarity, 0.0);
+                }
+            }
+        }
+        assertEquals(Double.NEGATIVE_INFINITY, new RecordComparator(attrSimWeights, 0.9).compareBounded(this.tuple1, this.tuple2), 0.0);
+    }
+
+    @Test
+    public void testPreparedComparison() {
+        List<AttrSimWeight> attrSimWeights = new ArrayList<>(5);
+        attrSimWeights.add(new AttrSimWeight(0, new Levenshtein(true), 0.4));
+        attrSimWeights.add(new AttrSimWeight(1, new Jaccard(new Tokenizer(2, false), false), 0.1));
+        attrSimWeights.add(new AttrSimWeight(2, new Levenshtein(false), 0.2));
+        attrSimWeights.add(new AttrSimWeight(3, new Jaccard(new Tokenizer(3, true), true), 0.1));
+        attrSimWeights.add(new AttrSimWeight(4, new Levenshtein(true), 0.2));
+
+        Random random = new Random(5);
+        String[][] records = {this.tuple1, this.tuple2, mutate(random, this.tuple1), mutate(random, this.tuple2)};
+        for (double threshold = 0; threshold <= 1.0; threshold += 0.05) {
+            RecordComparator recordComparator = new RecordComparator(attrSimWeights, threshold);
+            PreparedValues[] prepared = recordComparator.prepare(records);
+            for (int i = 0; i < records.length; i++)
+                for (int j = 0; j < records.length; j++)
+                    assertEquals(recordComparator.compareBounded(records[i], records[j]), recordComparator.compareBounded(records, prepared, i, j), 0.0);
+        }
+    }
+
+    private static String[] mutate(Random random, String[] tuple) {
+        String[] mutated = tuple.clone();
+        for (int attribute = 0; attribute < mutated.length; attribute++) {
+            StringBuilder value = new StringBuilder(mutated[attribute]);
+            for (int edits = random.nextInt(4); edits > 0 && value.length() > 0; edits--)
+                value.setCharAt(random.nextInt(value.length()), (char) ('a' + random.nextInt(26)));
+            mutated[attribute] = value.toString();
+        }
+        return mutated;
+    }
 }
@@ -1,5 +1,6 @@
 package de.di.duplicate_detection;
 
+import de.di.CsvFileRelation;
 import de.di.Relation;
 import de.di.duplicate_detection.structures.AttrSimWeight;
 import de.di.duplicate_detection.structures.Duplicate;
@@ -12,7 +13,11 @@ import org.junit.Test;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 
@@ -46,6 +51,27 @@ public class SortedNeighborhoodTest {
         assertEquals(40, duplicatesDetected.size());
     }
 
+    @Test
+    public void testSortingOrder() {
+        Path path = Paths.get("data" + File.separator + "data_profiling" + File.separator + "tpch_supplier.csv");
+        Relation relation = new Relation(path, true, ';', StandardCharsets.UTF_8);
+        CsvFileRelation fileRelation = new CsvFileRelation(path, true, ';', StandardCharsets.UTF_8);
+
+        int[] order = new int[relation.getRecords().length];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        for (int sortingKey : new int[]{3, 6, 1}) {
+            Integer[] expectedOrder = new Integer[order.length];
+            for (int i = 0; i < order.length; i++)
+                expectedOrder[i] = order[i];
+            Arrays.sort(expectedOrder, Comparator.comparing(record -> relation.getRecords()[record][sortingKey]));
+
+            order = SortedNeighborhood.sortingOrder(fileRelation, sortingKey, order);
+            for (int i = 0; i < order.length; i++)
+                assertEquals(expectedOrder[i].intValue(), order[i]);
+        }
+    }
+
     private List<Duplicate> parseCDGoldstandard(Relation cdGold, Relation cd) {
         List<Duplicate> duplicatesGold = new ArrayList<>(cdGold.getRecords().length);
         for (String[] record : cdGold.getRecords()) {
@@ -0,0 +1,133 @@
+package de.di.helper;
+
+import de.di.Relation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CompressionTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final Path SOURCE = Paths.get("data" + File.separator + "data_profiling" + File.separator + "tpch_supplier.csv");
+
+    @Test
+    public void testDetection() throws IOException {
+        assertEquals(Compression.NONE, Compression.of(SOURCE));
+        assertEquals(Compression.GZIP, Compression.of(this.gzip(SOURCE, "supplier.csv.gz")));
+        assertEquals(Compression.ZIP, Compression.of(this.zip(SOURCE, "supplier.zip")));
+        assertEquals(Compression.ZLIB, Compression.of(this.zlib(SOURCE, "supplier.csv.zz")));
+    }
+
+    @Test
+    public void testCorrectness() throws IOException {
+        Relation expected = new Relation(SOURCE, true, ';', StandardCharsets.UTF_8);
+        Path[] compressedFiles = {this.gzip(SOURCE, "supplier.csv.gz"), this.zip(SOURCE, "supplier.zip"), this.zlib(SOURCE, "supplier.csv.zz")};
+        for (Path compressedFile : compressedFiles) {
+            for (LoadOptions options : new LoadOptions[]{LoadOptions.defaults(), LoadOptions.defaults().memoryMapped(true)}) {
+                Relation relation = new Relation(compressedFile, true, ';', StandardCharsets.UTF_8, options);
+                assertEquals("supplier", relation.getName());
+                assertArrayEquals(expected.getAttributes(), relation.getAttributes());
+                assertArrayEquals(expected.getRecords(), relation.getRecords());
+            }
+        }
+    }
+
+    @Test
+    public void testReadAllRelationsIn() throws IOException {
+        Path input = this.folder.newFolder("input").toPath();
+        Files.copy(SOURCE, input.resolve("plain.csv"));
+        this.gzip(SOURCE, "input" + File.separator + "compressed.csv.gz");
+
+        List<Relation> relations = Relation.readAllRelationsIn(input.toString(), true, ';', StandardCharsets.UTF_8);
+        assertEquals(2, relations.size());
+        assertArrayEquals(relations.get(0).getRecords(), relations.get(1).getRecords());
+    }
+
+    @Test
+    public void testZstandardIsRejected() throws IOException {
+        Path path = this.folder.newFile("supplier.csv.zst").toPath();
+        Files.write(path, new byte[]{0x28, (byte) 0xB5, 0x2F, (byte) 0xFD, 0, 0, 0, 0});
+        assertEquals(Compression.ZSTD, Compression.of(path));
+        try {
+            new Relation(path, true, ';', StandardCharsets.UTF_8);
+            fail("Zstandard input should be rejected");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("Zstandard"));
+        }
+    }
+
+    @Test
+    public void testPipelinedStream() throws IOException {
+        byte[] data = new byte[1_000_003];
+        new Random(1).nextBytes(data);
+        Path path = this.folder.newFile("random.bin").toPath();
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(path))) {
+            out.write(data);
+        }
+        try (InputStream in = Compression.open(path)) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+
+        // A corrupted stream fails on the consumer side instead of silently ending early
+        byte[] corrupted = Files.readAllBytes(path);
+        corrupted[corrupted.length / 2] ^= 0x5A;
+        corrupted[corrupted.length / 2 + 1] ^= 0x5A;
+        Files.write(path, corrupted);
+        try (InputStream in = Compression.open(path)) {
+            in.readAllBytes();
+            fail("A corrupted stream should fail");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private Path gzip(Path source, String name) throws IOException {
+        Path target = this.folder.getRoot().toPath().resolve(name);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(target))) {
+            Files.copy(source, out);
+        }
+        return target;
+    }
+
+    private Path zip(Path source, String name) throws IOException {
+        Path target = this.folder.getRoot().toPath().resolve(name);
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(target))) {
+            out.putNextEntry(new ZipEntry("folder/"));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("folder/" + source.getFileName()));
+            Files.copy(source, out);
+            out.closeEntry();
+        }
+        return target;
+    }
+
+    private Path zlib(Path source, String name) throws IOException {
+        Path target = this.folder.getRoot().toPath().resolve(name);
+        try (OutputStream out = new DeflaterOutputStream(Files.newOutputStream(target))) {
+            Files.copy(source, out);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,84 @@
+package de.di.helper;
+
+import de.di.Relation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class MappedCsvParserTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCorrectness_dataProfiling() throws IOException {
+        for (String file : new String[]{"abcde.csv", "abcdefghi.csv", "tpch_nation.csv", "tpch_region.csv", "tpch_supplier.csv"}) {
+            Path path = Paths.get("data" + File.separator + "data_profiling" + File.separator + file);
+            assertSameRecords(path, true, ';', StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testCorrectness_duplicateDetection() throws IOException {
+        Path path = Paths.get("data" + File.separator + "duplicate_detection" + File.separator + "cd_gold.csv");
+        assertSameRecords(path, true, ';', StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    public void testCorrectness_quoting() throws IOException {
+        String content = "a;b;c\n" +
+                "\"x;y\";\"with \"\"quotes\"\"\";plain\r\n" +
+                "\"multi\nline\";es\\;caped;\"\"\n" +
+                "\n" +
+                ";;\r" +
+                "mid\"qu\"ote;\\\\;\"open\r\nclose\"\n" +
+                "last;record;without newline";
+        for (int chunkSize = 1; chunkSize < content.length(); chunkSize++)
+            assertSameRecords(this.write(content), true, ';', StandardCharsets.UTF_8, chunkSize);
+        assertSameRecords(this.write(content), false, ';', StandardCharsets.UTF_8, 3);
+    }
+
+    @Test
+    public void testCorrectness_multiByteCharacters() throws IOException {
+        String content = "name,city\nJürgen,Köln\n\"Ærø, Ø\",Århus\nZoë,\"日本\n語\"\n";
+        for (int chunkSize = 1; chunkSize < 16; chunkSize++)
+            assertSameRecords(this.write(content), true, ',', StandardCharsets.UTF_8, chunkSize);
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnterminatedQuote() throws IOException {
+        new MappedCsvParser(',', StandardCharsets.UTF_8, 2, 4).parse(this.write("a,b\n\"open,c\nd,e\n"), true);
+    }
+
+    private Path write(String content) throws IOException {
+        Path path = this.folder.newFile().toPath();
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    private static void assertSameRecords(Path path, boolean hasHeader, char separator, Charset charset) throws IOException {
+        assertSameRecords(path, hasHeader, separator, charset, 64);
+        Relation mapped = new Relation(path, hasHeader, separator, charset, LoadOptions.defaults().memoryMapped(true));
+        Relation sequential = new Relation(path, hasHeader, separator, charset);
+        assertArrayEquals(sequential.getAttributes(), mapped.getAttributes());
+        assertArrayEquals(sequential.getRecords(), mapped.getRecords());
+    }
+
+    private static void assertSameRecords(Path path, boolean hasHeader, char separator, Charset charset, int chunkSize) throws IOException {
+        Relation sequential = new Relation(path, hasHeader, separator, charset);
+        MappedCsvParser.ParsedCsv parsed = new MappedCsvParser(separator, charset, 4, chunkSize).parse(path, hasHeader);
+        if (hasHeader)
+            assertArrayEquals(sequential.getAttributes(), parsed.getHeader());
+        assertArrayEquals(sequential.getRecords(), parsed.getRecords());
+    }
+}
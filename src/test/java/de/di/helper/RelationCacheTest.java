@@ -0,0 +1,95 @@
+package de.di.helper;
+
+import de.di.Relation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RelationCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path cacheDirectory = this.folder.newFolder("cache").toPath();
+        LoadOptions options = LoadOptions.defaults().cacheDirectory(cacheDirectory);
+        for (String file : new String[]{"abcde.csv", "abcdefghi.csv", "tpch_nation.csv", "tpch_region.csv", "tpch_supplier.csv"}) {
+            Path path = Paths.get("data" + File.separator + "data_profiling" + File.separator + file);
+            Relation expected = new Relation(path, true, ';', StandardCharsets.UTF_8);
+
+            Relation parsed = new Relation(path, true, ';', StandardCharsets.UTF_8, options);
+            assertTrue(Files.isRegularFile(new RelationCache(cacheDirectory).cacheFileOf(path)));
+            assertNotNull(new RelationCache(cacheDirectory).read(path, true, ';', StandardCharsets.UTF_8));
+
+            Relation cached = new Relation(path, true, ';', StandardCharsets.UTF_8, options);
+            for (Relation relation : new Relation[]{parsed, cached}) {
+                assertEquals(expected.getName(), relation.getName());
+                assertArrayEquals(expected.getAttributes(), relation.getAttributes());
+                assertArrayEquals(expected.getRecords(), relation.getRecords());
+                for (int attribute = 0; attribute < expected.getAttributes().length; attribute++)
+                    assertEquals(expected.getStatistics(attribute).toString(), relation.getStatistics(attribute).toString());
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidation() throws IOException {
+        Path cacheDirectory = this.folder.newFolder("cache").toPath();
+        RelationCache cache = new RelationCache(cacheDirectory);
+        LoadOptions options = LoadOptions.defaults().cacheDirectory(cacheDirectory);
+        Path path = this.folder.newFile("relation.csv").toPath();
+        Files.write(path, "a;b\n1;2\n3;4\n".getBytes(StandardCharsets.UTF_8));
+        FileTime modified = Files.getLastModifiedTime(path);
+
+        new Relation(path, true, ';', StandardCharsets.UTF_8, options);
+        assertNotNull(cache.read(path, true, ';', StandardCharsets.UTF_8));
+
+        // Different parse options must not use the cache file
+        assertNull(cache.read(path, false, ';', StandardCharsets.UTF_8));
+        assertNull(cache.read(path, true, ',', StandardCharsets.UTF_8));
+        assertNull(cache.read(path, true, ';', StandardCharsets.ISO_8859_1));
+
+        // A changed file with equal size and modification time is still detected by its checksum
+        Files.write(path, "a;b\n1;2\n3;5\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(path, modified);
+        assertNull(cache.read(path, true, ';', StandardCharsets.UTF_8));
+
+        Relation relation = new Relation(path, true, ';', StandardCharsets.UTF_8, options);
+        assertEquals("5", relation.getRecords()[1][1]);
+        assertEquals("5", new Relation(path, true, ';', StandardCharsets.UTF_8, options).getRecords()[1][1]);
+
+        // A corrupted cache file is treated as a cache miss
+        Files.write(cache.cacheFileOf(path), new byte[]{1, 2, 3});
+        assertNull(cache.read(path, true, ';', StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCacheDirectoryIsSkipped() throws IOException {
+        Path input = this.folder.newFolder("input").toPath();
+        for (String file : new String[]{"abcde.csv", "tpch_region.csv"})
+            Files.copy(Paths.get("data" + File.separator + "data_profiling" + File.separator + file), input.resolve(file), StandardCopyOption.REPLACE_EXISTING);
+        LoadOptions options = LoadOptions.defaults().cacheDirectory(input.resolve("cache"));
+
+        List<Relation> relations = Relation.readAllRelationsIn(input.toString(), true, ';', StandardCharsets.UTF_8, options);
+        assertEquals(2, relations.size());
+        relations = Relation.readAllRelationsIn(input.toString(), true, ';', StandardCharsets.UTF_8, options);
+        assertEquals(2, relations.size());
+    }
+}
@@ -0,0 +1,57 @@
+package de.di.helper;
+
+import de.di.Relation;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ValueInternerTest {
+
+    @Test
+    public void testIntern() {
+        ValueInterner interner = new ValueInterner(2);
+        String a = "a";
+        String b = "b";
+
+        assertSame(a, interner.intern(0, a));
+        assertSame(a, interner.intern(0, new String(a)));
+        assertSame(b, interner.intern(1, b));
+        assertSame(b, interner.intern(0, b));
+        assertFalse(interner.isOverflowed(0));
+
+        // The third distinct value overflows the table of column 0, but not the one of column 1
+        String c = new String("c");
+        assertSame(c, interner.intern(0, c));
+        assertTrue(interner.isOverflowed(0));
+        assertNotSame(a, interner.intern(0, new String(a)));
+        assertSame(b, interner.intern(1, new String(b)));
+        assertFalse(interner.isOverflowed(1));
+    }
+
+    @Test
+    public void testInternedLoad() {
+        Path path = Paths.get("data" + File.separator + "data_profiling" + File.separator + "tpch_supplier.csv");
+        Relation relation = new Relation(path, true, ';', StandardCharsets.UTF_8);
+        for (LoadOptions options : new LoadOptions[]{LoadOptions.defaults().internLimit(100), LoadOptions.defaults().internLimit(100).memoryMapped(true)}) {
+            Relation interned = new Relation(path, true, ';', StandardCharsets.UTF_8, options);
+            assertArrayEquals(relation.getRecords(), interned.getRecords());
+
+            // S_NATIONKEY has only 25 distinct values, so all of its equal values share one instance
+            String[][] records = interned.getRecords();
+            for (String[] record : records)
+                if (record[3].equals(records[0][3]))
+                    assertSame(records[0][3], record[3]);
+            assertEquals(25, interned.getColumn(3).cardinality());
+        }
+    }
+}
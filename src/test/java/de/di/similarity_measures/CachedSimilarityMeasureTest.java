@@ -0,0 +1,49 @@
+package de.di.similarity_measures;
+
+import de.di.similarity_measures.helper.Tokenizer;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CachedSimilarityMeasureTest {
+
+    @Test
+    public void testCaching() {
+        Levenshtein levenshtein = new Levenshtein(true);
+        CachedSimilarityMeasure cached = new CachedSimilarityMeasure(levenshtein, 2);
+
+        assertEquals(levenshtein.calculate("Germany", "Germnay"), cached.calculate("Germany", "Germnay"), 0.0);
+        assertEquals(levenshtein.calculate("Germany", "Germnay"), cached.calculate("Germnay", "Germany"), 0.0);
+        assertEquals(1, cached.getHits());
+        assertEquals(1, cached.getMisses());
+
+        // The least recently used pair is evicted
+        cached.calculate("France", "Frankreich");
+        cached.calculate("Germany", "Germnay");
+        cached.calculate("Spain", "Spanien");
+        assertEquals(2, cached.size());
+        cached.calculate("Germany", "Germnay");
+        cached.calculate("France", "Frankreich");
+        assertEquals(3, cached.getHits());
+        assertEquals(4, cached.getMisses());
+        assertEquals(3.0 / 7, cached.hitRate(), 0.0);
+
+        cached.clear();
+        assertEquals(0, cached.size());
+        assertEquals(0, cached.hitRate(), 0.0);
+    }
+
+    @Test
+    public void testHashCollisions() {
+        // "Aa" and "BB" share their hash code, so their pairs share a key
+        Jaccard jaccard = new Jaccard(new Tokenizer(1, false), false);
+        CachedSimilarityMeasure cached = new CachedSimilarityMeasure(jaccard, 10);
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+
+        assertEquals(jaccard.calculate("Aa", "Ab"), cached.calculate("Aa", "Ab"), 0.0);
+        assertEquals(jaccard.calculate("BB", "Ab"), cached.calculate("BB", "Ab"), 0.0);
+        assertEquals(0, cached.getHits());
+        assertEquals(jaccard.calculate("BB", "Ab"), cached.calculate("Ab", "BB"), 0.0);
+        assertEquals(1, cached.getHits());
+    }
+}
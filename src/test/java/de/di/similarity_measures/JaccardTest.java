@@ -1,8 +1,12 @@
 package de.di.similarity_measures;
 
+import de.di.similarity_measures.helper.TokenDictionary;
 import de.di.similarity_measures.helper.Tokenizer;
+import de.di.similarity_measures.structures.PreparedValues;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 public class JaccardTest {
@@ -76,4 +80,93 @@ public class JaccardTest {
         result = jaccard.calculate(new String[]{"a", "", "a", "b", "c", "", "d"}, new String[]{"a", "b", "", "b", "c", "f", ""});
         assertEquals((double) 4 / 6, result, 0.000001);
     }
+
+    @Test
+    public void testHashedTokensMatchStringTokens() {
+        Random random = new Random(11);
+        for (int tokenSize = 1; tokenSize <= 6; tokenSize++) {
+            for (boolean usePadding : new boolean[]{false, true}) {
+                for (boolean bagSemantics : new boolean[]{false, true}) {
+                    Tokenizer tokenizer = new Tokenizer(tokenSize, usePadding);
+                    Jaccard jaccard = new Jaccard(tokenizer, bagSemantics);
+                    for (int run = 0; run < 200; run++) {
+                        String string1 = randomString(random);
+                        String string2 = random.nextBoolean() ? randomString(random) : string1 + randomString(random);
+                        double expected = jaccard.calculate(tokenizer.tokenize(string1), tokenizer.tokenize(string2));
+                        assertEquals(expected, jaccard.calculate(string1, string2), 0.0);
+
+                        long[] tokens1 = tokenizer.tokenizeHashed(string1);
+                        long[] tokens2 = tokenizer.tokenizeHashed(string2);
+                        assertEquals(expected, jaccard.calculate(tokens1, tokens1.length, tokens2, tokens2.length), 0.0);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String randomString(Random random) {
+        StringBuilder builder = new StringBuilder();
+        for (int length = random.nextInt(10); length > 0; length--)
+            builder.append((char) ('a' + random.nextInt(3)));
+        return builder.toString();
+    }
+
+    @Test
+    public void testTokenIdLists() {
+        Random random = new Random(13);
+        Tokenizer tokenizer = new Tokenizer(1, false);
+        TokenDictionary dictionary = new TokenDictionary();
+        for (Jaccard measure : new Jaccard[]{new Jaccard(tokenizer, false), new Jaccard(tokenizer, true)}) {
+            for (int run = 0; run < 500; run++) {
+                String[] tokens1 = tokenizer.tokenize(randomString(random));
+                String[] tokens2 = tokenizer.tokenize(randomString(random));
+                assertEquals(measure.calculate(tokens1, tokens2), measure.calculate(dictionary.encode(tokens1), dictionary.encode(tokens2)), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testUnknownTokenIds() {
+        Tokenizer tokenizer = new Tokenizer(1, false);
+        TokenDictionary dictionary = new TokenDictionary();
+        dictionary.encode(tokenizer.tokenize("abc"));
+        for (Jaccard measure : new Jaccard[]{new Jaccard(tokenizer, false), new Jaccard(tokenizer, true)}) {
+            // Unknown tokens that occur at most once per list do not match each other
+            String[] tokens1 = tokenizer.tokenize("abx");
+            String[] tokens2 = tokenizer.tokenize("aby");
+            assertEquals(measure.calculate(tokens1, tokens2), measure.calculate(dictionary.lookup(tokens1), dictionary.lookup(tokens2)), 0.0);
+            assertEquals(0.0, measure.calculate(new int[]{-1}, new int[]{-1}), 0.0);
+        }
+    }
+
+    @Test
+    public void testLowerBound() {
+        Random random = new Random(31);
+        Tokenizer tokenizer = new Tokenizer(2, true);
+        for (Jaccard measure : new Jaccard[]{new Jaccard(tokenizer, false), new Jaccard(tokenizer, true)}) {
+            String[] values = new String[300];
+            for (int i = 0; i < values.length; i++)
+                values[i] = randomString(random) + randomString(random);
+            PreparedValues prepared = measure.prepare(values);
+
+            for (int run = 0; run < 2000; run++) {
+                int i = random.nextInt(values.length);
+                int j = random.nextInt(values.length);
+                double exact = measure.calculate(values[i], values[j]);
+                double lowerBound = (run % 5 == 0) ? exact : random.nextDouble() * 0.8;
+                for (double bounded : new double[]{measure.calculate(values[i], values[j], lowerBound), prepared.calculate(i, prepared, j, lowerBound)}) {
+                    if (exact >= lowerBound)
+                        assertEquals(exact, bounded, 0.0);
+                    else if (bounded != SimilarityMeasure.BELOW_BOUND)
+                        assertEquals(exact, bounded, 0.0);
+                }
+            }
+        }
+
+        // Token lists whose sizes differ too much are rejected by their sizes
+        Jaccard jaccard = new Jaccard(new Tokenizer(1, false), false);
+        assertEquals(SimilarityMeasure.BELOW_BOUND, jaccard.calculate("ab", "abcdef", 0.5), 0.0);
+        assertEquals(1.0 / 3, jaccard.calculate("ab", "abcdef", 0.3), 0.000001);
+        assertEquals(SimilarityMeasure.BELOW_BOUND, new Jaccard(new Tokenizer(1, false), true).calculate("ab", "abcdef", 0.3), 0.0);
+    }
 }
@@ -0,0 +1,44 @@
+package de.di.similarity_measures;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class JaroWinklerTest {
+
+    @Test
+    public void testCorrectnessStrings() {
+        JaroWinkler jaroWinkler = new JaroWinkler();
+        assertEquals(0.961111, jaroWinkler.calculate("MARTHA", "MARHTA"), 0.000001);
+        assertEquals(0.840000, jaroWinkler.calculate("DWAYNE", "DUANE"), 0.000001);
+        assertEquals(0.813333, jaroWinkler.calculate("DIXON", "DICKSONX"), 0.000001);
+        assertEquals(1.0, jaroWinkler.calculate("Tina", "Tina"), 0.0);
+        assertEquals(0.0, jaroWinkler.calculate("abc", "xyz"), 0.0);
+
+        // Without boost, the Jaro similarity remains
+        assertEquals(0.944444, new JaroWinkler(0.1, 1.0).calculate("MARTHA", "MARHTA"), 0.000001);
+    }
+
+    @Test
+    public void testCorrectnessSubstrings() {
+        JaroWinkler jaroWinkler = new JaroWinkler();
+        assertEquals(jaroWinkler.calculate("MARTHA", "MARHTA"), jaroWinkler.calculate("xMARTHAx", 1, 7, "MARHTA!", 0, 6), 0.0);
+        assertEquals(jaroWinkler.calculate("DWAYNE", "DUANE"), jaroWinkler.calculate("DUANE", "DWAYNE"), 0.0);
+    }
+
+    @Test
+    public void testCorrectnessStringLists() {
+        JaroWinkler jaroWinkler = new JaroWinkler();
+        String[] tokens1 = new String[]{"M", "A", "R", "T", "H", "A"};
+        String[] tokens2 = new String[]{"M", "A", "R", "H", "T", "A"};
+        assertEquals(jaroWinkler.calculate("MARTHA", "MARHTA"), jaroWinkler.calculate(tokens1, tokens2), 0.0);
+    }
+
+    @Test
+    public void testNull() {
+        JaroWinkler jaroWinkler = new JaroWinkler();
+        assertEquals(1.0, jaroWinkler.calculate("", ""), 0.0);
+        assertEquals(0.0, jaroWinkler.calculate("", "Tina"), 0.0);
+        assertEquals(0.0, jaroWinkler.calculate(new String[0], new String[]{"Tina"}), 0.0);
+    }
+}
@@ -0,0 +1,73 @@
+package de.di.similarity_measures;
+
+import de.di.similarity_measures.helper.Tokenizer;
+import de.di.similarity_measures.structures.SimilarPair;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LSHIndexTest {
+
+    @Test
+    public void testSelfJoin() {
+        // Groups of near-duplicate strings, so that pairs within a group are much more similar than pairs across groups
+        Random random = new Random(17);
+        Tokenizer tokenizer = new Tokenizer(3, true);
+        String[] strings = new String[200];
+        for (int group = 0; group < 50; group++) {
+            String base = randomString(random, 40);
+            for (int member = 0; member < 4; member++) {
+                StringBuilder builder = new StringBuilder(base);
+                builder.setCharAt(random.nextInt(builder.length()), (char) ('a' + random.nextInt(26)));
+                strings[4 * group + member] = builder.toString();
+            }
+        }
+
+        for (boolean onePermutation : new boolean[]{false, true}) {
+            LSHIndex index = new LSHIndex(32, 4, onePermutation, 3);
+            for (String string : strings)
+                index.add(tokenizer.tokenizeHashed(string));
+            assertEquals(strings.length, index.size());
+
+            double threshold = 0.6;
+            List<SimilarPair> pairs = index.selfJoin(threshold);
+            Set<SimilarPair> found = new HashSet<>(pairs);
+            assertEquals(pairs.size(), found.size());
+            for (SimilarPair pair : pairs)
+                assertTrue(pair.getSimilarity() >= threshold);
+
+            // All pairs with a clearly higher exact similarity must be found
+            Jaccard jaccard = new Jaccard(tokenizer, false);
+            for (int i = 0; i < strings.length; i++)
+                for (int j = i + 1; j < strings.length; j++)
+                    if (jaccard.calculate(strings[i], strings[j]) >= 0.8)
+                        assertTrue(found.contains(new SimilarPair(i, j, 0)));
+
+            int[] similar = index.query(tokenizer.tokenizeHashed(strings[5]), 1.0);
+            assertTrue(Arrays.binarySearch(similar, 5) >= 0);
+        }
+    }
+
+    @Test
+    public void testForThreshold() {
+        LSHIndex index = LSHIndex.forThreshold(0.5, 128, true, 0);
+        assertTrue(index.getBands() * index.getRows() <= 128);
+        assertEquals(0.5, Math.pow(1.0 / index.getBands(), 1.0 / index.getRows()), 0.1);
+        assertEquals(0, index.add(new long[0]));
+        assertEquals(0, index.query(new long[0], 0.0).length);
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++)
+            builder.append((char) ('a' + random.nextInt(26)));
+        return builder.toString();
+    }
+}
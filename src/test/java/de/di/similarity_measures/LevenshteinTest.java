@@ -1,7 +1,11 @@
 package de.di.similarity_measures;
 
+import de.di.similarity_measures.helper.TokenDictionary;
+import de.di.similarity_measures.helper.Tokenizer;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 public class LevenshteinTest {
@@ -77,4 +81,119 @@ public class LevenshteinTest {
         result = levenshtein.calculate(new String[]{"a", "", "a", "b", "c", "c", ""}, new String[]{"a", "", "a", "b", "c", "f", "e"});
         assertEquals(1 - (double) 2 / 7, result, 0.000001);
     }
+
+    @Test
+    public void testBitParallelDistance() {
+        // Short and long strings over small alphabets with characters inside and outside the Latin-1 range
+        char[] alphabet = {'a', 'b', 'c', ' ', '\u00e4', '\u0416', '\u4e2d'};
+        Random random = new Random(42);
+        for (int run = 0; run < 2000; run++) {
+            int maxLength = (run % 4 == 0) ? 200 : 70;
+            String string1 = randomString(random, alphabet, random.nextInt(maxLength));
+            String string2 = (run % 3 == 0) ? mutate(random, alphabet, string1) : randomString(random, alphabet, random.nextInt(maxLength));
+
+            assertEquals(matrixDistance(string1, string2, false), Levenshtein.distance(string1, string2, false));
+            assertEquals(matrixDistance(string1, string2, true), Levenshtein.distance(string1, string2, true));
+        }
+        assertEquals(Double.NaN, new Levenshtein(false).calculate("", ""), 0.0);
+    }
+
+    @Test
+    public void testBoundedDistance() {
+        char[] alphabet = {'a', 'b', 'c', 'd', '\u00e4', '\u4e2d'};
+        Random random = new Random(7);
+        for (int run = 0; run < 3000; run++) {
+            int maxLength = (run % 4 == 0) ? 150 : 40;
+            String string1 = randomString(random, alphabet, random.nextInt(maxLength));
+            String string2 = (run % 2 == 0) ? mutate(random, alphabet, string1) : randomString(random, alphabet, random.nextInt(maxLength));
+            int maxDistance = random.nextInt(12);
+
+            for (boolean withDamerau : new boolean[]{false, true}) {
+                int expected = Math.min(matrixDistance(string1, string2, withDamerau), maxDistance + 1);
+                assertEquals(expected, Levenshtein.distance(string1, string2, withDamerau, maxDistance));
+            }
+        }
+        assertEquals(3, Levenshtein.distance("abc", "abcdefgh", false, 2));
+        assertEquals(2, Levenshtein.distance("Integrations", "Itnegratoins", true, 2));
+    }
+
+    @Test
+    public void testLowerBound() {
+        char[] alphabet = {'a', 'b', 'c', 'd'};
+        Random random = new Random(19);
+        for (int run = 0; run < 2000; run++) {
+            String string1 = randomString(random, alphabet, 1 + random.nextInt(30));
+            String string2 = (run % 2 == 0) ? mutate(random, alphabet, string1) : randomString(random, alphabet, 1 + random.nextInt(30));
+            for (Levenshtein levenshtein : new Levenshtein[]{new Levenshtein(false), new Levenshtein(true)}) {
+                double exact = levenshtein.calculate(string1, string2);
+                double lowerBound = (run % 5 == 0) ? exact : random.nextDouble();
+                double bounded = levenshtein.calculate(string1, string2, lowerBound);
+                assertEquals(exact >= lowerBound ? exact : SimilarityMeasure.BELOW_BOUND, bounded, 0.0);
+            }
+        }
+        assertEquals(SimilarityMeasure.BELOW_BOUND, new Levenshtein(false).calculate("abc", "abcdefgh", 0.5), 0.0);
+        assertEquals(0.75, new Levenshtein(false).calculate("abcd", "abce", 0.75), 0.0);
+    }
+
+    private static String randomString(Random random, char[] alphabet, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+            builder.append(alphabet[random.nextInt(random.nextBoolean() ? 3 : alphabet.length)]);
+        return builder.toString();
+    }
+
+    private static String mutate(Random random, char[] alphabet, String string) {
+        StringBuilder builder = new StringBuilder(string);
+        for (int edits = random.nextInt(6); edits > 0 && builder.length() > 1; edits--) {
+            int position = random.nextInt(builder.length() - 1);
+            switch (random.nextInt(4)) {
+                case 0:
+                    builder.deleteCharAt(position);
+                    break;
+                case 1:
+                    builder.insert(position, alphabet[random.nextInt(alphabet.length)]);
+                    break;
+                case 2:
+                    builder.setCharAt(position, alphabet[random.nextInt(alphabet.length)]);
+                    break;
+                default:
+                    char c = builder.charAt(position);
+                    builder.setCharAt(position, builder.charAt(position + 1));
+                    builder.setCharAt(position + 1, c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static int matrixDistance(String string1, String string2, boolean withDamerau) {
+        int[][] distance = new int[string1.length() + 1][string2.length() + 1];
+        for (int i = 0; i <= string1.length(); i++)
+            distance[i][0] = i;
+        for (int j = 0; j <= string2.length(); j++)
+            distance[0][j] = j;
+        for (int i = 1; i <= string1.length(); i++) {
+            for (int j = 1; j <= string2.length(); j++) {
+                int cost = (string1.charAt(i - 1) == string2.charAt(j - 1)) ? 0 : 1;
+                distance[i][j] = Math.min(Math.min(distance[i - 1][j] + 1, distance[i][j - 1] + 1), distance[i - 1][j - 1] + cost);
+                if (withDamerau && i > 1 && j > 1 && string1.charAt(i - 1) == string2.charAt(j - 2) && string1.charAt(i - 2) == string2.charAt(j - 1))
+                    distance[i][j] = Math.min(distance[i][j], distance[i - 2][j - 2] + 1);
+            }
+        }
+        return distance[string1.length()][string2.length()];
+    }
+
+    @Test
+    public void testTokenIdLists() {
+        Random random = new Random(13);
+        char[] alphabet = "abcd".toCharArray();
+        Tokenizer tokenizer = new Tokenizer(1, false);
+        TokenDictionary dictionary = new TokenDictionary();
+        for (Levenshtein measure : new Levenshtein[]{new Levenshtein(false), new Levenshtein(true)}) {
+            for (int run = 0; run < 500; run++) {
+                String[] tokens1 = tokenizer.tokenize(randomString(random, alphabet, random.nextInt(9)));
+                String[] tokens2 = tokenizer.tokenize(randomString(random, alphabet, random.nextInt(9)));
+                assertEquals(measure.calculate(tokens1, tokens2), measure.calculate(dictionary.encode(tokens1), dictionary.encode(tokens2)), 0.0);
+            }
+        }
+    }
 }
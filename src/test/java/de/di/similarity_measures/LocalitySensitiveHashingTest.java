@@ -3,6 +3,8 @@ package de.di.similarity_measures;
 import de.di.similarity_measures.helper.Tokenizer;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 public class LocalitySensitiveHashingTest {
@@ -48,4 +50,54 @@ public class LocalitySensitiveHashingTest {
         result = localitySensitiveHashing.calculate(new String[]{"aa", "", "ab", "ba", "cb", "", "da"}, new String[]{"", "bb", "ab", "ba", "cb", "fa", "eb"});
         assertEquals((double) 1 / 1, result, 0.000001);
     }
+
+    @Test
+    public void testHashedSignatures() {
+        String string1 = "Similarity Measures, Data Profiling, Schema Matching, Duplicate Detection";
+        String string2 = "similartiy_measurse, dataa_prufiling, schema_matsching, duplicate_erkennung";
+        for (boolean bagSemantics : new boolean[]{false, true}) {
+            double expected = new Jaccard(new Tokenizer(2, false), bagSemantics).calculate(string1, string2);
+            for (boolean onePermutation : new boolean[]{false, true}) {
+                LocalitySensitiveHashing localitySensitiveHashing = new LocalitySensitiveHashing(new Tokenizer(2, false), bagSemantics, 512, onePermutation);
+                long[] signature1 = localitySensitiveHashing.signature(string1);
+                assertEquals(expected, localitySensitiveHashing.estimate(signature1, localitySensitiveHashing.signature(string2)), 0.1);
+                assertEquals(bagSemantics ? 0.5 : 1.0, localitySensitiveHashing.estimate(signature1, localitySensitiveHashing.signature(string1)), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testLowerBound() {
+        Random random = new Random(37);
+        for (boolean bagSemantics : new boolean[]{false, true}) {
+            LocalitySensitiveHashing positional = new LocalitySensitiveHashing(new Tokenizer(4, false), bagSemantics, 4);
+            LocalitySensitiveHashing hashed = new LocalitySensitiveHashing(new Tokenizer(2, false), bagSemantics, 100);
+            for (int run = 0; run < 1000; run++) {
+                String string1 = randomString(random);
+                String string2 = (run % 2 == 0) ? string1.substring(random.nextInt(string1.length() / 2 + 1)) : randomString(random);
+
+                double exact = positional.calculate(string1, string2);
+                double lowerBound = (run % 5 == 0) ? exact : random.nextDouble();
+                assertBounded(exact, lowerBound, positional.calculate(string1, string2, lowerBound));
+
+                long[] signature1 = hashed.signature(string1);
+                long[] signature2 = hashed.signature(string2);
+                exact = hashed.estimate(signature1, signature2);
+                lowerBound = (run % 5 == 0) ? exact : random.nextDouble();
+                assertBounded(exact, lowerBound, hashed.estimate(signature1, signature2, lowerBound));
+            }
+        }
+    }
+
+    private static void assertBounded(double exact, double lowerBound, double bounded) {
+        if (exact >= lowerBound || bounded != SimilarityMeasure.BELOW_BOUND)
+            assertEquals(exact, bounded, 0.0);
+    }
+
+    private static String randomString(Random random) {
+        StringBuilder builder = new StringBuilder();
+        for (int length = 4 + random.nextInt(20); length > 0; length--)
+            builder.append((char) ('a' + random.nextInt(4)));
+        return builder.toString();
+    }
 }
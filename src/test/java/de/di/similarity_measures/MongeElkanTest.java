@@ -0,0 +1,58 @@
+package de.di.similarity_measures;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MongeElkanTest {
+
+    @Test
+    public void testCorrectnessStrings() {
+        JaroWinkler jaroWinkler = new JaroWinkler();
+        MongeElkan mongeElkan = new MongeElkan(jaroWinkler, false);
+
+        // Every word finds its best match, no matter where it is
+        assertEquals(1.0, mongeElkan.calculate("Paul Johnson", "Johnson  Paul"), 0.0);
+        double expected = (jaroWinkler.calculate("Paul", "Paule") + jaroWinkler.calculate("Johnson", "Johson")) / 2;
+        assertEquals(expected, mongeElkan.calculate("Paul Johnson", "Johson Paule"), 0.000001);
+
+        // The directed measure is asymmetric, the symmetric one averages both directions
+        double forward = mongeElkan.calculate("Paul", "Paul Johnson");
+        double backward = mongeElkan.calculate("Paul Johnson", "Paul");
+        assertEquals(1.0, forward, 0.0);
+        assertEquals((forward + backward) / 2, new MongeElkan(jaroWinkler, true).calculate("Paul", "Paul Johnson"), 0.000001);
+    }
+
+    @Test
+    public void testInnerMeasures() {
+        // Inner measures other than Jaro-Winkler receive the words as strings and must yield the same results
+        JaroWinkler jaroWinkler = new JaroWinkler();
+        SimilarityMeasure wrapped = new SimilarityMeasure() {
+            @Override
+            public double calculate(String string1, String string2) {
+                return jaroWinkler.calculate(string1, string2);
+            }
+
+            @Override
+            public double calculate(String[] strings1, String[] strings2) {
+                return jaroWinkler.calculate(strings1, strings2);
+            }
+        };
+        String string1 = " The Dark Side of the Moon ";
+        String string2 = "Dark Side Of The Moon (Remastered)";
+        assertEquals(new MongeElkan(jaroWinkler, true).calculate(string1, string2), new MongeElkan(wrapped, true).calculate(string1, string2), 0.0);
+        assertEquals(new MongeElkan(jaroWinkler, true).calculate(string1, string2),
+                new MongeElkan(jaroWinkler, true).calculate(string1.trim().split("\\s+"), string2.split("\\s+")), 0.000001);
+        Levenshtein levenshtein = new Levenshtein(false);
+        double expected = (levenshtein.calculate("Data", "Datenintegration") + levenshtein.calculate("Integration", "Datenintegration")) / 2;
+        assertEquals(expected, new MongeElkan(levenshtein, false).calculate("Data Integration", "Datenintegration"), 0.000001);
+    }
+
+    @Test
+    public void testNull() {
+        MongeElkan mongeElkan = new MongeElkan(new JaroWinkler(), false);
+        assertEquals(1.0, mongeElkan.calculate("", " "), 0.0);
+        assertEquals(0.0, mongeElkan.calculate("", "Tina"), 0.0);
+        assertEquals(0.0, mongeElkan.calculate("Tina", ""), 0.0);
+    }
+}
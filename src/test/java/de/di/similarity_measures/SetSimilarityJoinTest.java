@@ -0,0 +1,76 @@
+package de.di.similarity_measures;
+
+import de.di.similarity_measures.helper.Tokenizer;
+import de.di.similarity_measures.structures.SimilarPair;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class SetSimilarityJoinTest {
+
+    @Test
+    public void testSelfJoin() {
+        Random random = new Random(23);
+        String[] values = randomValues(random, 300);
+        Tokenizer tokenizer = new Tokenizer(2, true);
+        Jaccard jaccard = new Jaccard(tokenizer, false);
+        SetSimilarityJoin join = new SetSimilarityJoin(tokenizer);
+
+        for (double threshold : new double[]{0.3, 0.5, 0.6, 0.8, 1.0}) {
+            // The join must find exactly the pairs that all-pairs comparisons find
+            List<SimilarPair> expected = new ArrayList<>();
+            for (int i = 0; i < values.length; i++)
+                for (int j = i + 1; j < values.length; j++)
+                    if (jaccard.calculate(values[i], values[j]) >= threshold)
+                        expected.add(new SimilarPair(i, j, jaccard.calculate(values[i], values[j])));
+
+            List<SimilarPair> pairs = join.selfJoin(values, threshold);
+            assertEquals(expected, pairs);
+            for (int p = 0; p < pairs.size(); p++)
+                assertEquals(expected.get(p).getSimilarity(), pairs.get(p).getSimilarity(), 0.0);
+        }
+    }
+
+    @Test
+    public void testJoin() {
+        Random random = new Random(29);
+        String[] values1 = randomValues(random, 150);
+        String[] values2 = randomValues(random, 120);
+        Tokenizer tokenizer = new Tokenizer(3, false);
+        Jaccard jaccard = new Jaccard(tokenizer, false);
+
+        for (double threshold : new double[]{0.4, 0.7}) {
+            List<SimilarPair> expected = new ArrayList<>();
+            for (int i = 0; i < values1.length; i++)
+                for (int j = 0; j < values2.length; j++)
+                    if (jaccard.calculate(values1[i], values2[j]) >= threshold)
+                        expected.add(new SimilarPair(i, j, 0));
+
+            assertEquals(expected, new SetSimilarityJoin(tokenizer).join(values1, values2, threshold));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreshold() {
+        new SetSimilarityJoin(new Tokenizer(2, false)).selfJoin(new String[]{"a", "b"}, 0.0);
+    }
+
+    // Generates short values from a few shared stems, so that the values overlap at many different similarities
+    private static String[] randomValues(Random random, int numValues) {
+        String[] stems = {"integration", "profiling", "matching", "duplicate", "data", "schema"};
+        String[] values = new String[numValues];
+        for (int i = 0; i < numValues; i++) {
+            StringBuilder builder = new StringBuilder(stems[random.nextInt(stems.length)]);
+            for (int edits = random.nextInt(4); edits > 0; edits--)
+                builder.insert(random.nextInt(builder.length() + 1), (char) ('a' + random.nextInt(26)));
+            if (random.nextInt(10) == 0)
+                builder.setLength(0);
+            values[i] = builder.toString();
+        }
+        return values;
+    }
+}
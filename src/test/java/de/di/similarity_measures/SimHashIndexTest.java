@@ -0,0 +1,71 @@
+package de.di.similarity_measures;
+
+import de.di.similarity_measures.helper.Tokenizer;
+import de.di.similarity_measures.structures.SimilarPair;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class SimHashIndexTest {
+
+    @Test
+    public void testSelfJoin() {
+        // Clusters of fingerprints with few flipped bits, so that the join has results at every distance
+        Random random = new Random(11);
+        long[] fingerprints = new long[300];
+        for (int i = 0; i < fingerprints.length; i++) {
+            fingerprints[i] = (i % 3 == 0) ? random.nextLong() : fingerprints[i - 1];
+            for (int flip = random.nextInt(8); flip > 0; flip--)
+                fingerprints[i] ^= 1L << random.nextInt(64);
+        }
+
+        for (int maxDistance : new int[]{0, 3, 6, 10}) {
+            SimHashIndex index = new SimHashIndex(new SimHash(new Tokenizer(3, true)), maxDistance);
+            for (long fingerprint : fingerprints)
+                index.add(fingerprint);
+            assertEquals(fingerprints.length, index.size());
+
+            List<SimilarPair> expected = new ArrayList<>();
+            for (int i = 0; i < fingerprints.length; i++)
+                for (int j = i + 1; j < fingerprints.length; j++)
+                    if (SimHash.hammingDistance(fingerprints[i], fingerprints[j]) <= maxDistance)
+                        expected.add(new SimilarPair(i, j, SimHash.similarity(fingerprints[i], fingerprints[j])));
+            List<SimilarPair> pairs = index.selfJoin();
+            assertEquals(expected, pairs);
+            for (int p = 0; p < pairs.size(); p++)
+                assertEquals(expected.get(p).getSimilarity(), pairs.get(p).getSimilarity(), 0.0);
+
+            for (int i = 0; i < 20; i++) {
+                IntArrayList similar = new IntArrayList();
+                for (int j = 0; j < fingerprints.length; j++)
+                    if (SimHash.hammingDistance(fingerprints[i], fingerprints[j]) <= maxDistance)
+                        similar.add(j);
+                assertArrayEquals(similar.toIntArray(), index.query(fingerprints[i]));
+            }
+        }
+    }
+
+    @Test
+    public void testValues() {
+        SimHash simHash = new SimHash(new Tokenizer(3, true));
+        SimHashIndex index = new SimHashIndex(simHash, 6);
+        String value = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt";
+        index.add(value);
+        index.add("The quick brown fox jumps over the lazy dog and keeps running through the forest");
+        index.add(value);
+        assertEquals(simHash.fingerprint(value), index.getFingerprint(0));
+        assertArrayEquals(new int[]{0, 2}, index.query(value));
+        assertEquals(1.0, index.selfJoin().get(0).getSimilarity(), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDistance() {
+        new SimHashIndex(new SimHash(new Tokenizer(3, true)), 64);
+    }
+}
@@ -0,0 +1,49 @@
+package de.di.similarity_measures;
+
+import de.di.similarity_measures.helper.Tokenizer;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SimHashTest {
+
+    @Test
+    public void testFingerprints() {
+        SimHash simHash = new SimHash(new Tokenizer(3, true));
+        String value = "The quick brown fox jumps over the lazy dog and keeps running through the forest";
+        assertEquals(simHash.fingerprint(value), simHash.fingerprint(value));
+        assertEquals(1.0, simHash.calculate(value, value), 0.0);
+        assertEquals(0L, new SimHash(new Tokenizer(3, false)).fingerprint("ab"));
+        assertEquals(0L, simHash.fingerprint(new String[0]));
+
+        // A small edit changes few bits, an unrelated value about half of them
+        String edited = value.replace("lazy", "lacy");
+        String unrelated = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor";
+        assertTrue(SimHash.hammingDistance(simHash.fingerprint(value), simHash.fingerprint(edited)) <= 12);
+        assertTrue(simHash.calculate(value, edited) > simHash.calculate(value, unrelated));
+    }
+
+    @Test
+    public void testHammingDistance() {
+        assertEquals(0, SimHash.hammingDistance(0x5L, 0x5L));
+        assertEquals(2, SimHash.hammingDistance(0x5L, 0x0L));
+        assertEquals(64, SimHash.hammingDistance(0L, -1L));
+        assertEquals(0.5, SimHash.similarity(0L, 0xFFFFFFFFL), 0.0);
+    }
+
+    @Test
+    public void testStringLists() {
+        SimHash simHash = new SimHash(new Tokenizer(2, false));
+        String[] tokens = new String[]{"ab", "bc", "cd", "de"};
+        assertEquals(1.0, simHash.calculate(tokens, tokens.clone()), 0.0);
+
+        // Every occurrence of a token votes, so a repeated token dominates the fingerprint
+        Random random = new Random(5);
+        long token = random.nextLong();
+        long[] repeated = new long[]{token, token, token, random.nextLong(), random.nextLong()};
+        assertEquals(SimHash.fingerprint(new long[]{token}, 1), SimHash.fingerprint(repeated, repeated.length));
+    }
+}
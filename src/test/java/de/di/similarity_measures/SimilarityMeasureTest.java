@@ -0,0 +1,42 @@
+package de.di.similarity_measures;
+
+import de.di.similarity_measures.helper.Tokenizer;
+import de.di.similarity_measures.structures.PreparedValues;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class SimilarityMeasureTest {
+
+    private final String[] values1 = new String[]{"Data Integration", "Datenintegration", "", "Big Data Systems", "Tim Tim Tina"};
+    private final String[] values2 = new String[]{"Data Integration 2022", "Tina Tim Tim", "Data Profiling"};
+
+    @Test
+    public void testBatchCalculation() {
+        SimilarityMeasure[] measures = new SimilarityMeasure[]{
+                new Levenshtein(false),
+                new Levenshtein(true),
+                new Jaccard(new Tokenizer(2, false), false),
+                new Jaccard(new Tokenizer(3, true), true),
+                new LocalitySensitiveHashing(new Tokenizer(3, false), false, 2)};
+
+        for (SimilarityMeasure measure : measures) {
+            for (boolean parallel : new boolean[]{false, true}) {
+                double[][] block = measure.calculate(this.values1, this.values2, parallel);
+                assertEquals(this.values1.length, block.length);
+                for (int i = 0; i < this.values1.length; i++) {
+                    assertEquals(this.values2.length, block[i].length);
+                    for (int j = 0; j < this.values2.length; j++)
+                        assertEquals(measure.calculate(this.values1[i], this.values2[j]), block[i][j], 0.0);
+                }
+            }
+
+            assertArrayEquals(measure.calculate(this.values1, this.values2, false)[3], measure.calculate(this.values1[3], this.values2), 0.0);
+
+            PreparedValues prepared = measure.prepare(this.values1);
+            assertEquals(this.values1.length, prepared.size());
+            assertEquals(measure.calculate(this.values1[0], this.values1[1]), prepared.calculate(0, prepared, 1), 0.0);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package de.di.similarity_measures;
+
+import de.di.Relation;
+import de.di.similarity_measures.helper.Tokenizer;
+import de.di.similarity_measures.structures.PreparedValues;
+import de.di.similarity_measures.structures.SparseVector;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TfIdfCosineTest {
+
+    private static final String[] CORPUS = new String[]{
+            "abcd", "aef", "abf", "gbfh", "aaa"};
+
+    @Test
+    public void testCorrectnessStrings() {
+        for (boolean bm25 : new boolean[]{false, true}) {
+            TfIdfCosine tfIdfCosine = new TfIdfCosine(new Tokenizer(1, false), bm25, CORPUS);
+            assertEquals(1.0, tfIdfCosine.calculate("abf", "abf"), 0.000001);
+            assertEquals(0.0, tfIdfCosine.calculate("abf", "xyz"), 0.000001);
+
+            // Sharing the rare token "c" counts more than sharing the frequent token "a"
+            assertTrue(tfIdfCosine.calculate("cx", "cy") > tfIdfCosine.calculate("ax", "ay"));
+
+            // Unseen tokens are rare: they are weighted higher than any corpus token and match each other
+            assertEquals(1.0, tfIdfCosine.calculate("az", "az"), 0.000001);
+            assertTrue(tfIdfCosine.calculate("fz", "f") < tfIdfCosine.calculate("fa", "f"));
+        }
+    }
+
+    @Test
+    public void testWeights() {
+        // With TF-IDF, a token's weight is its term frequency times ln((1 + n) / (1 + df)) + 1
+        TfIdfCosine tfIdfCosine = new TfIdfCosine(new Tokenizer(1, false), false, CORPUS);
+        double idfA = Math.log(6.0 / 5.0) + 1;
+        double idfB = Math.log(6.0 / 4.0) + 1;
+        assertEquals(idfA / Math.sqrt(idfA * idfA + idfB * idfB), tfIdfCosine.calculate("ab", "a"), 0.000001);
+        assertEquals(2 * idfA / Math.sqrt(4 * idfA * idfA + idfB * idfB), tfIdfCosine.calculate("aab", "a"), 0.000001);
+
+        // Vectors have unit length and sorted ids
+        SparseVector vector = tfIdfCosine.getVector(3);
+        assertEquals(4, vector.size());
+        assertEquals(1.0, vector.dot(vector), 0.000001);
+        for (int i = 1; i < vector.size(); i++)
+            assertTrue(vector.getIds()[i - 1] < vector.getIds()[i]);
+    }
+
+    @Test
+    public void testPrecomputedVectors() {
+        Relation relation = new Relation(Paths.get("data" + File.separator + "data_profiling" + File.separator + "tpch_supplier.csv"), true, ';', StandardCharsets.UTF_8);
+        int attribute = relation.getAttributes().length - 1;
+        String[] values = relation.getColumns()[attribute];
+        TfIdfCosine tfIdfCosine = TfIdfCosine.fit(relation, attribute, new Tokenizer(3, true), true);
+        assertEquals(values.length, tfIdfCosine.size());
+
+        PreparedValues prepared = tfIdfCosine.prepare(values);
+        for (int i = 0; i < Math.min(50, values.length); i++) {
+            for (int j = 0; j < Math.min(50, values.length); j++) {
+                double similarity = tfIdfCosine.calculate(i, j);
+                assertEquals(tfIdfCosine.calculate(values[i], values[j]), similarity, 0.000001);
+                assertEquals(similarity, prepared.calculate(i, prepared, j), 0.000001);
+                assertTrue(similarity >= 0 && similarity <= 1);
+            }
+        }
+    }
+
+    @Test
+    public void testUnseenTokensKeepDictionary() {
+        TfIdfCosine tfIdfCosine = new TfIdfCosine(new Tokenizer(1, false), false, CORPUS);
+        int size = tfIdfCosine.getDictionary().size();
+        int numLists = tfIdfCosine.getDictionary().numLists();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1.0, tfIdfCosine.calculate("xyz" + i, "xyz" + i), 0.000001);
+            assertTrue(tfIdfCosine.calculate("abx" + i, "aby" + i) < 1.0);
+        }
+        tfIdfCosine.vectorize("xyz");
+        tfIdfCosine.prepare(new String[]{"xyz", "abq"});
+
+        assertEquals(size, tfIdfCosine.getDictionary().size());
+        assertEquals(numLists, tfIdfCosine.getDictionary().numLists());
+    }
+
+    @Test
+    public void testVectorizeWithUnseenTokens() {
+        for (boolean bm25 : new boolean[]{false, true}) {
+            String[] corpus = new String[]{"abc", "abd", "bcd", "aab"};
+            TfIdfCosine tfIdfCosine = new TfIdfCosine(new Tokenizer(1, false), bm25, corpus);
+            for (String value : new String[]{"abxy", "xyzc", "axxyb"}) {
+                SparseVector vector = tfIdfCosine.vectorize(value);
+                for (int i = 0; i < corpus.length; i++)
+                    assertEquals(tfIdfCosine.calculate(value, corpus[i]), vector.dot(tfIdfCosine.getVector(i)), 0.000001);
+            }
+        }
+    }
+
+    @Test
+    public void testUnseenTokensOfDifferentPreparedValues() {
+        TfIdfCosine tfIdfCosine = new TfIdfCosine(new Tokenizer(1, false), false, CORPUS);
+        String[] values1 = new String[]{"xyab", "zzf", "abcd"};
+        String[] values2 = new String[]{"yxba", "q", "zf", "xyz"};
+        PreparedValues prepared1 = tfIdfCosine.prepare(values1);
+        PreparedValues prepared2 = tfIdfCosine.prepare(values2);
+        for (int i = 0; i < values1.length; i++)
+            for (int j = 0; j < values2.length; j++)
+                assertEquals(tfIdfCosine.calculate(values1[i], values2[j]), prepared1.calculate(i, prepared2, j), 0.000001);
+    }
+
+    @Test
+    public void testNull() {
+        TfIdfCosine tfIdfCosine = new TfIdfCosine(new Tokenizer(1, false), false, CORPUS);
+        assertEquals(1.0, tfIdfCosine.calculate("", ""), 0.0);
+        assertEquals(0.0, tfIdfCosine.calculate("", "abc"), 0.0);
+        assertEquals(1.0, tfIdfCosine.calculate(new String[0], new String[0]), 0.0);
+        assertEquals(1.0, new TfIdfCosine(new Tokenizer(1, false), true, new String[0]).calculate("dog", "dog"), 0.000001);
+    }
+}
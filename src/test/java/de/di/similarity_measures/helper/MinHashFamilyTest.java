@@ -0,0 +1,59 @@
+package de.di.similarity_measures.helper;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class MinHashFamilyTest {
+
+    @Test
+    public void testEstimation() {
+        // Two sets of 300 tokens that share 200 tokens, i.e., a Jaccard similarity of 200 / 400
+        long[] tokens1 = new long[300];
+        long[] tokens2 = new long[300];
+        for (int i = 0; i < 300; i++) {
+            tokens1[i] = i;
+            tokens2[i] = i + 100;
+        }
+
+        MinHashFamily family = new MinHashFamily(512, 42);
+        for (boolean onePermutation : new boolean[]{false, true}) {
+            long[] signature1 = family.signature(tokens1, onePermutation);
+            long[] signature2 = family.signature(tokens2, onePermutation);
+            assertEquals(0.5, family.estimateJaccard(signature1, signature2), 0.1);
+            assertEquals(1.0, family.estimateJaccard(signature1, family.signature(tokens1.clone(), onePermutation)), 0.0);
+
+            // Bounded estimations return the exact estimate at the bound and stop early far below it
+            double estimate = family.estimateJaccard(signature1, signature2);
+            assertEquals(estimate, family.estimateJaccard(signature1, signature2, estimate), 0.0);
+            assertEquals(MinHashFamily.BELOW_BOUND, family.estimateJaccard(signature1, signature2, 0.95), 0.0);
+        }
+    }
+
+    @Test
+    public void testDensification() {
+        MinHashFamily family = new MinHashFamily(64, 7);
+        long[] tokens = {3, 17, 42};
+        long[] signature = family.signature(tokens, true);
+        for (long value : signature)
+            assertNotEquals(MinHashFamily.EMPTY, value);
+
+        // The signature only depends on the token set, not on the order or repetitions of its tokens
+        assertArrayEquals(signature, family.signature(new long[]{42, 3, 17, 3}, true));
+        assertArrayEquals(signature, new MinHashFamily(64, 7).signature(tokens, true));
+
+        long[] empty = family.signature(new long[0], true);
+        for (long value : empty)
+            assertEquals(MinHashFamily.EMPTY, value);
+    }
+
+    @Test
+    public void testIndependentFunctions() {
+        MinHashFamily family = new MinHashFamily(8, 1);
+        long[] signature = family.signature(new long[]{1, 2, 3, 4, 5}, false);
+        for (int i = 1; i < signature.length; i++)
+            assertNotEquals(signature[0], signature[i]);
+    }
+}
@@ -3,6 +3,7 @@ package de.di.similarity_measures.helper;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 public class MinHashTest {
 
@@ -24,4 +25,12 @@ public class MinHashTest {
         result = minHash.hash(new String[]{"abc", "bca", "bac", "xyz", "bca"});
         assertEquals("bca", result);
     }
+
+    @Test
+    public void testSeededHashing() {
+        String[] tokens = new String[]{"abc", "bca", "bac", "xyz", "uvw"};
+        assertEquals(new MinHash(0).compute(tokens), new MinHash(0).compute(tokens));
+        assertNotEquals(new MinHash(0).compute(tokens), new MinHash(1).compute(tokens));
+        assertEquals(Integer.MAX_VALUE, new MinHash(0).compute(new String[0]));
+    }
 }
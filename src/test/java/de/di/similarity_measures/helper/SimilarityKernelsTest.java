@@ -0,0 +1,62 @@
+package de.di.similarity_measures.helper;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class SimilarityKernelsTest {
+
+    @Test
+    public void testIntersectionSize() {
+        // The kernels of this runtime must count exactly like the scalar kernels
+        SimilarityKernels kernels = SimilarityKernels.get();
+        assertVectorizedIfAvailable(kernels);
+        SimilarityKernels scalar = new SimilarityKernels();
+        Random random = new Random(23);
+        for (int run = 0; run < 500; run++) {
+            long[] tokens1 = distinctSorted(random, random.nextInt(40), 1 + random.nextInt(60));
+            long[] tokens2 = distinctSorted(random, random.nextInt(40), 1 + random.nextInt(60));
+            int numTokens1 = random.nextInt(tokens1.length + 1);
+            int numTokens2 = random.nextInt(tokens2.length + 1);
+            assertEquals(scalar.intersectionSize(tokens1, numTokens1, tokens2, numTokens2),
+                    kernels.intersectionSize(tokens1, numTokens1, tokens2, numTokens2));
+        }
+
+        long[] tokens = new long[]{-5, 1, 2, 3, 4, 8, 13, 21, 34};
+        assertEquals(9, kernels.intersectionSize(tokens, tokens.length, tokens, tokens.length));
+        assertEquals(3, kernels.intersectionSize(tokens, tokens.length, new long[]{1, 3, 13, 55}, 4));
+        assertEquals(0, kernels.intersectionSize(tokens, 0, tokens, tokens.length));
+    }
+
+    @Test
+    public void testCountEqual() {
+        SimilarityKernels kernels = SimilarityKernels.get();
+        assertVectorizedIfAvailable(kernels);
+        SimilarityKernels scalar = new SimilarityKernels();
+        Random random = new Random(29);
+        for (int run = 0; run < 200; run++) {
+            int length = random.nextInt(70);
+            long[] signature1 = new long[length];
+            long[] signature2 = new long[length];
+            for (int i = 0; i < length; i++) {
+                signature1[i] = random.nextInt(4);
+                signature2[i] = random.nextInt(4);
+            }
+            int prefix = random.nextInt(length + 1);
+            assertEquals(scalar.countEqual(signature1, signature2, prefix), kernels.countEqual(signature1, signature2, prefix));
+        }
+    }
+
+    // The SIMD kernels must be active whenever the runtime resolves the Vector API; otherwise the scalar kernels are
+    private static void assertVectorizedIfAvailable(SimilarityKernels kernels) {
+        boolean vectorApi = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        assertEquals(vectorApi, kernels.isVectorized());
+    }
+
+    private static long[] distinctSorted(Random random, int size, int range) {
+        return Arrays.stream(random.longs(size, 0, range).toArray()).distinct().sorted().toArray();
+    }
+}
@@ -0,0 +1,65 @@
+package de.di.similarity_measures.helper;
+
+import de.di.Relation;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TokenDictionaryTest {
+
+    @Test
+    public void testEncoding() {
+        TokenDictionary dictionary = new TokenDictionary();
+        assertArrayEquals(new int[]{0, 1, 0, 2}, dictionary.encode(new String[]{"ab", "bc", "ab", "cd"}));
+        assertArrayEquals(new int[]{2, 3}, dictionary.encode(new String[]{"cd", "de"}));
+
+        assertEquals(4, dictionary.size());
+        assertEquals(2, dictionary.numLists());
+        assertEquals(1, dictionary.frequency(0));
+        assertEquals(2, dictionary.frequency(2));
+        assertEquals("de", dictionary.tokenOf(3));
+        assertEquals(1, dictionary.idOf("bc"));
+        assertArrayEquals(new int[]{3, -1}, dictionary.lookup(new String[]{"de", "ef"}));
+        assertEquals(4, dictionary.size());
+    }
+
+    @Test
+    public void testConcurrentEncoding() throws Exception {
+        Relation relation = new Relation(Paths.get("data" + File.separator + "data_profiling" + File.separator + "tpch_supplier.csv"), true, ';', StandardCharsets.UTF_8);
+        Tokenizer tokenizer = new Tokenizer(2, false);
+        TokenDictionary dictionary = new TokenDictionary();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[][]>> futures = new ArrayList<>();
+            for (int attribute = 0; attribute < relation.getAttributes().length; attribute++) {
+                int a = attribute;
+                futures.add(executor.submit(() -> TokenDictionary.encode(relation, a, tokenizer, dictionary)));
+            }
+
+            // Every id must decode to its token, no matter which thread added it
+            for (int attribute = 0; attribute < futures.size(); attribute++) {
+                int[][] tokenIds = futures.get(attribute).get();
+                for (int record = 0; record < relation.getNumRecords(); record++) {
+                    String[] tokens = tokenizer.tokenize(relation.getRecords()[record][attribute]);
+                    assertEquals(tokens.length, tokenIds[record].length);
+                    for (int i = 0; i < tokens.length; i++)
+                        assertEquals(tokens[i], dictionary.tokenOf(tokenIds[record][i]));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(relation.getAttributes().length * relation.getNumRecords(), dictionary.numLists());
+    }
+}
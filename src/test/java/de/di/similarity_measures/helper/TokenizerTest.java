@@ -2,8 +2,14 @@ package de.di.similarity_measures.helper;
 
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class TokenizerTest {
 
@@ -75,4 +81,47 @@ public class TokenizerTest {
         test = new String[]{p + p + p, p + p + p};
         assertArrayEquals(test, result);
     }
+
+    @Test
+    public void testHashedTokenization() {
+        Random random = new Random(5);
+        for (int tokenSize = 1; tokenSize <= 6; tokenSize++) {
+            for (boolean usePadding : new boolean[]{false, true}) {
+                Tokenizer tokenizer = new Tokenizer(tokenSize, usePadding);
+                Tokenizer single = new Tokenizer(tokenSize, false);
+                // Equal string tokens must map to equal long tokens and different ones to different long tokens
+                Map<String, Long> tokenIds = new HashMap<>();
+                Map<Long, String> idTokens = new HashMap<>();
+                for (int run = 0; run < 100; run++) {
+                    StringBuilder builder = new StringBuilder();
+                    for (int length = random.nextInt(12); length > 0; length--)
+                        builder.append("ab\u00e9\u4e16 $".charAt(random.nextInt(6)));
+                    String string = builder.toString();
+
+                    String[] expected = tokenizer.tokenize(string);
+                    long[] tokens = tokenizer.tokenizeHashed(string);
+                    assertEquals(expected.length, tokenizer.numTokens(string));
+                    assertEquals(expected.length, tokens.length);
+
+                    long[] distinctTokens = new long[tokens.length];
+                    int numDistinct = tokenizer.tokenizeHashed(string, distinctTokens, true);
+                    assertEquals(Arrays.stream(expected).distinct().count(), numDistinct);
+                    for (int i = 1; i < numDistinct; i++)
+                        assertTrue(distinctTokens[i - 1] < distinctTokens[i]);
+
+                    // Every long token is the one of its string token on its own
+                    long[] expectedTokens = new long[expected.length];
+                    for (int i = 0; i < expected.length; i++) {
+                        String stringToken = expected[i];
+                        long token = single.tokenizeHashed(stringToken)[0];
+                        assertEquals(token, (long) tokenIds.computeIfAbsent(stringToken, t -> token));
+                        assertEquals(stringToken, idTokens.computeIfAbsent(token, t -> stringToken));
+                        expectedTokens[i] = token;
+                    }
+                    Arrays.sort(expectedTokens);
+                    assertArrayEquals(expectedTokens, tokens);
+                }
+            }
+        }
+    }
 }
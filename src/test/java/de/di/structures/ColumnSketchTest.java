@@ -0,0 +1,105 @@
+package de.di.structures;
+
+import de.di.Relation;
+import de.di.helper.LoadOptions;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnSketchTest {
+
+    private static final String[] FILES = {"abcde.csv", "abcdefghi.csv", "tpch_nation.csv", "tpch_region.csv", "tpch_supplier.csv"};
+
+    @Test
+    public void testEstimates() {
+        Relation relation = load("tpch_supplier.csv", LoadOptions.defaults());
+        for (int attribute = 0; attribute < relation.getAttributes().length; attribute++) {
+            DictionaryColumn column = relation.getColumn(attribute);
+            ColumnSketch sketch = relation.getSketch(attribute);
+
+            assertEquals(column.cardinality(), sketch.estimateDistinct(), 0.1 * column.cardinality());
+            assertEquals(1.0, sketch.estimateJaccard(ColumnSketch.of(column)), 0.0);
+            for (String value : column.getDictionary())
+                assertTrue(sketch.mightContain(value));
+        }
+    }
+
+    @Test
+    public void testSketchOfValues() {
+        ColumnSketch sketch = ColumnSketch.of(Arrays.asList("b", "", "aaa", "c"));
+
+        assertEquals(1, sketch.getNumEmpty());
+        assertEquals("aaa", sketch.getMin());
+        assertEquals("c", sketch.getMax());
+        assertEquals(1, sketch.getMinLength());
+        assertEquals(3, sketch.getMaxLength());
+        assertEquals(2, sketch.getLengthHistogram()[1]);
+        assertEquals(1, sketch.getLengthHistogram()[2]);
+        assertEquals(3, sketch.estimateDistinct());
+        assertFalse(sketch.mightContain("d"));
+        assertTrue(ColumnSketch.of(Arrays.asList("b", "c")).mightBeIncludedIn(sketch));
+        assertFalse(ColumnSketch.of(Arrays.asList("b", "")).mightBeIncludedIn(ColumnSketch.of(Arrays.asList("b", "c"))));
+    }
+
+    @Test
+    public void testTypedColumnSketch() {
+        Relation relation = load("tpch_supplier.csv", LoadOptions.defaults().columnar(true).inferTypes(true));
+        Relation plain = load("tpch_supplier.csv", LoadOptions.defaults());
+        for (int attribute = 0; attribute < relation.getAttributes().length; attribute++) {
+            if (relation.getTypedColumn(attribute).getType() == ColumnType.STRING)
+                continue;
+            ColumnSketch sketch = ColumnSketch.of(relation.getTypedColumn(attribute));
+            ColumnSketch expected = plain.getSketch(attribute);
+
+            assertEquals(expected.getNumEmpty(), sketch.getNumEmpty());
+            assertEquals(expected.getMin(), sketch.getMin());
+            assertEquals(expected.getMax(), sketch.getMax());
+            assertArrayEquals(expected.getLengthHistogram(), sketch.getLengthHistogram());
+            assertEquals(expected.estimateDistinct(), sketch.estimateDistinct());
+            assertEquals(1.0, sketch.estimateJaccard(expected), 0.0);
+        }
+    }
+
+    @Test
+    public void testInclusionHasNoFalseNegatives() {
+        List<Set<String>> values = new ArrayList<>();
+        List<ColumnSketch> sketches = new ArrayList<>();
+        for (String file : FILES) {
+            Relation relation = load(file, LoadOptions.defaults().sketches(true));
+            for (int attribute = 0; attribute < relation.getAttributes().length; attribute++) {
+                values.add(new HashSet<>(Arrays.asList(relation.getColumn(attribute).getDictionary())));
+                sketches.add(relation.getSketch(attribute));
+            }
+        }
+
+        int numPruned = 0;
+        for (int dependent = 0; dependent < values.size(); dependent++) {
+            for (int referenced = 0; referenced < values.size(); referenced++) {
+                boolean included = values.get(referenced).containsAll(values.get(dependent));
+                boolean candidate = sketches.get(dependent).mightBeIncludedIn(sketches.get(referenced));
+                assertTrue(!included || candidate);
+                if (!candidate)
+                    numPruned++;
+            }
+        }
+        assertTrue(numPruned > 0);
+    }
+
+    private static Relation load(String file, LoadOptions options) {
+        Path path = Paths.get("data" + File.separator + "data_profiling" + File.separator + file);
+        return new Relation(path, true, ';', StandardCharsets.UTF_8, options);
+    }
+}
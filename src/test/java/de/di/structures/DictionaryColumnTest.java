@@ -0,0 +1,47 @@
+package de.di.structures;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DictionaryColumnTest {
+
+    @Test
+    public void testAppend() {
+        DictionaryColumn column = DictionaryColumn.encode(new String[]{"a", "b", "a"});
+        DictionaryColumn appended = column;
+        StringBuilder expected = new StringBuilder("aba");
+        for (int batch = 0; batch < 100; batch++) {
+            String value = String.valueOf((char) ('a' + batch % 5));
+            appended = appended.append(new String[]{value, "a"});
+            expected.append(value).append('a');
+        }
+
+        assertEquals(expected.length(), appended.size());
+        assertEquals(5, appended.cardinality());
+        assertEquals(expected.length(), appended.getValueIds().length);
+        assertArrayEquals(new String[]{"a", "b", "c", "d", "e"}, appended.getDictionary());
+        for (int record = 0; record < expected.length(); record++)
+            assertEquals(String.valueOf(expected.charAt(record)), appended.get(record));
+
+        // The columns of an append chain stay unchanged
+        assertArrayEquals(new String[]{"a", "b", "a"}, column.toArray());
+        assertArrayEquals(new String[]{"a", "b"}, column.getDictionary());
+    }
+
+    @Test
+    public void testAppendToEarlierColumn() {
+        DictionaryColumn column = DictionaryColumn.encode(new String[]{"a", "b"});
+        DictionaryColumn first = column.append(new String[]{"c"});
+        DictionaryColumn second = first.append(new String[]{"d"});
+
+        // Appending to a column that was already appended to must not overwrite its successor's records
+        DictionaryColumn branch = first.append(new String[]{"e", "a"});
+        assertArrayEquals(new String[]{"a", "b", "c", "d"}, second.toArray());
+        assertArrayEquals(new String[]{"a", "b", "c", "d"}, second.getDictionary());
+        assertArrayEquals(new String[]{"a", "b", "c", "e", "a"}, branch.toArray());
+        assertArrayEquals(new String[]{"a", "b", "c", "e"}, branch.getDictionary());
+        assertArrayEquals(new String[]{"a", "b", "c", "d", "b"}, second.append(new String[]{"b"}).toArray());
+    }
+}
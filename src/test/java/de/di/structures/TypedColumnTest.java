@@ -0,0 +1,78 @@
+package de.di.structures;
+
+import de.di.Relation;
+import de.di.helper.LoadOptions;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TypedColumnTest {
+
+    @Test
+    public void testTypeInference() {
+        assertEquals(ColumnType.INTEGER, TypedColumn.inferType(new String[]{"1", "-42", "", "9223372036854775807"}));
+        assertEquals(ColumnType.DECIMAL, TypedColumn.inferType(new String[]{"5755.94", "-0.5", "1.0E10"}));
+        assertEquals(ColumnType.DATE, TypedColumn.inferType(new String[]{"1995-03-15", "", "2024-02-29"}));
+        assertEquals(ColumnType.BOOLEAN, TypedColumn.inferType(new String[]{"true", "false"}));
+
+        // Values that would not format back to exactly the same string prevent a primitive type
+        assertEquals(ColumnType.STRING, TypedColumn.inferType(new String[]{"1", "007"}));
+        assertEquals(ColumnType.STRING, TypedColumn.inferType(new String[]{"1", "+2"}));
+        assertEquals(ColumnType.STRING, TypedColumn.inferType(new String[]{"1.50", "2.5"}));
+        assertEquals(ColumnType.STRING, TypedColumn.inferType(new String[]{"1", "2.5"}));
+        assertEquals(ColumnType.STRING, TypedColumn.inferType(new String[]{"NaN", "Infinity"}));
+        assertEquals(ColumnType.STRING, TypedColumn.inferType(new String[]{"2023-02-30"}));
+        assertEquals(ColumnType.STRING, TypedColumn.inferType(new String[]{"True", "false"}));
+        assertEquals(ColumnType.STRING, TypedColumn.inferType(new String[]{"", ""}));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        String[] values = {"17", "", "-3", "17", "0", ""};
+        TypedColumn column = TypedColumn.infer(DictionaryColumn.encode(values));
+
+        assertEquals(ColumnType.INTEGER, column.getType());
+        assertEquals(values.length, column.size());
+        assertEquals(-3, column.getLong(2));
+        assertTrue(column.isNull(1));
+        assertFalse(column.isNull(4));
+        assertArrayEquals(values, column.toArray());
+    }
+
+    @Test
+    public void testRelationCorrectness() {
+        for (String file : new String[]{"abcde.csv", "abcdefghi.csv", "tpch_nation.csv", "tpch_region.csv", "tpch_supplier.csv"}) {
+            Path path = Paths.get("data" + File.separator + "data_profiling" + File.separator + file);
+            Relation expected = new Relation(path, true, ';', StandardCharsets.UTF_8);
+            Relation typed = new Relation(path, true, ';', StandardCharsets.UTF_8, LoadOptions.defaults().columnar(true).inferTypes(true));
+
+            for (int attribute = 0; attribute < expected.getAttributes().length; attribute++) {
+                assertArrayEquals(expected.getColumns()[attribute], typed.getTypedColumn(attribute).toArray());
+                try (ColumnCursor cursor = typed.openColumn(attribute)) {
+                    for (String value : expected.getColumns()[attribute])
+                        assertEquals(value, cursor.next());
+                }
+            }
+            assertArrayEquals(expected.getRecords(), typed.getRecords());
+        }
+    }
+
+    @Test
+    public void testInferredTypes() {
+        Path path = Paths.get("data" + File.separator + "data_profiling" + File.separator + "tpch_nation.csv");
+        Relation relation = new Relation(path, true, ';', StandardCharsets.UTF_8, LoadOptions.defaults().inferTypes(true));
+
+        assertEquals(ColumnType.INTEGER, relation.getTypedColumn(0).getType());
+        assertEquals(ColumnType.STRING, relation.getTypedColumn(1).getType());
+        assertEquals(ColumnType.INTEGER, relation.getTypedColumn(2).getType());
+        assertEquals(ColumnType.STRING, relation.getTypedColumn(3).getType());
+    }
+}